@@ -0,0 +1,196 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Activity-based search. The activity of a variable is the number of decisions whose propagation narrowed its domain,
+ * where older decisions count exponentially less. The variable with the largest ratio of activity to domain size is
+ * selected first, and the values which have narrowed the fewest variables on average are tried first.
+ * <p/>
+ * The same instance should be passed to <tt>Solver.solve</tt> as both the variable and the value selector.
+ *
+ * @author Eric Fritz
+ */
+final public class ActivitySearch extends LearningSelector
+{
+	/**
+	 * The factor by which all activities decay after each decision.
+	 */
+	private double decay;
+
+	/**
+	 * The amount added to the activity of a narrowed variable. Growing the increment instead of decaying every
+	 * activity keeps the decay constant-time per decision.
+	 */
+	private double increment = 1;
+
+	/**
+	 * The (scaled) activity of each variable indexed by variable id.
+	 */
+	private double[] activity = new double[0];
+
+	/**
+	 * The ids of the variables narrowed by the current decision.
+	 */
+	private int[] narrowed = new int[16];
+
+	/**
+	 * The number of ids in <tt>narrowed</tt>.
+	 */
+	private int count = 0;
+
+	/**
+	 * The decision in which each variable was last narrowed indexed by variable id.
+	 */
+	private long[] stamps = new long[0];
+
+	/**
+	 * The number of decisions observed.
+	 */
+	private long decisions = 0;
+
+	/**
+	 * Creates a new ActivitySearch with a decay of <tt>0.999</tt>.
+	 */
+	public ActivitySearch() {
+		this(0.999);
+	}
+
+	/**
+	 * Creates a new ActivitySearch.
+	 *
+	 * @param decay The factor by which all activities decay after each decision, between zero and one.
+	 *
+	 * @throws RuntimeException If the decay is not in the range <tt>(0, 1]</tt>.
+	 */
+	public ActivitySearch(double decay) {
+		if (!(decay > 0 && decay <= 1)) {
+			throw new RuntimeException("Decay must be in the range (0, 1].");
+		}
+
+		this.decay = decay;
+	}
+
+	/**
+	 * Returns the activity of a variable, relative to the activities of the other variables.
+	 *
+	 * @param variable The variable.
+	 *
+	 * @return The activity of the variable.
+	 */
+	public double getActivity(Variable<?> variable) {
+		int id = variable.getId();
+		return id < activity.length ? activity[id] : 0;
+	}
+
+	@Override
+	public Variable<?> select(Solver solver) {
+		List<Variable<?>> variables = solver.getUnselectedVariables();
+		Variable<?> best = null;
+		double bestActivity = 0;
+		int bestSize = 0;
+		int ties = 0;
+
+		for (int i = 0; i < variables.size(); i++) {
+			Variable<?> variable = variables.get(i);
+			double activity = getActivity(variable);
+			int size = variable.getDomain().size();
+			int comparison = best == null ? -1 : compare(activity, size, bestActivity, bestSize);
+
+			if (comparison < 0) {
+				best = variable;
+				bestActivity = activity;
+				bestSize = size;
+				ties = 1;
+			} else if (comparison == 0 && solver.preferTied(variable, best, ++ties)) {
+				best = variable;
+			}
+		}
+
+		return best;
+	}
+
+	@Override
+	public void decisionStarted(Variable<?> variable, Domain<?> value) {
+		decisions++;
+		count = 0;
+	}
+
+	@Override
+	public void domainNarrowed(Variable<?> variable, Domain<?> oldDomain, Domain<?> newDomain) {
+		int id = variable.getId();
+
+		if (id >= stamps.length) {
+			int length = Math.max(stamps.length * 2, id + 1);
+			stamps = Arrays.copyOf(stamps, length);
+			activity = Arrays.copyOf(activity, length);
+		}
+
+		if (stamps[id] != decisions) {
+			stamps[id] = decisions;
+
+			if (count == narrowed.length) {
+				narrowed = Arrays.copyOf(narrowed, count * 2);
+			}
+
+			narrowed[count++] = id;
+		}
+	}
+
+	@Override
+	public void decisionFinished(Variable<?> variable, Domain<?> value, boolean consistent) {
+		for (int i = 0; i < count; i++) {
+			activity[narrowed[i]] += increment;
+		}
+
+		increment /= decay;
+
+		if (increment > 1e100) {
+			for (int i = 0; i < activity.length; i++) {
+				activity[i] *= 1e-100;
+			}
+
+			increment *= 1e-100;
+		}
+
+		record(variable, value, count);
+	}
+
+	/**
+	 * Compares two variables by the ratio of activity to domain size (larger first), then by domain size.
+	 *
+	 * @param activity1 The activity of the first variable.
+	 * @param size1     The domain size of the first variable.
+	 * @param activity2 The activity of the second variable.
+	 * @param size2     The domain size of the second variable.
+	 *
+	 * @return A negative number if the first variable should be selected before the second, a positive number if
+	 * the second should be selected first, and zero if they are tied.
+	 */
+	private int compare(double activity1, int size1, double activity2, int size2) {
+		int comparison = Double.compare(activity2 * size1, activity1 * size2);
+		return comparison != 0 ? comparison : Integer.compare(size1, size2);
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A neighborhood which relaxes variables close to each other in the constraint graph. Starting from a random
+ * variable, the neighborhood grows breadth-first along the active constraints, visiting the neighbors of each
+ * variable in random order, until it holds enough variables; relaxing variables which constrain each other lets the
+ * search change them together.
+ *
+ * @author Eric Fritz
+ */
+final public class AdjacentNeighborhood implements Neighborhood
+{
+	/**
+	 * The number of variables to relax.
+	 */
+	private int size;
+
+	/**
+	 * Creates a new AdjacentNeighborhood.
+	 *
+	 * @param size The number of variables to relax.
+	 *
+	 * @throws RuntimeException If the size is not positive.
+	 */
+	public AdjacentNeighborhood(int size) {
+		this.size = Neighborhoods.checkSize(size);
+	}
+
+	@Override
+	public boolean fix(Solver solver, List<Variable<?>> variables, Solution incumbent) {
+		Set<Variable<?>> candidates = new HashSet<>(variables);
+		Set<Variable<?>> relaxed = new HashSet<>();
+		Set<Variable<?>> visited = new HashSet<>();
+		Deque<Variable<?>> queue = new ArrayDeque<>();
+
+		int limit = Math.min(size, candidates.size());
+
+		while (relaxed.size() < limit) {
+			if (queue.isEmpty()) {
+				// The component is exhausted; continue from another random variable.
+				List<Variable<?>> remaining = new ArrayList<>();
+				for (Variable<?> variable : variables) {
+					if (!visited.contains(variable)) {
+						remaining.add(variable);
+					}
+				}
+
+				Variable<?> seed = remaining.get(solver.getRandom().nextInt(remaining.size()));
+				visited.add(seed);
+				queue.add(seed);
+			}
+
+			Variable<?> variable = queue.poll();
+
+			if (candidates.contains(variable)) {
+				relaxed.add(variable);
+			}
+
+			List<Variable<?>> neighbors = solver.getNeighbors(variable);
+			Collections.shuffle(neighbors, solver.getRandom());
+
+			for (Variable<?> neighbor : neighbors) {
+				if (visited.add(neighbor)) {
+					queue.add(neighbor);
+				}
+			}
+		}
+
+		return Neighborhoods.fixAllBut(solver, variables, relaxed, incumbent);
+	}
+}
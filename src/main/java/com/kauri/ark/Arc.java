@@ -21,40 +21,210 @@
 
 package com.kauri.ark;
 
+import java.util.Arrays;
+
 /**
- * A variable/constraint pair.
+ * A constraint together with the set of variables it constrains.
+ * <p/>
+ * An arc is registered with every variable it constrains, and is scheduled once whenever any of those variables has
+ * its domain narrowed.
  *
  * @author Eric Fritz
  */
-final class Arc<T extends Domain>
+final class Arc<T extends Domain<?>>
 {
 	/**
-	 * The variable.
+	 * The constrained variables.
 	 */
-	private Variable<T> variable;
+	private Variable<T>[] variables;
 
 	/**
 	 * The constraint.
 	 */
 	private Constraint<T> constraint;
 
+	/**
+	 * The cost class of the constraint.
+	 */
+	private Cost cost;
+
+	/**
+	 * The number of times the constraint has failed, plus one.
+	 */
+	private long weight = 1;
+
+	/**
+	 * Whether the arc is currently in a worklist.
+	 */
+	private boolean queued = false;
+
+	/**
+	 * Whether the arc is currently woken by changes to its variables.
+	 */
+	private boolean active = true;
+
+	/**
+	 * The lists of arcs this arc is registered with.
+	 */
+	private ArcList[] lists = new ArcList[0];
+
+	/**
+	 * The position of this arc in each list of <tt>lists</tt>.
+	 */
+	private int[] positions = new int[0];
+
 	/**
 	 * Creates a new Arc.
 	 *
-	 * @param variable   The variable.
 	 * @param constraint The constraint.
+	 * @param variables  The constrained variables.
 	 */
-	public Arc(Variable<T> variable, Constraint<T> constraint) {
-		this.variable = variable;
+	public Arc(Constraint<T> constraint, Variable<T>[] variables) {
+		this.variables = variables;
 		this.constraint = constraint;
+		this.cost = constraint.getCost();
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the arc is currently in a worklist, <tt>false</tt> otherwise.
+	 *
+	 * @return <tt>true</tt> if the arc is currently in a worklist, <tt>false</tt> otherwise.
+	 */
+	public boolean isQueued() {
+		return queued;
+	}
+
+	/**
+	 * Marks the arc as being in a worklist or not.
+	 *
+	 * @param queued Whether the arc is in a worklist.
+	 */
+	public void setQueued(boolean queued) {
+		this.queued = queued;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the arc is woken by changes to its variables, <tt>false</tt> otherwise.
+	 *
+	 * @return <tt>true</tt> if the arc is woken by changes to its variables, <tt>false</tt> otherwise.
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * Returns the failure weight of the constraint: one plus the number of times an update of this arc has failed.
+	 *
+	 * @return The failure weight of the constraint.
+	 */
+	public long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * Records that an update of this arc has failed.
+	 */
+	public void recordFailure() {
+		weight++;
 	}
 
 	/**
-	 * Calls to <tt>constraint</tt> to narrow the domain of <tt>variable</tt>.
+	 * Registers the arc with a list of arcs. Registering with the same list more than once has no effect.
 	 *
-	 * @return <tt>true</tt> if the variable remains arc-consistent with its network.
+	 * @param list The list of arcs.
+	 */
+	public void register(ArcList list) {
+		for (ArcList other : lists) {
+			if (other == list) {
+				return;
+			}
+		}
+
+		lists = Arrays.copyOf(lists, lists.length + 1);
+		positions = Arrays.copyOf(positions, positions.length + 1);
+		lists[lists.length - 1] = list;
+
+		list.add(this, lists.length - 1);
+	}
+
+	/**
+	 * Updates the position of the arc in one of the lists it is registered with.
+	 *
+	 * @param slot     The index of the list in the arc's list of registrations.
+	 * @param position The position of the arc in that list.
+	 */
+	public void setPosition(int slot, int position) {
+		positions[slot] = position;
+	}
+
+	/**
+	 * Moves the arc to the active region of every list it is registered with.
+	 */
+	public void activate() {
+		for (int i = 0; i < lists.length; i++) {
+			lists[i].activate(positions[i]);
+		}
+
+		active = true;
+	}
+
+	/**
+	 * Moves the arc to the inactive region of every list it is registered with.
+	 */
+	public void deactivate() {
+		for (int i = 0; i < lists.length; i++) {
+			lists[i].deactivate(positions[i]);
+		}
+
+		active = false;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the constraint can no longer narrow any domain, <tt>false</tt> otherwise.
+	 *
+	 * @return <tt>true</tt> if the constraint is entailed, <tt>false</tt> otherwise.
+	 */
+	public boolean isEntailed() {
+		return constraint.isEntailed();
+	}
+
+	/**
+	 * Returns the cost class of the constraint.
+	 *
+	 * @return The cost class of the constraint.
+	 */
+	public Cost getCost() {
+		return cost;
+	}
+
+	/**
+	 * Returns the constrained variables.
+	 *
+	 * @return The constrained variables.
+	 */
+	public Variable<T>[] getVariables() {
+		return variables;
+	}
+
+	/**
+	 * Calls to <tt>constraint</tt> to narrow the domains of <tt>variables</tt>.
+	 * <p/>
+	 * If the constraint is a <tt>Propagator</tt>, all variables are narrowed by a single call. Otherwise, the
+	 * constraint is asked to narrow each variable in turn.
+	 *
+	 * @return <tt>true</tt> if the variables remain arc-consistent with their network.
 	 */
 	public boolean update() {
-		return constraint.narrow(variable);
+		if (constraint instanceof Propagator) {
+			return ((Propagator<T>) constraint).propagate();
+		}
+
+		for (Variable<T> variable : variables) {
+			if (!constraint.narrow(variable)) {
+				return false;
+			}
+		}
+
+		return true;
 	}
 }
@@ -0,0 +1,135 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.Arrays;
+
+/**
+ * A list of the arcs woken by one kind of change to the domain of one variable.
+ * <p/>
+ * Arcs can be deactivated and reactivated in constant time and in any order. Active arcs are kept at the front of the
+ * list and inactive arcs at the back. Each arc records its position in every list it belongs to, so moving an arc
+ * between the two regions is a single swap.
+ *
+ * @author Eric Fritz
+ */
+final class ArcList
+{
+	/**
+	 * The arcs. The active arcs occupy the first <tt>size</tt> positions.
+	 */
+	private Arc<?>[] arcs = new Arc<?>[4];
+
+	/**
+	 * The index of this list in the corresponding arc's list of registrations.
+	 */
+	private int[] slots = new int[4];
+
+	/**
+	 * The number of active arcs.
+	 */
+	private int size = 0;
+
+	/**
+	 * The total number of arcs.
+	 */
+	private int count = 0;
+
+	/**
+	 * Returns the number of active arcs.
+	 *
+	 * @return The number of active arcs.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the active arc at position <tt>index</tt>.
+	 *
+	 * @param index The index, which must be less than <tt>size()</tt>.
+	 *
+	 * @return The active arc.
+	 */
+	public Arc<?> get(int index) {
+		return arcs[index];
+	}
+
+	/**
+	 * Adds an active arc to the list.
+	 *
+	 * @param arc  The arc.
+	 * @param slot The index of this list in the arc's list of registrations.
+	 */
+	public void add(Arc<?> arc, int slot) {
+		if (count == arcs.length) {
+			arcs = Arrays.copyOf(arcs, count * 2);
+			slots = Arrays.copyOf(slots, count * 2);
+		}
+
+		arcs[count] = arc;
+		slots[count] = slot;
+		arc.setPosition(slot, count);
+		count++;
+
+		activate(count - 1);
+	}
+
+	/**
+	 * Moves the inactive arc at <tt>position</tt> to the active region of the list.
+	 *
+	 * @param position The position of the arc.
+	 */
+	public void activate(int position) {
+		swap(position, size);
+		size++;
+	}
+
+	/**
+	 * Moves the active arc at <tt>position</tt> to the inactive region of the list.
+	 *
+	 * @param position The position of the arc.
+	 */
+	public void deactivate(int position) {
+		swap(position, size - 1);
+		size--;
+	}
+
+	/**
+	 * Swaps the arcs at two positions, updating the position recorded by each arc.
+	 *
+	 * @param i The first position.
+	 * @param j The second position.
+	 */
+	private void swap(int i, int j) {
+		Arc<?> arc = arcs[i];
+		int slot = slots[i];
+
+		arcs[i] = arcs[j];
+		slots[i] = slots[j];
+		arcs[j] = arc;
+		slots[j] = slot;
+
+		arcs[i].setPosition(slots[i], i);
+		arcs[j].setPosition(slots[j], j);
+	}
+}
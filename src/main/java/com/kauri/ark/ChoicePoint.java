@@ -0,0 +1,145 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * A node of the search tree: a variable selected for branching, the values of its domain which remain to be tried, and
+ * the trail mark to which the network is restored before each value is tried.
+ * <p/>
+ * Choice points are stored on the solver's explicit search stack and are reused between nodes at the same depth.
+ *
+ * @author Eric Fritz
+ */
+final class ChoicePoint
+{
+	/**
+	 * The variable selected for branching.
+	 */
+	private Variable<?> variable;
+
+	/**
+	 * The iterator over the values of the variable's domain which remain to be tried.
+	 */
+	private DomainIterator<?> iterator;
+
+	/**
+	 * The size of the trail when the choice point was created.
+	 */
+	private int mark;
+
+	/**
+	 * Whether the variable had a single value when it was selected, so that branching on it decides nothing.
+	 */
+	private boolean forced;
+
+	/**
+	 * The value which is currently being tried, or <tt>null</tt>.
+	 */
+	private Domain<?> value;
+
+	/**
+	 * The number of solutions reported before the current value was tried.
+	 */
+	private long solutions;
+
+	/**
+	 * Reinitializes the choice point for a new node.
+	 *
+	 * @param variable The variable selected for branching.
+	 * @param iterator The iterator over the values of the variable's domain.
+	 * @param mark     The size of the trail when the choice point was created.
+	 * @param forced   Whether the variable had a single value when it was selected.
+	 */
+	public void reset(Variable<?> variable, DomainIterator<?> iterator, int mark, boolean forced) {
+		this.variable = variable;
+		this.iterator = iterator;
+		this.mark = mark;
+		this.forced = forced;
+		this.value = null;
+		this.solutions = 0;
+	}
+
+	/**
+	 * Returns the variable selected for branching.
+	 *
+	 * @return The variable selected for branching.
+	 */
+	public Variable<?> getVariable() {
+		return variable;
+	}
+
+	/**
+	 * Returns the iterator over the values of the variable's domain which remain to be tried.
+	 *
+	 * @return The iterator over the values of the variable's domain which remain to be tried.
+	 */
+	public DomainIterator<?> getIterator() {
+		return iterator;
+	}
+
+	/**
+	 * Returns the size of the trail when the choice point was created.
+	 *
+	 * @return The size of the trail when the choice point was created.
+	 */
+	public int getMark() {
+		return mark;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the variable had a single value when it was selected, <tt>false</tt> otherwise.
+	 *
+	 * @return <tt>true</tt> if the variable had a single value when it was selected, <tt>false</tt> otherwise.
+	 */
+	public boolean isForced() {
+		return forced;
+	}
+
+	/**
+	 * Returns the value which is currently being tried.
+	 *
+	 * @return The value which is currently being tried, or <tt>null</tt>.
+	 */
+	public Domain<?> getValue() {
+		return value;
+	}
+
+	/**
+	 * Returns the number of solutions reported before the current value was tried.
+	 *
+	 * @return The number of solutions reported before the current value was tried.
+	 */
+	public long getSolutions() {
+		return solutions;
+	}
+
+	/**
+	 * Updates the value which is currently being tried.
+	 *
+	 * @param value     The value.
+	 * @param solutions The number of solutions reported so far.
+	 */
+	public void setValue(Domain<?> value, long solutions) {
+		this.value = value;
+		this.solutions = solutions;
+	}
+}
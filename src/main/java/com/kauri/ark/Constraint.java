@@ -26,8 +26,42 @@ package com.kauri.ark;
  *
  * @author Eric Fritz
  */
-public interface Constraint<T extends Domain>
+public interface Constraint<T extends Domain<?>>
 {
+	/**
+	 * Returns the relative cost of narrowing this constraint.
+	 * <p/>
+	 * The solver uses the cost class to schedule cheap constraints before expensive ones.
+	 *
+	 * @return The relative cost of narrowing this constraint.
+	 */
+	Cost getCost();
+
+	/**
+	 * Returns the weakest change to the domain of <tt>variable</tt> which may allow this constraint to narrow.
+	 * <p/>
+	 * The solver only schedules this constraint after a change to the domain of <tt>variable</tt> which is at least as
+	 * strong as the returned event. Constraints which only reason about the smallest and largest values of a domain
+	 * should return <tt>BOUNDS</tt>, and constraints which can only narrow once a variable is assigned should return
+	 * <tt>INSTANTIATE</tt>.
+	 *
+	 * @param variable The constrained variable.
+	 *
+	 * @return The weakest change to the domain of <tt>variable</tt> which may allow this constraint to narrow.
+	 */
+	Event getEvent(Variable<T> variable);
+
+	/**
+	 * Returns <tt>true</tt> if every assignment of the current domains of the constrained variables satisfies this
+	 * constraint, <tt>false</tt> otherwise.
+	 * <p/>
+	 * An entailed constraint can no longer narrow any domain. The solver stops waking entailed constraints until the
+	 * search backtracks above the point where they became entailed. Returning <tt>false</tt> is always safe.
+	 *
+	 * @return <tt>true</tt> if this constraint is entailed by the current domains, <tt>false</tt> otherwise.
+	 */
+	boolean isEntailed();
+
 	/**
 	 * Narrow the domain of <tt>variable</tt> so that it remains arc-consistent with its network.
 	 * <p/>
@@ -35,8 +69,11 @@ public interface Constraint<T extends Domain>
 	 * not narrow the domain to rule out possible solutions (or enumerating all solutions will be impossible).
 	 * <p/>
 	 * This method is assumed to be called only with <tt>variable</tt> arguments relevant to the constraint (the only
-	 * possible arguments should be registered with <tt>Solver</tt>), and only after the domain of an adjacent variable
-	 * has narrowed its domain.
+	 * possible arguments should be registered with <tt>Solver</tt>), and only after the domain of one of the constrained
+	 * variables (possibly <tt>variable</tt> itself) has narrowed.
+	 * <p/>
+	 * The solver does not call this method for constraints implementing <tt>Propagator</tt>; it is kept so that such
+	 * constraints can still be narrowed one variable at a time.
 	 *
 	 * @param variable The variable to narrow.
 	 *
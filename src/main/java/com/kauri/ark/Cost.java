@@ -0,0 +1,59 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * The relative cost of narrowing a constraint.
+ * <p/>
+ * The solver narrows all queued constraints of a cheaper cost class before it narrows any constraint of a more
+ * expensive cost class. Cheap constraints therefore reach their fixpoint first, and expensive constraints are only
+ * called once the cheap ones can no longer narrow any domain.
+ *
+ * @author Eric Fritz
+ */
+public enum Cost
+{
+	/**
+	 * The constraint narrows a single variable in constant time.
+	 */
+	UNARY,
+
+	/**
+	 * The constraint relates two variables and narrows them by comparing their domains directly.
+	 */
+	BINARY,
+
+	/**
+	 * The constraint narrows in time linear in the number of its variables or in the size of their domains.
+	 */
+	LINEAR,
+
+	/**
+	 * The constraint narrows in time quadratic in the number of its variables or in the size of their domains.
+	 */
+	QUADRATIC,
+
+	/**
+	 * The constraint reasons over a large set of variables at once and is the most expensive to narrow.
+	 */
+	GLOBAL
+}
@@ -0,0 +1,486 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.finitedomain.FiniteDomain;
+import com.kauri.ark.integer.IntegerDomain;
+import com.kauri.ark.integer.Interval;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Embarrassingly parallel search. The model is split upfront into subproblems by fixing the first decisions of the
+ * search, dropping the branches which fail propagation, and the subproblems are solved independently as tasks of an
+ * executor. Solutions are passed to the handler one at a time, in no particular order.
+ * <p/>
+ * Subproblems can also be written to a file and solved elsewhere. Each line of the file holds one subproblem as a
+ * list of <tt>id:lower:upper</tt> decisions, where <tt>lower</tt> and <tt>upper</tt> are the bounds of the decision's
+ * value: its smallest and largest integers for an integer domain, and the positions of its first and last elements
+ * in the element list for a finite domain.
+ *
+ * @author Eric Fritz
+ */
+final public class DecompositionSolver
+{
+	/**
+	 * The model.
+	 */
+	private Model model;
+
+	/**
+	 * The executor solving the subproblems.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * The number of decisions fixed by each subproblem.
+	 */
+	private int decisions = 3;
+
+	/**
+	 * The factory creating the search strategy of each copy of the model.
+	 */
+	private StrategyFactory strategyFactory = Strategy.shared(VariableOrder.MIN_DOMAIN, ValueOrder.DOMAIN);
+
+	/**
+	 * Creates a new DecompositionSolver.
+	 *
+	 * @param model    The model.
+	 * @param executor The executor solving the subproblems.
+	 */
+	public DecompositionSolver(Model model, ExecutorService executor) {
+		this.model = model;
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets the number of decisions fixed by each subproblem. The default is 3.
+	 *
+	 * @param decisions The number of decisions.
+	 *
+	 * @throws RuntimeException If the number of decisions is not positive.
+	 */
+	public void setDecisions(int decisions) {
+		if (decisions < 1) {
+			throw new RuntimeException("Decisions must be positive.");
+		}
+
+		this.decisions = decisions;
+	}
+
+	/**
+	 * Sets the search strategy, used both to split the model and to solve the subproblems. The default is
+	 * <tt>VariableOrder.MIN_DOMAIN</tt> and <tt>ValueOrder.DOMAIN</tt>. Selectors which learn from the search must be
+	 * created for each copy of the model with <tt>setStrategyFactory</tt> instead.
+	 *
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 *
+	 * @throws RuntimeException If one of the selectors learns from the search.
+	 */
+	public void setSelectors(VariableSelector variableSelector, ValueSelector valueSelector) {
+		this.strategyFactory = Strategy.shared(variableSelector, valueSelector);
+	}
+
+	/**
+	 * Sets the factory creating the search strategy of each copy of the model. A copy keeps its strategy for all the
+	 * subproblems it solves. Subproblems are searched without restarts, so the restart schedule of the strategies is
+	 * not used.
+	 *
+	 * @param strategyFactory The strategy factory.
+	 */
+	public void setStrategyFactory(StrategyFactory strategyFactory) {
+		this.strategyFactory = strategyFactory;
+	}
+
+	/**
+	 * Splits the model into subproblems. Together the subproblems hold every solution of the model, and each solution
+	 * belongs to exactly one of them.
+	 *
+	 * @return The subproblems which are consistent after propagation.
+	 */
+	public List<Subproblem> decompose() {
+		Solver solver = new Solver();
+		model.build(solver);
+
+		Strategy strategy = strategyFactory.create(solver);
+		strategy.configure(solver);
+
+		final List<Subproblem> subproblems = new ArrayList<>();
+		final Subproblem root = new Subproblem(new int[0], new Domain<?>[0]);
+
+		solver.decompose(decisions, strategy.getVariableSelector(), strategy.getValueSelector(), new WorkQueue()
+		{
+			@Override
+			public boolean isHungry() {
+				return false;
+			}
+
+			@Override
+			public void share(Variable<?>[] variables, Domain<?>[] values) {
+				subproblems.add(root.extend(variables, values));
+			}
+		});
+
+		return subproblems;
+	}
+
+	/**
+	 * Calls <tt>handler</tt> with every solution of the model. If the handler returns <tt>false</tt>, the running
+	 * tasks are cancelled and the remaining subproblems are skipped.
+	 *
+	 * @param handler The solution handler.
+	 *
+	 * @throws RuntimeException If a task fails.
+	 */
+	public void solve(SolutionHandler handler) {
+		solve(decompose(), handler);
+	}
+
+	/**
+	 * Calls <tt>handler</tt> with every solution of the given subproblems. If the handler returns <tt>false</tt>, the
+	 * running tasks are cancelled and the remaining subproblems are skipped.
+	 *
+	 * @param subproblems The subproblems.
+	 * @param handler     The solution handler.
+	 *
+	 * @throws RuntimeException If a task fails.
+	 */
+	public void solve(List<Subproblem> subproblems, SolutionHandler handler) {
+		final SynchronizedSolutionHandler synchronizedHandler = new SynchronizedSolutionHandler(handler);
+		final Copies copies = new Copies();
+
+		final SolutionHandler cancellingHandler = new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				if (!synchronizedHandler.handle(solution)) {
+					copies.cancel();
+					return false;
+				}
+
+				return true;
+			}
+		};
+
+		List<Future<?>> futures = new ArrayList<>();
+
+		try {
+			for (final Subproblem subproblem : subproblems) {
+				futures.add(executor.submit(new Runnable()
+				{
+					@Override
+					public void run() {
+						if (synchronizedHandler.isStopped()) {
+							return;
+						}
+
+						Solver solver = copies.acquire();
+						Strategy strategy = copies.getStrategy(solver);
+
+						try {
+							solver.searchSubproblem(subproblem.getVariables(solver), subproblem.getValues(),
+									cancellingHandler, strategy.getVariableSelector(), strategy.getValueSelector(),
+									null);
+						} finally {
+							copies.release(solver);
+						}
+					}
+				}));
+			}
+
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			cancel(futures, copies);
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while solving.", e);
+		} catch (ExecutionException e) {
+			cancel(futures, copies);
+			throw new RuntimeException("Subproblem task failed.", e.getCause());
+		}
+	}
+
+	/**
+	 * Writes subproblems to a file, one per line.
+	 *
+	 * @param subproblems The subproblems.
+	 * @param file        The file.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void write(List<Subproblem> subproblems, File file) throws IOException {
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+			for (Subproblem subproblem : subproblems) {
+				int[] ids = subproblem.getIds();
+				Domain<?>[] values = subproblem.getValues();
+
+				for (int i = 0; i < ids.length; i++) {
+					if (i > 0) {
+						writer.write(' ');
+					}
+
+					writer.write(ids[i] + ":" + boundsOf(values[i]));
+				}
+
+				writer.newLine();
+			}
+		}
+	}
+
+	/**
+	 * Reads subproblems written by <tt>write</tt> for the same model.
+	 *
+	 * @param file The file.
+	 *
+	 * @return The subproblems.
+	 *
+	 * @throws IOException      If the file cannot be read.
+	 * @throws RuntimeException If the file does not describe subproblems of the model.
+	 */
+	public List<Subproblem> read(File file) throws IOException {
+		Solver solver = new Solver();
+		model.build(solver);
+		List<Variable<?>> variables = solver.getVariables();
+
+		List<Subproblem> subproblems = new ArrayList<>();
+
+		try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				String[] decisions = line.trim().isEmpty() ? new String[0] : line.trim().split(" ");
+
+				int[] ids = new int[decisions.length];
+				Domain<?>[] values = new Domain<?>[decisions.length];
+
+				for (int i = 0; i < decisions.length; i++) {
+					String[] parts = decisions[i].split(":");
+
+					if (parts.length != 3) {
+						throw new RuntimeException("Malformed decision '" + decisions[i] + "'.");
+					}
+
+					ids[i] = Integer.parseInt(parts[0]);
+
+					if (ids[i] < 0 || ids[i] >= variables.size()) {
+						throw new RuntimeException("Decision on unknown variable " + ids[i] + ".");
+					}
+
+					int lower = Integer.parseInt(parts[1]);
+					int upper = Integer.parseInt(parts[2]);
+
+					values[i] = valueOf(variables.get(ids[i]).getDomain(), lower, upper);
+				}
+
+				subproblems.add(new Subproblem(ids, values));
+			}
+		}
+
+		return subproblems;
+	}
+
+	/**
+	 * Cancels the subproblems being solved and those not yet started.
+	 *
+	 * @param futures The tasks of the subproblems.
+	 * @param copies  The copies of the model solving the subproblems.
+	 */
+	private static void cancel(List<Future<?>> futures, Copies copies) {
+		for (Future<?> future : futures) {
+			future.cancel(false);
+		}
+
+		copies.cancel();
+	}
+
+	/**
+	 * Returns the bounds of the value of a decision, as written to a subproblem file.
+	 *
+	 * @param value The value.
+	 *
+	 * @return The bounds, separated by a colon.
+	 *
+	 * @throws RuntimeException If the value is neither an integer nor a finite domain.
+	 */
+	private static String boundsOf(Domain<?> value) {
+		if (value instanceof IntegerDomain) {
+			IntegerDomain domain = (IntegerDomain) value;
+			return domain.getMinimum() + ":" + domain.getMaximum();
+		}
+
+		if (value instanceof FiniteDomain) {
+			FiniteDomain<?> domain = (FiniteDomain<?>) value;
+			return domain.getFirstIndex() + ":" + domain.getLastIndex();
+		}
+
+		throw new RuntimeException("Unsupported domain " + value.getClass().getName() + ".");
+	}
+
+	/**
+	 * Returns the value of a decision with the given bounds, as read from a subproblem file. The value is the part of
+	 * the variable's initial domain between the bounds, which must both be part of the domain.
+	 *
+	 * @param domain The initial domain of the variable.
+	 * @param lower  The lower bound of the value.
+	 * @param upper  The upper bound of the value.
+	 *
+	 * @return The value.
+	 *
+	 * @throws RuntimeException If the bounds do not describe part of the domain.
+	 */
+	private static Domain<?> valueOf(Domain<?> domain, int lower, int upper) {
+		if (lower > upper) {
+			throw new RuntimeException("Value bounds " + lower + ":" + upper + " are empty.");
+		}
+
+		if (domain instanceof IntegerDomain) {
+			IntegerDomain value = ((IntegerDomain) domain).retain(new Interval(lower, upper));
+
+			if (!value.isEmpty() && value.getMinimum() == lower && value.getMaximum() == upper) {
+				return value;
+			}
+		} else if (domain instanceof FiniteDomain) {
+			FiniteDomain<?> value = ((FiniteDomain<?>) domain).retainRange(lower, upper);
+
+			if (!value.isEmpty() && value.getFirstIndex() == lower && value.getLastIndex() == upper) {
+				return value;
+			}
+		} else {
+			throw new RuntimeException("Unsupported domain " + domain.getClass().getName() + ".");
+		}
+
+		throw new RuntimeException("Value bounds " + lower + ":" + upper + " are not part of the domain.");
+	}
+
+	/**
+	 * The copies of the model built for one call to <tt>solve</tt>. Each task borrows an idle copy, so no more copies
+	 * are built than tasks run at once.
+	 */
+	private class Copies
+	{
+		/**
+		 * The copies not currently solving a subproblem.
+		 */
+		private Deque<Solver> idle = new ArrayDeque<>();
+
+		/**
+		 * The copies currently solving a subproblem.
+		 */
+		private Set<Solver> running = new HashSet<>();
+
+		/**
+		 * The search strategy of each copy.
+		 */
+		private Map<Solver, Strategy> strategies = new HashMap<>();
+
+		/**
+		 * Whether the subproblems have been cancelled.
+		 */
+		private boolean cancelled = false;
+
+		/**
+		 * Returns an idle copy of the model, building a new one if there is none.
+		 *
+		 * @return A copy of the model.
+		 */
+		public Solver acquire() {
+			Solver solver;
+
+			synchronized (this) {
+				solver = idle.poll();
+			}
+
+			Strategy strategy = null;
+
+			if (solver == null) {
+				solver = new Solver();
+				model.build(solver);
+
+				strategy = strategyFactory.create(solver);
+				strategy.configure(solver);
+			}
+
+			synchronized (this) {
+				if (strategy != null) {
+					strategies.put(solver, strategy);
+				}
+
+				running.add(solver);
+
+				if (cancelled) {
+					solver.retire();
+				}
+			}
+
+			return solver;
+		}
+
+		/**
+		 * Returns the search strategy of a copy of the model.
+		 *
+		 * @param solver The copy of the model.
+		 *
+		 * @return The strategy.
+		 */
+		public synchronized Strategy getStrategy(Solver solver) {
+			return strategies.get(solver);
+		}
+
+		/**
+		 * Returns a copy of the model which has finished its subproblem.
+		 *
+		 * @param solver The copy of the model.
+		 */
+		public synchronized void release(Solver solver) {
+			running.remove(solver);
+			idle.add(solver);
+		}
+
+		/**
+		 * Cancels the subproblems being solved, and those started later.
+		 */
+		public synchronized void cancel() {
+			cancelled = true;
+
+			for (Solver solver : running) {
+				solver.retire();
+			}
+		}
+	}
+}
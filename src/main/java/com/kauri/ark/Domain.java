@@ -49,6 +49,43 @@ public interface Domain<T>
 	 */
 	boolean isUnique();
 
+	/**
+	 * Returns <tt>true</tt> if the domain has the same smallest and largest values as <tt>domain</tt>, <tt>false</tt>
+	 * otherwise.
+	 *
+	 * @param domain Another domain of the same kind.
+	 *
+	 * @return <tt>true</tt> if the domain has the same smallest and largest values as <tt>domain</tt>.
+	 */
+	boolean hasSameBounds(Domain<?> domain);
+
+	/**
+	 * Returns <tt>true</tt> if the domain contains <tt>value</tt>, <tt>false</tt> otherwise.
+	 *
+	 * @param value The value.
+	 *
+	 * @return <tt>true</tt> if the domain contains <tt>value</tt>, <tt>false</tt> otherwise.
+	 */
+	boolean contains(T value);
+
+	/**
+	 * Returns a new domain constructed by removing <tt>value</tt> from this domain.
+	 *
+	 * @param value The value.
+	 *
+	 * @return A new domain of the same kind.
+	 */
+	Domain<T> remove(T value);
+
+	/**
+	 * Returns a new domain constructed by retaining only <tt>value</tt> from this domain.
+	 *
+	 * @param value The value.
+	 *
+	 * @return A new domain of the same kind.
+	 */
+	Domain<T> retain(T value);
+
 	/**
 	 * Returns the unique value of the domain.
 	 *
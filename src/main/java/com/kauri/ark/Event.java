@@ -0,0 +1,49 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * The kind of change made to the domain of a variable.
+ * <p/>
+ * Events are ordered from strongest to weakest: every instantiation also changes the bounds of a domain, and every
+ * change of bounds also removes values from a domain. A constraint subscribed to an event on a variable is woken by
+ * that event and by every stronger event on the same variable.
+ *
+ * @author Eric Fritz
+ */
+public enum Event
+{
+	/**
+	 * The domain was narrowed to a single value.
+	 */
+	INSTANTIATE,
+
+	/**
+	 * The smallest or largest value of the domain was removed.
+	 */
+	BOUNDS,
+
+	/**
+	 * Some value of the domain was removed.
+	 */
+	REMOVE
+}
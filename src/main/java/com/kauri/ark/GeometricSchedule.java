@@ -0,0 +1,67 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * A restart schedule whose failure limits grow geometrically: <tt>base, base * factor, base * factor^2, ...</tt>
+ *
+ * @author Eric Fritz
+ */
+final public class GeometricSchedule implements RestartSchedule
+{
+	/**
+	 * The failure limit of the first run.
+	 */
+	private long base;
+
+	/**
+	 * The factor by which the failure limit grows after each run.
+	 */
+	private double factor;
+
+	/**
+	 * Creates a new GeometricSchedule.
+	 *
+	 * @param base   The failure limit of the first run.
+	 * @param factor The factor by which the failure limit grows after each run.
+	 *
+	 * @throws RuntimeException If the base is not positive or the factor is less than one.
+	 */
+	public GeometricSchedule(long base, double factor) {
+		if (base < 1) {
+			throw new RuntimeException("Base must be positive.");
+		}
+
+		if (!(factor >= 1)) {
+			throw new RuntimeException("Factor must be at least one.");
+		}
+
+		this.base = base;
+		this.factor = factor;
+	}
+
+	@Override
+	public long getFailureLimit(int run) {
+		double limit = base * Math.pow(factor, run);
+		return limit >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) limit;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.List;
+
+/**
+ * Impact-based search. The impact of a decision is the fraction of the search space, measured as the product of the
+ * domain sizes of all variables, which is removed by propagating it; a decision which fails has an impact of one.
+ * <p/>
+ * The variable selected first is the one whose branches are expected to leave the smallest search space, that is the
+ * one minimizing <tt>|D(x)| * (1 - I(x))</tt>, where <tt>I(x)</tt> is the average impact of the decisions on
+ * <tt>x</tt>. Values with the smallest average impact, which keep the most solutions open, are tried first. Before
+ * anything has been learned, this degenerates into selecting the variable with the smallest domain.
+ * <p/>
+ * The same instance should be passed to <tt>Solver.solve</tt> as both the variable and the value selector.
+ *
+ * @author Eric Fritz
+ */
+final public class ImpactSearch extends LearningSelector
+{
+	/**
+	 * The logarithm of the ratio of the search space after and before the current decision.
+	 */
+	private double reduction = 0;
+
+	/**
+	 * Returns the average impact of the decisions on <tt>variable</tt>.
+	 *
+	 * @param variable The variable.
+	 *
+	 * @return The average impact, between zero and one.
+	 */
+	public double getImpact(Variable<?> variable) {
+		return getScore(variable);
+	}
+
+	@Override
+	public Variable<?> select(Solver solver) {
+		List<Variable<?>> variables = solver.getUnselectedVariables();
+		Variable<?> best = null;
+		double bestSpace = 0;
+		int bestSize = 0;
+		int ties = 0;
+
+		for (int i = 0; i < variables.size(); i++) {
+			Variable<?> variable = variables.get(i);
+			int size = variable.getDomain().size();
+			double space = size * (1 - getImpact(variable));
+			int comparison = best == null ? -1 : compare(space, size, bestSpace, bestSize);
+
+			if (comparison < 0) {
+				best = variable;
+				bestSpace = space;
+				bestSize = size;
+				ties = 1;
+			} else if (comparison == 0 && solver.preferTied(variable, best, ++ties)) {
+				best = variable;
+			}
+		}
+
+		return best;
+	}
+
+	@Override
+	public void decisionStarted(Variable<?> variable, Domain<?> value) {
+		reduction = 0;
+	}
+
+	@Override
+	public void domainNarrowed(Variable<?> variable, Domain<?> oldDomain, Domain<?> newDomain) {
+		reduction += Math.log(newDomain.size()) - Math.log(oldDomain.size());
+	}
+
+	@Override
+	public void decisionFinished(Variable<?> variable, Domain<?> value, boolean consistent) {
+		record(variable, value, consistent ? 1 - Math.exp(reduction) : 1);
+	}
+
+	/**
+	 * Compares two variables by the expected remaining search space, then by domain size.
+	 *
+	 * @param space1 The expected search space of the first variable.
+	 * @param size1  The domain size of the first variable.
+	 * @param space2 The expected search space of the second variable.
+	 * @param size2  The domain size of the second variable.
+	 *
+	 * @return A negative number if the first variable should be selected before the second, a positive number if
+	 * the second should be selected first, and zero if they are tied.
+	 */
+	private int compare(double space1, int size1, double space2, int size2) {
+		int comparison = Double.compare(space1, space2);
+		return comparison != 0 ? comparison : Integer.compare(size1, size2);
+	}
+}
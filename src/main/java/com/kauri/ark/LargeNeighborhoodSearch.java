@@ -0,0 +1,252 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Large neighborhood search for optimization models too big to search completely. Starting from an incumbent
+ * solution, each iteration keeps part of the incumbent fixed, searches the remaining variables for a strictly better
+ * objective under a failure limit, and adopts the best solution found as the new incumbent.
+ *
+ * @author Eric Fritz
+ */
+final public class LargeNeighborhoodSearch
+{
+	/**
+	 * The solver.
+	 */
+	private Solver solver;
+
+	/**
+	 * The variable to optimize.
+	 */
+	private IntegerVariable objective;
+
+	/**
+	 * Whether the objective is maximized rather than minimized.
+	 */
+	private boolean maximizing;
+
+	/**
+	 * The variables the neighborhoods may fix, or an empty list for every variable but the objective.
+	 */
+	private List<Variable<?>> candidates;
+
+	/**
+	 * The neighborhood generator, or <tt>null</tt> for a random neighborhood of a third of the candidates.
+	 */
+	private Neighborhood neighborhood;
+
+	/**
+	 * The number of failed decisions after which a neighborhood is abandoned.
+	 */
+	private long failLimit = 100;
+
+	/**
+	 * The maximum number of neighborhoods to search.
+	 */
+	private int iterations = 100;
+
+	/**
+	 * The time limit in milliseconds, or zero for no time limit.
+	 */
+	private long timeLimit = 0;
+
+	/**
+	 * The strategy choosing the variable to branch on.
+	 */
+	private VariableSelector variableSelector = VariableOrder.MIN_DOMAIN;
+
+	/**
+	 * The strategy choosing the order of values of the selected variable.
+	 */
+	private ValueSelector valueSelector = ValueOrder.DOMAIN;
+
+	/**
+	 * Creates a new LargeNeighborhoodSearch.
+	 *
+	 * @param solver     The solver.
+	 * @param objective  The variable to optimize.
+	 * @param maximizing Whether the objective is maximized rather than minimized.
+	 * @param candidates The variables the neighborhoods may fix. If none are given, every variable registered with
+	 *                   the solver other than the objective is a candidate.
+	 */
+	public LargeNeighborhoodSearch(Solver solver, IntegerVariable objective, boolean maximizing,
+			Variable<?>... candidates) {
+		this.solver = solver;
+		this.objective = objective;
+		this.maximizing = maximizing;
+		this.candidates = Arrays.asList(candidates);
+	}
+
+	/**
+	 * Sets the neighborhood generator.
+	 *
+	 * @param neighborhood The neighborhood generator.
+	 */
+	public void setNeighborhood(Neighborhood neighborhood) {
+		this.neighborhood = neighborhood;
+	}
+
+	/**
+	 * Sets the number of failed decisions after which a neighborhood is abandoned. The default is 100.
+	 *
+	 * @param failLimit The failure limit.
+	 *
+	 * @throws RuntimeException If the failure limit is not positive.
+	 */
+	public void setFailLimit(long failLimit) {
+		if (failLimit < 1) {
+			throw new RuntimeException("Fail limit must be positive.");
+		}
+
+		this.failLimit = failLimit;
+	}
+
+	/**
+	 * Sets the maximum number of neighborhoods to search. The default is 100.
+	 *
+	 * @param iterations The number of iterations.
+	 *
+	 * @throws RuntimeException If the number of iterations is negative.
+	 */
+	public void setIterations(int iterations) {
+		if (iterations < 0) {
+			throw new RuntimeException("Iterations must not be negative.");
+		}
+
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Sets the wall-clock time after which no further neighborhood is started. The default is no time limit.
+	 *
+	 * @param timeLimit The time limit in milliseconds, or zero for no time limit.
+	 *
+	 * @throws RuntimeException If the time limit is negative.
+	 */
+	public void setTimeLimit(long timeLimit) {
+		if (timeLimit < 0) {
+			throw new RuntimeException("Time limit must not be negative.");
+		}
+
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Sets the strategy used to search the neighborhoods. The default is <tt>VariableOrder.MIN_DOMAIN</tt> and
+	 * <tt>ValueOrder.DOMAIN</tt>.
+	 *
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 */
+	public void setSelectors(VariableSelector variableSelector, ValueSelector valueSelector) {
+		this.variableSelector = variableSelector;
+		this.valueSelector = valueSelector;
+	}
+
+	/**
+	 * Improves on <tt>incumbent</tt> until the iteration or time limit is reached, the handler stops the search, or the
+	 * solver is cancelled. If there is no incumbent, the first solution of a complete search becomes the incumbent.
+	 * Each improving solution, including a generated incumbent, is passed to the handler.
+	 *
+	 * @param incumbent The initial solution, found by or translated to the solver, or <tt>null</tt> to generate one.
+	 * @param handler   The solution handler.
+	 *
+	 * @return The best solution found, or <tt>null</tt> if there is no solution.
+	 *
+	 * @throws RuntimeException If the objective has not been registered.
+	 */
+	public Solution run(Solution incumbent, final SolutionHandler handler) {
+		if (!solver.getVariables().contains(objective)) {
+			throw new RuntimeException("Optimizing non-registered variable.");
+		}
+
+		final Solution[] best = new Solution[] { incumbent };
+		final boolean[] stopped = new boolean[] { false };
+
+		solver.getStatistics().reset();
+
+		if (incumbent == null) {
+			solver.solve(new SolutionHandler()
+			{
+				@Override
+				public boolean handle(Solution solution) {
+					best[0] = solution;
+					stopped[0] = !handler.handle(solution);
+					return false;
+				}
+			}, variableSelector, valueSelector);
+
+			if (best[0] == null) {
+				return null;
+			}
+		}
+
+		List<Variable<?>> variables = getCandidates();
+		Neighborhood generator = neighborhood != null
+				? neighborhood
+				: new RandomNeighborhood(Math.max(1, variables.size() / 3));
+
+		SolutionHandler improvements = new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				best[0] = solution;
+				stopped[0] = !handler.handle(solution);
+				return !stopped[0];
+			}
+		};
+
+		long deadline = timeLimit > 0 ? System.currentTimeMillis() + timeLimit : Long.MAX_VALUE;
+
+		for (int i = 0; i < iterations && !stopped[0] && System.currentTimeMillis() < deadline; i++) {
+			solver.searchNeighborhood(generator, variables, best[0], objective, maximizing, failLimit, improvements,
+					variableSelector, valueSelector);
+
+			if (solver.getStatus() == SearchStatus.CANCELLED) {
+				break;
+			}
+		}
+
+		return best[0];
+	}
+
+	/**
+	 * Returns the variables the neighborhoods may fix.
+	 *
+	 * @return The candidate variables.
+	 */
+	private List<Variable<?>> getCandidates() {
+		if (!candidates.isEmpty()) {
+			return candidates;
+		}
+
+		List<Variable<?>> variables = new ArrayList<>(solver.getVariables());
+		variables.remove(objective);
+		return variables;
+	}
+}
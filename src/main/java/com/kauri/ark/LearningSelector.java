@@ -0,0 +1,301 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Common machinery for search strategies which learn a score for each decision <tt>variable = value</tt> as the search
+ * progresses. Scores are averaged per value, per variable and over all decisions. Values are tried in increasing order
+ * of score; a value which has not been tried yet is scored with the average of its variable, or with the overall
+ * average if the variable has not been branched on yet. Values with equal scores are tried in domain order, or in a
+ * random order if the solver breaks ties randomly.
+ *
+ * @author Eric Fritz
+ */
+abstract class LearningSelector implements VariableSelector, ValueSelector, SearchListener
+{
+	/**
+	 * The largest domain whose values are ordered by score. Larger domains are tried in domain order.
+	 */
+	static final int MAX_ORDERED_VALUES = 1024;
+
+	/**
+	 * The average score of each value indexed by variable id.
+	 */
+	private List<Map<Object, Average>> values = new ArrayList<>();
+
+	/**
+	 * The average score of the decisions on each variable indexed by variable id.
+	 */
+	private List<Average> variables = new ArrayList<>();
+
+	/**
+	 * The average score of all decisions.
+	 */
+	private Average overall = new Average();
+
+	@Override
+	public DomainIterator<?> getValues(Solver solver, Variable<?> variable) {
+		Domain<?> domain = variable.getDomain();
+
+		if (domain.size() > MAX_ORDERED_VALUES) {
+			return domain.getUniqueValues();
+		}
+
+		return order(solver, variable, domain);
+	}
+
+	/**
+	 * Returns the single values of <tt>domain</tt> in increasing order of score.
+	 *
+	 * @param solver   The solver.
+	 * @param variable The variable.
+	 * @param domain   The domain of the variable.
+	 *
+	 * @return An iterator over the single values of the domain.
+	 */
+	private <T> DomainIterator<T> order(Solver solver, Variable<?> variable, Domain<T> domain) {
+		List<Candidate<T>> candidates = new ArrayList<>();
+
+		DomainIterator<T> iterator = domain.getUniqueValues();
+		while (iterator.hasNext()) {
+			Domain<T> value = iterator.next();
+
+			if (value.isUnique()) {
+				candidates.add(new Candidate<>(value, getScore(variable, value)));
+			} else {
+				iterator.lastDomainValid();
+			}
+		}
+
+		Collections.sort(candidates, new Comparator<Candidate<T>>()
+		{
+			@Override
+			public int compare(Candidate<T> o1, Candidate<T> o2) {
+				return Double.compare(o1.score, o2.score);
+			}
+		});
+
+		if (solver.isRandomTieBreaking()) {
+			int start = 0;
+
+			for (int i = 1; i <= candidates.size(); i++) {
+				if (i == candidates.size() || candidates.get(i).score != candidates.get(start).score) {
+					Collections.shuffle(candidates.subList(start, i), solver.getRandom());
+					start = i;
+				}
+			}
+		}
+
+		return new ListIterator<>(candidates);
+	}
+
+	/**
+	 * Records the score of a decision. Decisions which do not restrict the variable to a single value only contribute
+	 * to the averages of the variable and of all decisions.
+	 *
+	 * @param variable The variable.
+	 * @param value    The value which was tried.
+	 * @param score    The score.
+	 */
+	protected void record(Variable<?> variable, Domain<?> value, double score) {
+		int id = variable.getId();
+
+		while (variables.size() <= id) {
+			variables.add(new Average());
+			values.add(new HashMap<Object, Average>());
+		}
+
+		if (value.isUnique()) {
+			Average average = values.get(id).get(value.getUniqueValue());
+
+			if (average == null) {
+				average = new Average();
+				values.get(id).put(value.getUniqueValue(), average);
+			}
+
+			average.add(score);
+		}
+
+		variables.get(id).add(score);
+		overall.add(score);
+	}
+
+	/**
+	 * Returns the average score of the decisions on <tt>variable</tt>, or the average of all decisions if the variable
+	 * has not been branched on yet, or zero if there has been no decision at all.
+	 *
+	 * @param variable The variable.
+	 *
+	 * @return The average score of the decisions on <tt>variable</tt>.
+	 */
+	protected double getScore(Variable<?> variable) {
+		int id = variable.getId();
+
+		if (id < variables.size() && variables.get(id).count != 0) {
+			return variables.get(id).mean();
+		}
+
+		return overall.count != 0 ? overall.mean() : 0;
+	}
+
+	/**
+	 * Returns the average score of the decision <tt>variable = value</tt>, or the score of <tt>variable</tt> if the
+	 * value has not been tried yet.
+	 *
+	 * @param variable The variable.
+	 * @param value    A single value of the variable.
+	 *
+	 * @return The average score of the decision.
+	 */
+	protected double getScore(Variable<?> variable, Domain<?> value) {
+		int id = variable.getId();
+
+		if (id < values.size()) {
+			Average average = values.get(id).get(value.getUniqueValue());
+
+			if (average != null) {
+				return average.mean();
+			}
+		}
+
+		return getScore(variable);
+	}
+
+	/**
+	 * A running average.
+	 */
+	private static class Average
+	{
+		/**
+		 * The sum of the observations.
+		 */
+		private double sum = 0;
+
+		/**
+		 * The number of observations.
+		 */
+		private long count = 0;
+
+		/**
+		 * Adds an observation.
+		 *
+		 * @param value The observation.
+		 */
+		public void add(double value) {
+			sum += value;
+			count++;
+		}
+
+		/**
+		 * Returns the average of the observations.
+		 *
+		 * @return The average of the observations.
+		 */
+		public double mean() {
+			return sum / count;
+		}
+	}
+
+	/**
+	 * A single value and its score.
+	 */
+	private static class Candidate<T>
+	{
+		/**
+		 * The value.
+		 */
+		private Domain<T> value;
+
+		/**
+		 * The score of the value.
+		 */
+		private double score;
+
+		/**
+		 * Creates a new Candidate.
+		 *
+		 * @param value The value.
+		 * @param score The score of the value.
+		 */
+		public Candidate(Domain<T> value, double score) {
+			this.value = value;
+			this.score = score;
+		}
+	}
+
+	/**
+	 * Iterates over a fixed list of single values.
+	 */
+	private static class ListIterator<T> implements DomainIterator<T>
+	{
+		/**
+		 * The values.
+		 */
+		private List<Candidate<T>> values;
+
+		/**
+		 * The index of the next value.
+		 */
+		private int index = 0;
+
+		/**
+		 * Creates a new ListIterator.
+		 *
+		 * @param values The values.
+		 */
+		public ListIterator(List<Candidate<T>> values) {
+			this.values = values;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return index < values.size();
+		}
+
+		@Override
+		public Domain<T> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return values.get(index++).value;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void lastDomainValid() {
+			// Each returned domain is a single value.
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * The universal restart schedule of Luby, Sinclair and Zuckerman. The failure limits are a multiple of the sequence
+ * <tt>1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, ...</tt>
+ *
+ * @author Eric Fritz
+ */
+final public class LubySchedule implements RestartSchedule
+{
+	/**
+	 * The factor applied to each element of the sequence.
+	 */
+	private long scale;
+
+	/**
+	 * Creates a new LubySchedule.
+	 *
+	 * @param scale The factor applied to each element of the sequence.
+	 *
+	 * @throws RuntimeException If the scale is not positive.
+	 */
+	public LubySchedule(long scale) {
+		if (scale < 1) {
+			throw new RuntimeException("Scale must be positive.");
+		}
+
+		this.scale = scale;
+	}
+
+	@Override
+	public long getFailureLimit(int run) {
+		long i = run + 1L;
+
+		while (true) {
+			int k = 64 - Long.numberOfLeadingZeros(i);
+
+			if (i == (1L << k) - 1) {
+				long element = 1L << (k - 1);
+				return element > Long.MAX_VALUE / scale ? Long.MAX_VALUE : element * scale;
+			}
+
+			i -= (1L << (k - 1)) - 1;
+		}
+	}
+}
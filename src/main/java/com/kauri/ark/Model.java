@@ -0,0 +1,44 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+
+/**
+ * A recipe for a constraint network. Solvers keep their state in the variables and constraints registered with them,
+ * so solving a model on several threads requires building an independent copy of the model for each solver.
+ *
+ * @author Eric Fritz
+ */
+public interface Model
+{
+	/**
+	 * Registers the variables and constraints of the model with <tt>solver</tt>. Every call must register the same
+	 * variables in the same order, so that variables of different copies with the same id correspond to each other.
+	 * Calls for different solvers may run concurrently and must not share mutable state.
+	 *
+	 * @param solver A new solver.
+	 *
+	 * @return The objective of the model, or <tt>null</tt> if the model is not optimized.
+	 */
+	public IntegerVariable build(Solver solver);
+}
@@ -0,0 +1,46 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.List;
+
+/**
+ * A strategy which chooses the part of an incumbent solution a large neighborhood search keeps. The variables which
+ * are not fixed form the neighborhood which the search explores for a better solution.
+ *
+ * @author Eric Fritz
+ */
+public interface Neighborhood
+{
+	/**
+	 * Fixes some of <tt>variables</tt> to their values in <tt>incumbent</tt> through <tt>solver.trySetValue</tt>. The
+	 * neighborhood may propagate its choices with <tt>solver.propagate</tt> while it chooses; the solver propagates
+	 * whatever remains once this method returns.
+	 *
+	 * @param solver    The solver.
+	 * @param variables The variables which may be fixed.
+	 * @param incumbent The incumbent solution.
+	 *
+	 * @return <tt>true</tt> if the network is still consistent, <tt>false</tt> otherwise.
+	 */
+	public boolean fix(Solver solver, List<Variable<?>> variables, Solution incumbent);
+}
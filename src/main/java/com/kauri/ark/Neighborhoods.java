@@ -0,0 +1,95 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Utilities shared by the neighborhood generators.
+ *
+ * @author Eric Fritz
+ */
+final class Neighborhoods
+{
+	private Neighborhoods() {
+	}
+
+	/**
+	 * Checks that a neighborhood size is positive.
+	 *
+	 * @param size The number of variables a neighborhood relaxes.
+	 *
+	 * @return The size.
+	 *
+	 * @throws RuntimeException If the size is not positive.
+	 */
+	static int checkSize(int size) {
+		if (size < 1) {
+			throw new RuntimeException("Neighborhood size must be positive.");
+		}
+
+		return size;
+	}
+
+	/**
+	 * Fixes a variable to its value in the incumbent.
+	 *
+	 * @param solver    The solver.
+	 * @param variable  The variable.
+	 * @param incumbent The incumbent solution.
+	 *
+	 * @return <tt>true</tt> if the domain is immediately consistent, <tt>false</tt> otherwise.
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	static boolean fix(Solver solver, Variable<?> variable, Solution incumbent) {
+		Object value = incumbent.get((Variable) variable);
+		Domain domain = variable.getDomain();
+
+		if (!domain.contains(value)) {
+			return false;
+		}
+
+		return domain.isUnique() || solver.trySetDomain(variable, domain.retain(value));
+	}
+
+	/**
+	 * Fixes every variable which is not relaxed to its value in the incumbent.
+	 *
+	 * @param solver    The solver.
+	 * @param variables The variables which may be fixed.
+	 * @param relaxed   The variables which are left free.
+	 * @param incumbent The incumbent solution.
+	 *
+	 * @return <tt>true</tt> if every domain is immediately consistent, <tt>false</tt> otherwise.
+	 */
+	static boolean fixAllBut(Solver solver, List<Variable<?>> variables, Collection<Variable<?>> relaxed,
+			Solution incumbent) {
+		for (Variable<?> variable : variables) {
+			if (!relaxed.contains(variable) && !fix(solver, variable, incumbent)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+}
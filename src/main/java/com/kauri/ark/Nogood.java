@@ -0,0 +1,160 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * A combination of decisions <tt>variable = value</tt> which cannot all hold in a solution.
+ * <p/>
+ * A decision is <em>true</em> if the variable has been narrowed to its value, <em>false</em> if the value has been
+ * removed from the variable's domain, and undecided otherwise. The decisions at positions zero and one are watched:
+ * unless the nogood is already satisfied, neither of them is true, so the nogood only needs to be looked at when one
+ * of its two watched variables is instantiated.
+ *
+ * @author Eric Fritz
+ */
+final class Nogood
+{
+	/**
+	 * The variables of the decisions.
+	 */
+	private Variable<?>[] variables;
+
+	/**
+	 * The values of the decisions.
+	 */
+	private Object[] values;
+
+	/**
+	 * How useful the nogood has been to propagation.
+	 */
+	private double activity = 0;
+
+	/**
+	 * Creates a new Nogood.
+	 *
+	 * @param variables The variables of the decisions, each at most once.
+	 * @param values    The values of the decisions.
+	 */
+	public Nogood(Variable<?>[] variables, Object[] values) {
+		this.variables = variables;
+		this.values = values;
+	}
+
+	/**
+	 * Returns the number of decisions.
+	 *
+	 * @return The number of decisions.
+	 */
+	public int size() {
+		return variables.length;
+	}
+
+	/**
+	 * Returns the variable of the decision at <tt>index</tt>.
+	 *
+	 * @param index The index.
+	 *
+	 * @return The variable of the decision.
+	 */
+	public Variable<?> getVariable(int index) {
+		return variables[index];
+	}
+
+	/**
+	 * Returns the value of the decision at <tt>index</tt>.
+	 *
+	 * @param index The index.
+	 *
+	 * @return The value of the decision.
+	 */
+	public Object getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the decision at <tt>index</tt> holds, <tt>false</tt> otherwise.
+	 *
+	 * @param index The index.
+	 *
+	 * @return <tt>true</tt> if the variable has been narrowed to the value of the decision.
+	 */
+	public boolean isTrue(int index) {
+		Domain<?> domain = variables[index].getDomain();
+		return domain.isUnique() && domain.getUniqueValue().equals(values[index]);
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the decision at <tt>index</tt> can no longer hold, <tt>false</tt> otherwise.
+	 *
+	 * @param index The index.
+	 *
+	 * @return <tt>true</tt> if the value of the decision has been removed from the variable's domain.
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	public boolean isFalse(int index) {
+		Domain domain = variables[index].getDomain();
+		return !domain.contains(values[index]);
+	}
+
+	/**
+	 * Exchanges the decisions at two positions.
+	 *
+	 * @param i The first position.
+	 * @param j The second position.
+	 */
+	public void swap(int i, int j) {
+		Variable<?> variable = variables[i];
+		variables[i] = variables[j];
+		variables[j] = variable;
+
+		Object value = values[i];
+		values[i] = values[j];
+		values[j] = value;
+	}
+
+	/**
+	 * Returns how useful the nogood has been to propagation.
+	 *
+	 * @return The activity of the nogood.
+	 */
+	public double getActivity() {
+		return activity;
+	}
+
+	/**
+	 * Increases the activity of the nogood.
+	 *
+	 * @param amount The amount.
+	 */
+	public void bump(double amount) {
+		activity += amount;
+	}
+
+	/**
+	 * Scales the activity of the nogood.
+	 *
+	 * @param factor The factor.
+	 */
+	public void scale(double factor) {
+		activity *= factor;
+	}
+}
@@ -0,0 +1,346 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The nogoods learned by the current search, propagated with two watched decisions each.
+ * <p/>
+ * When a variable is instantiated, only the nogoods watching it are visited. If the watched decision became true, the
+ * watch moves to another decision which is not true; if there is none, the other watched decision is made false by
+ * removing its value. Watches never need to be restored on backtrack: undoing an assignment can only make a decision
+ * undecided again.
+ * <p/>
+ * Nogoods with a single decision are kept apart and applied at the root of every run. The number of other nogoods is
+ * bounded by a capacity; once it is exceeded, the half which has been least useful to propagation is evicted.
+ *
+ * @author Eric Fritz
+ */
+final class NogoodStore
+{
+	/**
+	 * The factor by which the activity of older uses decays each time a nogood is recorded.
+	 */
+	private static final double DECAY = 0.999;
+
+	/**
+	 * The maximum number of nogoods with two or more decisions, or zero if nogoods are not recorded.
+	 */
+	private int capacity = 0;
+
+	/**
+	 * The nogoods with two or more decisions.
+	 */
+	private List<Nogood> nogoods = new ArrayList<>();
+
+	/**
+	 * The nogoods with a single decision.
+	 */
+	private List<Nogood> units = new ArrayList<>();
+
+	/**
+	 * The nogoods watching each variable indexed by variable id.
+	 */
+	private List<List<Nogood>> watches = new ArrayList<>();
+
+	/**
+	 * The instantiated variables whose watching nogoods have not been visited yet.
+	 */
+	private Variable<?>[] pending = new Variable<?>[16];
+
+	/**
+	 * The number of variables in <tt>pending</tt>.
+	 */
+	private int count = 0;
+
+	/**
+	 * The amount added to the activity of a nogood when it propagates.
+	 */
+	private double increment = 1;
+
+	/**
+	 * Returns <tt>true</tt> if nogoods are recorded, <tt>false</tt> otherwise.
+	 *
+	 * @return <tt>true</tt> if nogoods are recorded, <tt>false</tt> otherwise.
+	 */
+	public boolean isEnabled() {
+		return capacity > 0;
+	}
+
+	/**
+	 * Sets the maximum number of nogoods with two or more decisions. A capacity of zero disables recording.
+	 *
+	 * @param capacity The capacity.
+	 */
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+
+		if (capacity == 0) {
+			clear();
+		} else if (nogoods.size() > capacity) {
+			reduce();
+		}
+	}
+
+	/**
+	 * Returns the number of nogoods in the store.
+	 *
+	 * @return The number of nogoods.
+	 */
+	public int size() {
+		return nogoods.size() + units.size();
+	}
+
+	/**
+	 * Removes all nogoods.
+	 */
+	public void clear() {
+		nogoods.clear();
+		units.clear();
+		watches.clear();
+		count = 0;
+		increment = 1;
+	}
+
+	/**
+	 * Records a nogood. The decisions must be given in the order they were made, so that the two most recent ones,
+	 * which are the first to be undone on backtrack, are watched.
+	 *
+	 * @param variables The variables of the decisions, each at most once.
+	 * @param values    The values of the decisions.
+	 */
+	public void record(Variable<?>[] variables, Object[] values) {
+		Nogood nogood = new Nogood(variables, values);
+
+		if (nogood.size() == 1) {
+			units.add(nogood);
+			return;
+		}
+
+		if (nogood.size() > 2) {
+			nogood.swap(0, nogood.size() - 1);
+			nogood.swap(1, nogood.size() - 2);
+		}
+
+		nogoods.add(nogood);
+		getWatches(nogood.getVariable(0)).add(nogood);
+		getWatches(nogood.getVariable(1)).add(nogood);
+
+		increment /= DECAY;
+
+		if (increment > 1e100) {
+			for (Nogood other : nogoods) {
+				other.scale(1e-100);
+			}
+
+			increment *= 1e-100;
+		}
+
+		if (nogoods.size() > capacity) {
+			reduce();
+		}
+	}
+
+	/**
+	 * Notifies the store that a variable has been narrowed to a single value.
+	 *
+	 * @param variable The variable.
+	 */
+	public void instantiated(Variable<?> variable) {
+		int id = variable.getId();
+
+		if (id >= watches.size() || watches.get(id).isEmpty()) {
+			return;
+		}
+
+		if (count == pending.length) {
+			pending = Arrays.copyOf(pending, count * 2);
+		}
+
+		pending[count++] = variable;
+	}
+
+	/**
+	 * Forgets the instantiated variables which have not been visited yet, after the network became inconsistent.
+	 */
+	public void clearPending() {
+		Arrays.fill(pending, 0, count, null);
+		count = 0;
+	}
+
+	/**
+	 * Visits the nogoods watching the instantiated variables, narrowing domains through <tt>solver</tt>.
+	 *
+	 * @param solver The solver.
+	 *
+	 * @return <tt>false</tt> if a nogood is violated, <tt>true</tt> otherwise.
+	 */
+	public boolean propagate(Solver solver) {
+		while (count > 0) {
+			Variable<?> variable = pending[--count];
+			pending[count] = null;
+
+			List<Nogood> list = watches.get(variable.getId());
+
+			for (int i = 0; i < list.size(); ) {
+				Nogood nogood = list.get(i);
+				int watch = nogood.getVariable(0) == variable ? 0 : 1;
+
+				if (!nogood.isTrue(watch)) {
+					i++;
+					continue;
+				}
+
+				if (moveWatch(nogood, watch)) {
+					list.set(i, list.get(list.size() - 1));
+					list.remove(list.size() - 1);
+					continue;
+				}
+
+				i++;
+				int other = 1 - watch;
+
+				if (nogood.isFalse(other)) {
+					continue;
+				}
+
+				nogood.bump(increment);
+
+				if (nogood.isTrue(other) || !narrow(solver, nogood, other)) {
+					clearPending();
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Removes the value of every nogood with a single decision from its variable.
+	 *
+	 * @param solver The solver.
+	 *
+	 * @return <tt>false</tt> if a nogood is violated, <tt>true</tt> otherwise.
+	 */
+	public boolean applyUnits(Solver solver) {
+		for (Nogood nogood : units) {
+			if (!nogood.isFalse(0) && !narrow(solver, nogood, 0)) {
+				clearPending();
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Moves the watch at position <tt>watch</tt> to a decision which is not true.
+	 *
+	 * @param nogood The nogood.
+	 * @param watch  The position of the watch, zero or one.
+	 *
+	 * @return <tt>true</tt> if the watch was moved, <tt>false</tt> if every unwatched decision is true.
+	 */
+	private boolean moveWatch(Nogood nogood, int watch) {
+		for (int i = 2; i < nogood.size(); i++) {
+			if (!nogood.isTrue(i)) {
+				nogood.swap(watch, i);
+				getWatches(nogood.getVariable(watch)).add(nogood);
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Makes the decision at <tt>index</tt> false by removing its value from its variable.
+	 *
+	 * @param solver The solver.
+	 * @param nogood The nogood.
+	 * @param index  The index of the decision.
+	 *
+	 * @return <tt>false</tt> if the domain of the variable would become empty, <tt>true</tt> otherwise.
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private boolean narrow(Solver solver, Nogood nogood, int index) {
+		Variable<?> variable = nogood.getVariable(index);
+		Domain domain = variable.getDomain();
+		return solver.trySetDomain(variable, domain.remove(nogood.getValue(index)));
+	}
+
+	/**
+	 * Evicts the half of the nogoods which has been least useful to propagation. Among nogoods which are equally
+	 * useful, the most recent ones are kept.
+	 */
+	private void reduce() {
+		List<Nogood> sorted = new ArrayList<>(nogoods);
+		Collections.reverse(sorted);
+		Collections.sort(sorted, new Comparator<Nogood>()
+		{
+			@Override
+			public int compare(Nogood o1, Nogood o2) {
+				return Double.compare(o2.getActivity(), o1.getActivity());
+			}
+		});
+
+		nogoods = new ArrayList<>(sorted.subList(0, Math.min(sorted.size(), capacity / 2)));
+
+		for (List<Nogood> list : watches) {
+			list.clear();
+		}
+
+		// A watched decision may have become true since the nogood was recorded, and would not be visited again until
+		// its variable is instantiated anew. Such watches move to a decision which is not true, as in propagate.
+
+		for (Nogood nogood : nogoods) {
+			for (int watch = 0; watch < 2; watch++) {
+				if (!nogood.isTrue(watch) || !moveWatch(nogood, watch)) {
+					getWatches(nogood.getVariable(watch)).add(nogood);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the list of nogoods watching <tt>variable</tt>.
+	 *
+	 * @param variable The variable.
+	 *
+	 * @return The list of nogoods watching <tt>variable</tt>.
+	 */
+	private List<Nogood> getWatches(Variable<?> variable) {
+		int id = variable.getId();
+
+		while (watches.size() <= id) {
+			watches.add(new ArrayList<Nogood>());
+		}
+
+		return watches.get(id);
+	}
+}
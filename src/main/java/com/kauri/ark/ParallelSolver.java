@@ -0,0 +1,331 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Enumerates the solutions of a model on several threads. Each worker searches its own copy of the model. Workers
+ * which run out of work become hungry, and busy workers then hand over the untried values of their shallowest open
+ * choice point; the worker taking such a subproblem rebuilds it by replaying its decision path.
+ * <p/>
+ * This is work sharing rather than work stealing. A search stack belongs to the thread running it, so an idle worker
+ * cannot take work from it directly; instead one hungry flag is raised for all workers and the first busy worker to
+ * see it splits its own stack into the single shared queue. Every busy worker reads the flag once per node, and all
+ * workers take and offer subproblems under one lock, which contends when there are many workers and the subproblems
+ * are small. Several busy workers may also split at once when they see the flag at the same time.
+ * <p/>
+ * The solution handler is called by one worker at a time. Solutions belong to the worker's copy of the model, and are
+ * read through the variables of another copy with <tt>Solution.translate</tt>.
+ *
+ * @author Eric Fritz
+ */
+final public class ParallelSolver
+{
+	/**
+	 * The model.
+	 */
+	private Model model;
+
+	/**
+	 * The number of workers.
+	 */
+	private int threads;
+
+	/**
+	 * The factory creating the search strategy of each worker.
+	 */
+	private StrategyFactory strategyFactory = Strategy.shared(VariableOrder.MIN_DOMAIN, ValueOrder.DOMAIN);
+
+	/**
+	 * The subproblems waiting for a worker.
+	 */
+	private Deque<Subproblem> subproblems = new ArrayDeque<>();
+
+	/**
+	 * The solvers of the running workers.
+	 */
+	private List<Solver> solvers = new ArrayList<>();
+
+	/**
+	 * The number of workers searching a subproblem.
+	 */
+	private int busy;
+
+	/**
+	 * The number of workers waiting for a subproblem.
+	 */
+	private int waiting;
+
+	/**
+	 * Whether a worker is waiting while there are no subproblems.
+	 */
+	private volatile boolean hungry;
+
+	/**
+	 * Whether the search has been stopped by the handler or a failing worker.
+	 */
+	private boolean stopped;
+
+	/**
+	 * Creates a new ParallelSolver.
+	 *
+	 * @param model   The model.
+	 * @param threads The number of workers.
+	 *
+	 * @throws RuntimeException If the number of workers is not positive.
+	 */
+	public ParallelSolver(Model model, int threads) {
+		if (threads < 1) {
+			throw new RuntimeException("Thread count must be positive.");
+		}
+
+		this.model = model;
+		this.threads = threads;
+	}
+
+	/**
+	 * Sets the search strategy of every worker. The default is <tt>VariableOrder.MIN_DOMAIN</tt> and
+	 * <tt>ValueOrder.DOMAIN</tt>. Selectors which learn from the search must be created for each worker with
+	 * <tt>setStrategyFactory</tt> instead.
+	 *
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 *
+	 * @throws RuntimeException If one of the selectors learns from the search.
+	 */
+	public void setSelectors(VariableSelector variableSelector, ValueSelector valueSelector) {
+		this.strategyFactory = Strategy.shared(variableSelector, valueSelector);
+	}
+
+	/**
+	 * Sets the factory creating the search strategy of each worker. Subproblems are searched without restarts, so the
+	 * restart schedule of the strategies is not used.
+	 *
+	 * @param strategyFactory The strategy factory.
+	 */
+	public void setStrategyFactory(StrategyFactory strategyFactory) {
+		this.strategyFactory = strategyFactory;
+	}
+
+	/**
+	 * Calls <tt>handler</tt> with every solution of the model, in no particular order. If the handler returns
+	 * <tt>false</tt>, all workers stop.
+	 *
+	 * @param handler The solution handler.
+	 *
+	 * @throws RuntimeException If a worker fails.
+	 */
+	public void solve(SolutionHandler handler) {
+		synchronized (this) {
+			subproblems.clear();
+			subproblems.add(new Subproblem(new int[0], new Domain<?>[0]));
+			solvers.clear();
+			busy = 0;
+			waiting = 0;
+			hungry = false;
+			stopped = false;
+		}
+
+		SynchronizedSolutionHandler synchronizedHandler = new SynchronizedSolutionHandler(handler);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < threads; i++) {
+				futures.add(pool.submit(new Worker(synchronizedHandler)));
+			}
+
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			stop();
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while solving.", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Parallel worker failed.", e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Stops every worker.
+	 */
+	private synchronized void stop() {
+		stopped = true;
+		hungry = false;
+
+		for (Solver solver : solvers) {
+			solver.retire();
+		}
+
+		notifyAll();
+	}
+
+	/**
+	 * Waits for a subproblem. The search is finished once no subproblem is waiting and no worker is busy, as no more
+	 * subproblems can be shared.
+	 *
+	 * @return The next subproblem, or <tt>null</tt> if the search is finished or stopped.
+	 *
+	 * @throws InterruptedException If the worker is interrupted while waiting.
+	 */
+	private synchronized Subproblem take() throws InterruptedException {
+		while (!stopped && subproblems.isEmpty() && busy > 0) {
+			waiting++;
+			hungry = true;
+			wait();
+			waiting--;
+		}
+
+		if (stopped || subproblems.isEmpty()) {
+			hungry = false;
+			notifyAll();
+			return null;
+		}
+
+		busy++;
+		hungry = waiting > 0 && subproblems.size() == 1;
+		return subproblems.poll();
+	}
+
+	/**
+	 * Signals that a worker has finished its subproblem.
+	 */
+	private synchronized void release() {
+		busy--;
+
+		if (busy == 0) {
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Adds a subproblem shared by a busy worker.
+	 *
+	 * @param subproblem The subproblem.
+	 */
+	private synchronized void offer(Subproblem subproblem) {
+		subproblems.add(subproblem);
+		hungry = false;
+		notify();
+	}
+
+	/**
+	 * Builds a copy of the model and searches subproblems until none remain.
+	 */
+	private class Worker implements Runnable, WorkQueue
+	{
+		/**
+		 * The solution handler shared by all workers.
+		 */
+		private SynchronizedSolutionHandler handler;
+
+		/**
+		 * The subproblem being searched.
+		 */
+		private Subproblem current;
+
+		/**
+		 * Creates a new Worker.
+		 *
+		 * @param handler The solution handler shared by all workers.
+		 */
+		public Worker(SynchronizedSolutionHandler handler) {
+			this.handler = handler;
+		}
+
+		@Override
+		public void run() {
+			try {
+				search();
+			} catch (InterruptedException e) {
+				stop();
+			} catch (RuntimeException e) {
+				stop();
+				throw e;
+			}
+		}
+
+		@Override
+		public boolean isHungry() {
+			return hungry;
+		}
+
+		@Override
+		public void share(Variable<?>[] variables, Domain<?>[] values) {
+			offer(current.extend(variables, values));
+		}
+
+		/**
+		 * Searches subproblems until the search is finished or stopped.
+		 *
+		 * @throws InterruptedException If the worker is interrupted while waiting.
+		 */
+		private void search() throws InterruptedException {
+			Solver solver = new Solver();
+			model.build(solver);
+
+			Strategy strategy = strategyFactory.create(solver);
+			strategy.configure(solver);
+
+			synchronized (ParallelSolver.this) {
+				if (stopped) {
+					return;
+				}
+
+				solvers.add(solver);
+			}
+
+			SolutionHandler stoppingHandler = new SolutionHandler()
+			{
+				@Override
+				public boolean handle(Solution solution) {
+					if (!handler.handle(solution)) {
+						stop();
+						return false;
+					}
+
+					return true;
+				}
+			};
+
+			while ((current = take()) != null) {
+				try {
+					solver.searchSubproblem(current.getVariables(solver), current.getValues(), stoppingHandler,
+							strategy.getVariableSelector(), strategy.getValueSelector(), this);
+				} finally {
+					release();
+				}
+			}
+		}
+	}
+}
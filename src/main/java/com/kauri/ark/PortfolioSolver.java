@@ -0,0 +1,340 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solves a model with several strategies at once, one independent copy of the model per strategy. The first worker
+ * to reach a definite answer (a solution, a proof that there is none, or a proven optimum) cancels the others. While
+ * optimizing, each improving solution found by one worker bounds the objective of the others.
+ * <p/>
+ * The solutions returned belong to the copy of the model of the worker which found them, and are read through the
+ * variables of another copy with <tt>Solution.translate</tt>.
+ *
+ * @author Eric Fritz
+ */
+final public class PortfolioSolver
+{
+	/**
+	 * The kinds of search a portfolio can run.
+	 */
+	private static enum Goal
+	{
+		SATISFY,
+		MINIMIZE,
+		MAXIMIZE
+	}
+
+	/**
+	 * The model.
+	 */
+	private Model model;
+
+	/**
+	 * The executor running the workers, or <tt>null</tt> to run each search on a new thread pool.
+	 */
+	private ExecutorService executor;
+
+	/**
+	 * The strategies of the workers.
+	 */
+	private List<Strategy> strategies = new ArrayList<>();
+
+	/**
+	 * The solvers of the running workers, indexed by strategy.
+	 */
+	private Solver[] solvers;
+
+	/**
+	 * The best solution found by the current search.
+	 */
+	private Solution best;
+
+	/**
+	 * The value of the objective in the best solution, if the current search optimizes.
+	 */
+	private int bestValue;
+
+	/**
+	 * Whether a worker of the current search has reached a definite answer or failed.
+	 */
+	private boolean done;
+
+	/**
+	 * Creates a new PortfolioSolver which runs each search on a thread pool of its own.
+	 *
+	 * @param model The model.
+	 */
+	public PortfolioSolver(Model model) {
+		this(model, null);
+	}
+
+	/**
+	 * Creates a new PortfolioSolver.
+	 *
+	 * @param model    The model.
+	 * @param executor The executor running the workers, or <tt>null</tt> to run each search on a thread pool of its
+	 *                 own. An executor with fewer threads than strategies runs the remaining workers once others
+	 *                 finish.
+	 */
+	public PortfolioSolver(Model model, ExecutorService executor) {
+		this.model = model;
+		this.executor = executor;
+	}
+
+	/**
+	 * Adds a worker running <tt>strategy</tt>.
+	 *
+	 * @param strategy The strategy.
+	 */
+	public void addStrategy(Strategy strategy) {
+		strategies.add(strategy);
+	}
+
+	/**
+	 * Finds a solution of the model.
+	 *
+	 * @return The first solution found by any worker, or <tt>null</tt> if there is no solution.
+	 *
+	 * @throws RuntimeException If there are no strategies or a worker fails.
+	 */
+	public Solution solve() {
+		return run(Goal.SATISFY);
+	}
+
+	/**
+	 * Finds a solution of the model minimizing its objective.
+	 *
+	 * @return The best solution found by any worker, or <tt>null</tt> if there is no solution.
+	 *
+	 * @throws RuntimeException If there are no strategies, the model has no objective, or a worker fails.
+	 */
+	public Solution minimize() {
+		return run(Goal.MINIMIZE);
+	}
+
+	/**
+	 * Finds a solution of the model maximizing its objective.
+	 *
+	 * @return The best solution found by any worker, or <tt>null</tt> if there is no solution.
+	 *
+	 * @throws RuntimeException If there are no strategies, the model has no objective, or a worker fails.
+	 */
+	public Solution maximize() {
+		return run(Goal.MAXIMIZE);
+	}
+
+	/**
+	 * Runs one worker per strategy and waits for all of them to stop.
+	 *
+	 * @param goal The kind of search.
+	 *
+	 * @return The best solution found by any worker, or <tt>null</tt> if there is no solution.
+	 */
+	private Solution run(Goal goal) {
+		if (strategies.isEmpty()) {
+			throw new RuntimeException("Portfolio has no strategies.");
+		}
+
+		synchronized (this) {
+			solvers = new Solver[strategies.size()];
+			best = null;
+			done = false;
+		}
+
+		ExecutorService pool = executor != null ? executor : Executors.newFixedThreadPool(strategies.size());
+		List<Future<?>> futures = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < strategies.size(); i++) {
+				futures.add(pool.submit(new Worker(i, strategies.get(i), goal)));
+			}
+
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			finish();
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while solving.", e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Portfolio worker failed.", e.getCause());
+		} finally {
+			if (executor == null) {
+				pool.shutdown();
+			}
+		}
+
+		synchronized (this) {
+			solvers = null;
+			return best;
+		}
+	}
+
+	/**
+	 * Marks the current search as answered and cancels every running worker.
+	 */
+	private synchronized void finish() {
+		done = true;
+
+		for (Solver solver : solvers) {
+			if (solver != null) {
+				solver.retire();
+			}
+		}
+	}
+
+	/**
+	 * Replaces the best solution if <tt>solution</tt> is better. The other workers of an optimizing search are then
+	 * required to improve on it from their next decision on.
+	 *
+	 * @param solution  A solution found by a worker.
+	 * @param objective The worker's copy of the objective, or <tt>null</tt> if the search does not optimize.
+	 * @param goal      The kind of search.
+	 */
+	private synchronized void offer(Solution solution, IntegerVariable objective, Goal goal) {
+		if (goal == Goal.SATISFY) {
+			if (best == null) {
+				best = solution;
+			}
+
+			return;
+		}
+
+		// The best solution may belong to another worker's copy of the model, so its objective value is kept rather
+		// than read through this worker's objective.
+
+		int value = solution.get(objective);
+
+		if (best == null || (goal == Goal.MINIMIZE ? value < bestValue : value > bestValue)) {
+			best = solution;
+			bestValue = value;
+
+			for (Solver solver : solvers) {
+				if (solver != null) {
+					solver.offerBound(value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds a copy of the model and searches it with one strategy.
+	 */
+	private class Worker implements Runnable
+	{
+		/**
+		 * The index of the strategy.
+		 */
+		private int index;
+
+		/**
+		 * The strategy.
+		 */
+		private Strategy strategy;
+
+		/**
+		 * The kind of search.
+		 */
+		private Goal goal;
+
+		/**
+		 * Creates a new Worker.
+		 *
+		 * @param index    The index of the strategy.
+		 * @param strategy The strategy.
+		 * @param goal     The kind of search.
+		 */
+		public Worker(int index, Strategy strategy, Goal goal) {
+			this.index = index;
+			this.strategy = strategy;
+			this.goal = goal;
+		}
+
+		@Override
+		public void run() {
+			try {
+				search();
+			} catch (RuntimeException e) {
+				finish();
+				throw e;
+			}
+		}
+
+		/**
+		 * Runs the search, then cancels the other workers unless this one was cancelled.
+		 */
+		private void search() {
+			Solver solver = new Solver();
+			final IntegerVariable objective = model.build(solver);
+
+			if (goal != Goal.SATISFY && objective == null) {
+				throw new RuntimeException("Model has no objective.");
+			}
+
+			strategy.configure(solver);
+
+			synchronized (PortfolioSolver.this) {
+				if (done) {
+					return;
+				}
+
+				solvers[index] = solver;
+			}
+
+			SolutionHandler handler = new SolutionHandler()
+			{
+				@Override
+				public boolean handle(Solution solution) {
+					offer(solution, objective, goal);
+					return goal != Goal.SATISFY;
+				}
+			};
+
+			VariableSelector variableSelector = strategy.getVariableSelector();
+			ValueSelector valueSelector = strategy.getValueSelector();
+
+			if (goal == Goal.SATISFY) {
+				solver.solve(handler, variableSelector, valueSelector);
+			} else if (goal == Goal.MINIMIZE) {
+				solver.minimize(objective, handler, variableSelector, valueSelector);
+			} else {
+				solver.maximize(objective, handler, variableSelector, valueSelector);
+			}
+
+			synchronized (PortfolioSolver.this) {
+				solvers[index] = null;
+
+				if (!done) {
+					finish();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A neighborhood which fixes variables one at a time and propagates after each, as described by Perron, Shaw and
+ * Furnon. The next variable to fix is the one whose domain the previous propagation reduced the most, which keeps
+ * the fixed part of the neighborhood tightly related; a random variable is chosen when propagation reduced nothing.
+ * Variables are fixed until no more than the requested number remain free.
+ *
+ * @author Eric Fritz
+ */
+final public class PropagationGuidedNeighborhood implements Neighborhood
+{
+	/**
+	 * The number of variables to leave free.
+	 */
+	private int size;
+
+	/**
+	 * Creates a new PropagationGuidedNeighborhood.
+	 *
+	 * @param size The number of variables to leave free.
+	 *
+	 * @throws RuntimeException If the size is not positive.
+	 */
+	public PropagationGuidedNeighborhood(int size) {
+		this.size = Neighborhoods.checkSize(size);
+	}
+
+	@Override
+	public boolean fix(Solver solver, List<Variable<?>> variables, Solution incumbent) {
+		List<Variable<?>> free = getFree(variables);
+		Variable<?> next = null;
+
+		while (free.size() > size) {
+			if (next == null) {
+				next = free.get(solver.getRandom().nextInt(free.size()));
+			}
+
+			int[] sizes = new int[free.size()];
+			for (int i = 0; i < free.size(); i++) {
+				sizes[i] = free.get(i).getDomain().size();
+			}
+
+			if (!Neighborhoods.fix(solver, next, incumbent) || !solver.propagate()) {
+				return false;
+			}
+
+			next = null;
+			double reduction = 0;
+
+			for (int i = 0; i < free.size(); i++) {
+				Variable<?> variable = free.get(i);
+				int newSize = variable.getDomain().size();
+
+				if (newSize > 1 && (double) (sizes[i] - newSize) / sizes[i] > reduction) {
+					next = variable;
+					reduction = (double) (sizes[i] - newSize) / sizes[i];
+				}
+			}
+
+			free = getFree(variables);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the variables which are not yet instantiated.
+	 *
+	 * @param variables The variables.
+	 *
+	 * @return The variables whose domains hold more than one value.
+	 */
+	private static List<Variable<?>> getFree(List<Variable<?>> variables) {
+		List<Variable<?>> free = new ArrayList<>();
+
+		for (Variable<?> variable : variables) {
+			if (!variable.getDomain().isUnique()) {
+				free.add(variable);
+			}
+		}
+
+		return free;
+	}
+}
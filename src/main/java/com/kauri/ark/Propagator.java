@@ -0,0 +1,44 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * A constraint which narrows the domains of all of its variables in a single call.
+ * <p/>
+ * The solver schedules a constraint once whenever the domain of any of its variables narrows. Plain constraints are
+ * then narrowed once per constrained variable through <tt>narrow</tt>, which forces constraints over many variables to
+ * recompute the same summary of the network for each variable. A propagator computes that summary once and narrows
+ * every variable from it.
+ *
+ * @author Eric Fritz
+ */
+public interface Propagator<T extends Domain<?>> extends Constraint<T>
+{
+	/**
+	 * Narrow the domains of all variables of this constraint so that they remain arc-consistent with their network.
+	 * <p/>
+	 * The same restrictions apply as for <tt>narrow</tt>: no valid assignment may be pruned from any domain.
+	 *
+	 * @return <tt>true</tt> if all variables can remain arc-consistent after narrowing, <tt>false</tt> otherwise.
+	 */
+	boolean propagate();
+}
@@ -0,0 +1,60 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * A neighborhood which relaxes a uniformly random subset of the variables.
+ *
+ * @author Eric Fritz
+ */
+final public class RandomNeighborhood implements Neighborhood
+{
+	/**
+	 * The number of variables to relax.
+	 */
+	private int size;
+
+	/**
+	 * Creates a new RandomNeighborhood.
+	 *
+	 * @param size The number of variables to relax.
+	 *
+	 * @throws RuntimeException If the size is not positive.
+	 */
+	public RandomNeighborhood(int size) {
+		this.size = Neighborhoods.checkSize(size);
+	}
+
+	@Override
+	public boolean fix(Solver solver, List<Variable<?>> variables, Solution incumbent) {
+		List<Variable<?>> shuffled = new ArrayList<>(variables);
+		Collections.shuffle(shuffled, solver.getRandom());
+
+		List<Variable<?>> relaxed = shuffled.subList(0, Math.min(size, shuffled.size()));
+		return Neighborhoods.fixAllBut(solver, variables, new HashSet<>(relaxed), incumbent);
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * Budgets which bound the effort of a search. A search which exceeds any of them stops with the status
+ * <tt>LIMIT_REACHED</tt>. Every budget is unlimited until it is set.
+ *
+ * @author Eric Fritz
+ */
+final public class SearchLimits
+{
+	/**
+	 * The maximum number of decisions tried.
+	 */
+	private long nodes = Long.MAX_VALUE;
+
+	/**
+	 * The maximum number of failed decisions.
+	 */
+	private long failures = Long.MAX_VALUE;
+
+	/**
+	 * The maximum number of solutions reported.
+	 */
+	private long solutions = Long.MAX_VALUE;
+
+	/**
+	 * The maximum wall-clock time in milliseconds.
+	 */
+	private long time = Long.MAX_VALUE;
+
+	/**
+	 * The maximum number of entries on the trail.
+	 */
+	private int trailSize = Integer.MAX_VALUE;
+
+	/**
+	 * Returns the maximum number of decisions tried.
+	 *
+	 * @return The node limit.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Sets the maximum number of decisions tried.
+	 *
+	 * @param nodes The node limit.
+	 *
+	 * @throws RuntimeException If the limit is not positive.
+	 */
+	public void setNodes(long nodes) {
+		this.nodes = checkPositive(nodes);
+	}
+
+	/**
+	 * Returns the maximum number of failed decisions.
+	 *
+	 * @return The failure limit.
+	 */
+	public long getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Sets the maximum number of failed decisions.
+	 *
+	 * @param failures The failure limit.
+	 *
+	 * @throws RuntimeException If the limit is not positive.
+	 */
+	public void setFailures(long failures) {
+		this.failures = checkPositive(failures);
+	}
+
+	/**
+	 * Returns the maximum number of solutions reported.
+	 *
+	 * @return The solution limit.
+	 */
+	public long getSolutions() {
+		return solutions;
+	}
+
+	/**
+	 * Sets the maximum number of solutions reported.
+	 *
+	 * @param solutions The solution limit.
+	 *
+	 * @throws RuntimeException If the limit is not positive.
+	 */
+	public void setSolutions(long solutions) {
+		this.solutions = checkPositive(solutions);
+	}
+
+	/**
+	 * Returns the maximum wall-clock time.
+	 *
+	 * @return The time limit in milliseconds.
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * Sets the maximum wall-clock time. The clock is read once every few decisions, so the search may overrun the
+	 * limit by the time taken by those decisions.
+	 *
+	 * @param time The time limit in milliseconds.
+	 *
+	 * @throws RuntimeException If the limit is not positive.
+	 */
+	public void setTime(long time) {
+		this.time = checkPositive(time);
+	}
+
+	/**
+	 * Returns the maximum number of entries on the trail.
+	 *
+	 * @return The trail size limit.
+	 */
+	public int getTrailSize() {
+		return trailSize;
+	}
+
+	/**
+	 * Sets the maximum number of entries on the trail, which bounds the memory held by saved domains.
+	 *
+	 * @param trailSize The trail size limit.
+	 *
+	 * @throws RuntimeException If the limit is not positive.
+	 */
+	public void setTrailSize(int trailSize) {
+		this.trailSize = (int) checkPositive(trailSize);
+	}
+
+	/**
+	 * Checks that a limit is positive.
+	 *
+	 * @param limit The limit.
+	 *
+	 * @return The limit.
+	 *
+	 * @throws RuntimeException If the limit is not positive.
+	 */
+	private static long checkPositive(long limit) {
+		if (limit < 1) {
+			throw new RuntimeException("Limit must be positive.");
+		}
+
+		return limit;
+	}
+}
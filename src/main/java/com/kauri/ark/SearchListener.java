@@ -0,0 +1,58 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * A listener which observes the decisions and domain reductions of a search. Search strategies which learn from the
+ * search (see <tt>ImpactSearch</tt> and <tt>ActivitySearch</tt>) implement this interface; a variable or value
+ * selector passed to <tt>Solver.solve</tt> which implements it is notified automatically.
+ *
+ * @author Eric Fritz
+ */
+public interface SearchListener
+{
+	/**
+	 * Called when the search restricts <tt>variable</tt> to <tt>value</tt>, before the restriction is propagated.
+	 *
+	 * @param variable The variable.
+	 * @param value    The value being tried.
+	 */
+	public void decisionStarted(Variable<?> variable, Domain<?> value);
+
+	/**
+	 * Called whenever the domain of a variable is narrowed, whether by a decision or by propagation.
+	 *
+	 * @param variable  The variable.
+	 * @param oldDomain The domain before narrowing.
+	 * @param newDomain The domain after narrowing (never empty).
+	 */
+	public void domainNarrowed(Variable<?> variable, Domain<?> oldDomain, Domain<?> newDomain);
+
+	/**
+	 * Called once the restriction of <tt>variable</tt> to <tt>value</tt> has been propagated.
+	 *
+	 * @param variable   The variable.
+	 * @param value      The value which was tried.
+	 * @param consistent Whether the network remained consistent.
+	 */
+	public void decisionFinished(Variable<?> variable, Domain<?> value, boolean consistent);
+}
@@ -26,6 +26,10 @@ import java.util.Map;
 
 /**
  * A unique solution for the constraint network.
+ * <p/>
+ * A solution can only be read through the variables of the solver which found it; any other variable is not present
+ * in the assignment. A solution found on one copy of a model is read through the variables of another copy, built the
+ * same way, by translating it to that copy first.
  *
  * @author Eric Fritz
  */
@@ -34,14 +38,14 @@ final public class Solution
 	/**
 	 * A map of variables to their unique assignment.
 	 */
-	private Map<Variable, Object> assignment = new HashMap<>();
+	private Map<Variable<?>, Object> assignment = new HashMap<>();
 
 	/**
 	 * Adds a variable and its assignment to the solution.
 	 *
 	 * @param variable The variable.
 	 */
-	public <T extends Domain> void add(Variable<T> variable) {
+	public <T extends Domain<?>> void add(Variable<T> variable) {
 		assignment.put(variable, variable.getDomain().getUniqueValue());
 	}
 
@@ -51,7 +55,10 @@ final public class Solution
 	 * @param variable The variable.
 	 *
 	 * @return The variable's assignment.
+	 *
+	 * @throws RuntimeException If the variable is not part of the solution.
 	 */
+	@SuppressWarnings("unchecked")
 	public <T extends Domain<R>, R> R get(Variable<T> variable) {
 		if (!assignment.containsKey(variable)) {
 			throw new RuntimeException("Variable not present in assignment.");
@@ -59,4 +66,38 @@ final public class Solution
 
 		return (R) assignment.get(variable);
 	}
+
+	/**
+	 * Returns this solution as an assignment of the variables of <tt>solver</tt>, on which the same model was built in
+	 * the same order as on the solver which found this solution. Variables are matched by id.
+	 *
+	 * @param solver The solver.
+	 *
+	 * @return A new solution.
+	 *
+	 * @throws RuntimeException If the variables of <tt>solver</tt> do not match the variables of the solution.
+	 */
+	public Solution translate(Solver solver) {
+		Map<Integer, Object> values = new HashMap<>();
+
+		for (Map.Entry<Variable<?>, Object> entry : assignment.entrySet()) {
+			values.put(entry.getKey().getId(), entry.getValue());
+		}
+
+		Solution solution = new Solution();
+
+		for (Variable<?> variable : solver.getVariables()) {
+			if (!values.containsKey(variable.getId())) {
+				throw new RuntimeException("Solver was not built from the same model.");
+			}
+
+			solution.assignment.put(variable, values.get(variable.getId()));
+		}
+
+		if (solution.assignment.size() != assignment.size()) {
+			throw new RuntimeException("Solver was not built from the same model.");
+		}
+
+		return solution;
+	}
 }
@@ -21,13 +21,17 @@
 
 package com.kauri.ark;
 
+import com.kauri.ark.integer.IntegerDomain;
+import com.kauri.ark.integer.IntegerVariable;
+import com.kauri.ark.integer.Interval;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
-import java.util.Stack;
+import java.util.Random;
+import java.util.Set;
 
 /**
  * The constraint network solver.
@@ -37,30 +41,153 @@ import java.util.Stack;
 final public class Solver
 {
 	/**
-	 * A list of registered variables.
+	 * The number of nodes between two readings of the clock by a search with a time limit.
 	 */
-	private List<Variable> variables = new ArrayList<>();
+	private static final int CLOCK_INTERVAL = 64;
 
 	/**
-	 * A map of variables to their relevant constraint arcs.
+	 * A list of registered variables indexed by variable id.
 	 */
-	private Map<Variable, List<Arc>> neighbors = new HashMap<>();
+	private List<Variable<?>> variables = new ArrayList<>();
 
 	/**
-	 * A queue of arcs which should be updated.
+	 * A list of the arcs constraining each variable indexed by variable id and event (see <tt>getArcs</tt>).
 	 */
-	private Queue<Arc> worklist = new LinkedList<>();
+	private List<ArcList> neighbors = new ArrayList<>();
+
+	/**
+	 * A queue of arcs which should be updated, ordered by cost class.
+	 */
+	private Worklist worklist = new Worklist();
 
 	/**
 	 * Whether the solver is currently looking for solutions.
 	 */
 	private boolean solving = false;
 
+	/**
+	 * Whether the current search has been cancelled from another thread.
+	 */
+	private volatile boolean cancelled = false;
+
+	/**
+	 * Whether every search on this solver is cancelled, because the pool which owns it has stopped.
+	 */
+	private volatile boolean retired = false;
+
+	/**
+	 * The budgets of each search, or <tt>null</tt> if searches are unlimited.
+	 */
+	private SearchLimits limits = null;
+
+	/**
+	 * The time at which the current search exceeds its time limit.
+	 */
+	private long deadline = Long.MAX_VALUE;
+
+	/**
+	 * The outcome of the current or last search.
+	 */
+	private SearchStatus status = SearchStatus.COMPLETE;
+
 	/**
 	 * The backtracking stack.
 	 */
 	private Trail trail = new Trail();
 
+	/**
+	 * The search stack. The choice points below <tt>depth</tt> are the nodes on the path from the root of the search
+	 * tree to the current node; the choice points above are kept for reuse.
+	 */
+	private ChoicePoint[] choicePoints = new ChoicePoint[16];
+
+	/**
+	 * The number of choice points on the search stack.
+	 */
+	private int depth = 0;
+
+	/**
+	 * The variables which have not been selected for branching, ordered by domain size.
+	 */
+	private VariableHeap unselected = new VariableHeap();
+
+	/**
+	 * The strategy choosing the variable to branch on during the current search.
+	 */
+	private VariableSelector variableSelector;
+
+	/**
+	 * The strategy choosing the order of values during the current search.
+	 */
+	private ValueSelector valueSelector;
+
+	/**
+	 * The selectors of the current search which listen to its decisions and domain reductions.
+	 */
+	private SearchListener[] listeners = new SearchListener[0];
+
+	/**
+	 * The failure limits of successive runs of the search, or <tt>null</tt> if the search is never restarted.
+	 */
+	private RestartSchedule restartSchedule = null;
+
+	/**
+	 * The variable whose value is optimized by the current search, or <tt>null</tt>.
+	 */
+	private IntegerVariable objective = null;
+
+	/**
+	 * Whether the objective is maximized rather than minimized.
+	 */
+	private boolean maximizing = false;
+
+	/**
+	 * Whether a solution has been found by the current optimizing search, so that <tt>bound</tt> is set.
+	 */
+	private boolean bounded = false;
+
+	/**
+	 * The value the objective must at least (when maximizing) or at most (when minimizing) take in the next solution.
+	 */
+	private int bound = 0;
+
+	/**
+	 * The best objective value found for the same model by a search on another thread, or <tt>null</tt> if there is
+	 * none yet.
+	 */
+	private volatile Integer offered = null;
+
+	/**
+	 * The nogoods learned by the current search.
+	 */
+	private NogoodStore nogoods = new NogoodStore();
+
+	/**
+	 * The queue receiving work split off the current search, or <tt>null</tt> if the search does not share work.
+	 */
+	private WorkQueue workQueue = null;
+
+	/**
+	 * The number of decisions after which the current search hands its path to the work queue instead of descending
+	 * further, or zero if the search is not decomposing the network.
+	 */
+	private int splitDecisions = 0;
+
+	/**
+	 * Whether search strategies break ties between equally ranked variables or values randomly.
+	 */
+	private boolean randomTieBreaking = false;
+
+	/**
+	 * The source of randomness available to the search strategies.
+	 */
+	private Random random = new Random(0);
+
+	/**
+	 * Counters describing the most recent search.
+	 */
+	private Statistics statistics = new Statistics();
+
 	/**
 	 * Register a variable with the constraint network.
 	 *
@@ -68,13 +195,18 @@ final public class Solver
 	 *
 	 * @throws RuntimeException If the variable is already registered.
 	 */
-	public <T extends Domain> void addVariable(Variable<T> variable) {
-		if (variables.contains(variable)) {
+	public <T extends Domain<?>> void addVariable(Variable<T> variable) {
+		if (variable.getId() != -1) {
 			throw new RuntimeException("Variable already registered.");
 		}
 
+		variable.setId(variables.size());
 		variables.add(variable);
-		neighbors.put(variable, new ArrayList<Arc>());
+		unselected.add(variable);
+
+		for (int i = 0; i < Event.values().length; i++) {
+			neighbors.add(new ArcList());
+		}
 	}
 
 	/**
@@ -83,23 +215,30 @@ final public class Solver
 	 * @param constraint The constraint.
 	 * @param variables  The set of constrained variables.
 	 *
-	 * @throws RuntimeException If one of the constrained variables has not been registered.
+	 * @throws RuntimeException If one of the constrained variables has not been registered, or if the solver is
+	 *                          solving.
 	 */
-	public <T extends Domain> void addConstraint(Constraint<T> constraint, Variable<T>... variables) {
+	@SafeVarargs
+	@SuppressWarnings("varargs")
+	public final <T extends Domain<?>> void addConstraint(Constraint<T> constraint, Variable<T>... variables) {
+		if (solving) {
+			throw new RuntimeException("Adding constraint while solving.");
+		}
+
 		for (Variable<T> variable1 : variables) {
-			if (!this.variables.contains(variable1)) {
+			if (!isRegistered(variable1)) {
 				throw new RuntimeException("Adding constraint on non-registered variable.");
 			}
 		}
 
-		for (Variable<T> variable1 : variables) {
-			Arc<T> arc = new Arc(variable1, constraint);
+		Arc<T> arc = new Arc<>(constraint, variables);
 
-			for (Variable<T> variable2 : variables) {
-				if (variable1 != variable2) {
-					neighbors.get(variable2).add(arc);
-				}
-			}
+		for (Variable<T> variable : variables) {
+			arc.register(getArcs(variable, constraint.getEvent(variable)));
+		}
+
+		for (Variable<T> variable : variables) {
+			variable.constrained(constraint);
 		}
 	}
 
@@ -113,8 +252,8 @@ final public class Solver
 	 *
 	 * @throws RuntimeException If the variable has not been registered.
 	 */
-	public <T extends Domain> boolean trySetValue(Variable<T> variable, T domain) {
-		if (!variables.contains(variable)) {
+	public <T extends Domain<?>> boolean trySetValue(Variable<T> variable, T domain) {
+		if (!isRegistered(variable)) {
 			throw new RuntimeException("Setting assignment on non-registered variable.");
 		}
 
@@ -123,140 +262,1133 @@ final public class Solver
 		}
 
 		if (!variable.getDomain().equals(domain)) {
+			Event event;
+
+			if (domain.isUnique()) {
+				event = Event.INSTANTIATE;
+			} else if (!((Domain<?>) domain).hasSameBounds(variable.getDomain())) {
+				event = Event.BOUNDS;
+			} else {
+				event = Event.REMOVE;
+			}
+
+			T oldDomain = variable.getDomain();
+
 			trail.save(variable);
 			variable.setDomain(domain);
-			queueNeighboringArcs(variable);
+			queueNeighboringArcs(variable, event);
+
+			if (event == Event.INSTANTIATE && nogoods.isEnabled()) {
+				nogoods.instantiated(variable);
+			}
+
+			for (SearchListener listener : listeners) {
+				listener.domainNarrowed(variable, oldDomain, domain);
+			}
 		}
 
 		return true;
 	}
 
 	/**
-	 * Begins solving the constraint network.
+	 * Updates the current domain of a variable whose domain type is not known statically, such as a value taken from
+	 * the variable's own iterator or a decision read back from a subproblem.
+	 *
+	 * @param variable The variable.
+	 * @param domain   The domain, which must be of the same type as the variable's domain.
+	 *
+	 * @return <tt>true</tt> if the domain is immediately consistent (non-empty), <tt>false</tt> otherwise.
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	boolean trySetDomain(Variable<?> variable, Domain<?> domain) {
+		return trySetValue((Variable) variable, (Domain) domain);
+	}
+
+	/**
+	 * Begins solving the constraint network, branching on the variable with the smallest domain and trying values in
+	 * the order of the domain's own iterator.
 	 *
 	 * @param handler The solution handler.
 	 *
+	 * @return Whether the search completed, reached one of its limits, or was cancelled.
+	 *
 	 * @throws RuntimeException If the solver is already looking for solutions.
 	 */
-	public void solve(SolutionHandler handler) {
-		if (variables.isEmpty()) {
-			return;
-		}
+	public SearchStatus solve(SolutionHandler handler) {
+		return solve(handler, VariableOrder.MIN_DOMAIN, ValueOrder.DOMAIN);
+	}
 
-		for (Variable v : variables) {
-			if (v.getDomain().isEmpty()) {
-				return;
-			}
+	/**
+	 * Begins solving the constraint network with the given search strategy.
+	 *
+	 * @param handler          The solution handler.
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 *
+	 * @return Whether the search completed, reached one of its limits, or was cancelled.
+	 *
+	 * @throws RuntimeException If the solver is already looking for solutions.
+	 */
+	public SearchStatus solve(SolutionHandler handler, VariableSelector variableSelector, ValueSelector valueSelector) {
+		if (!hasSearchSpace()) {
+			return SearchStatus.COMPLETE;
 		}
 
 		if (solving) {
 			throw new RuntimeException("Already solving.");
 		}
 
-		solving = true;
-		solveRecursive(handler, new Stack<Variable>());
+		begin(variableSelector, valueSelector);
+		statistics.reset();
 
-		trail.restore(trail.size());
-		solving = false;
+		int root = trail.mark();
+		search(handler);
+		trail.restore(root);
+
+		end();
+		return status;
 	}
 
 	/**
-	 * The main solver routine. If all variables have a unique assignment, then the <tt>handler</tt> is called.
-	 * Otherwise, a unassigned variable is chosen, and for each unique value in its current domain, the domain
-	 * is assigned that value and the rest of the network is solved recursively.
+	 * Sets the schedule by which the search is restarted. Each run of the search is abandoned once it has failed as
+	 * many times as the limit given by the schedule, and the search starts over from the root; search strategies which
+	 * learn from the search (and random tie-breaking) make the next run explore a different tree.
 	 * <p/>
-	 * If the handler returns <tt>false</tt>, we immediately stop solving and rewind the stack.
+	 * Restarts stop once a solution has been reported, and the run which found it continues until it completes, so no
+	 * solution is reported twice and enumeration remains complete.
 	 *
-	 * @param handler  The solution handler.
-	 * @param selected The variables which are already assigned.
+	 * @param restartSchedule The restart schedule, or <tt>null</tt> to never restart.
 	 */
-	private void solveRecursive(SolutionHandler handler, Stack<Variable> selected) {
-		if (!solving) {
-			return;
+	public void setRestartSchedule(RestartSchedule restartSchedule) {
+		this.restartSchedule = restartSchedule;
+	}
+
+	/**
+	 * Sets the number of nogoods the search may keep. A nogood is a combination of decisions which is known to have no
+	 * solution: whenever the subtree below a decision has been explored without finding a solution, the decisions on
+	 * the path to it are recorded (leaving out variables which had a single value when they were selected). Nogoods are
+	 * propagated during the rest of the search, so later branches and runs after a restart never explore the same dead
+	 * end again. Once there are more nogoods than the capacity, the half which has been least useful to propagation is
+	 * evicted; nogoods of a single decision are never evicted.
+	 * <p/>
+	 * Nogoods only hold for the domains the search started from, so they are discarded when the search ends.
+	 *
+	 * @param capacity The maximum number of nogoods, or zero (the default) to not record nogoods.
+	 *
+	 * @throws RuntimeException If the capacity is negative.
+	 */
+	public void setNogoodCapacity(int capacity) {
+		if (capacity < 0) {
+			throw new RuntimeException("Nogood capacity must not be negative.");
 		}
 
-		if (selected.size() == variables.size()) {
-			Solution solution = new Solution();
+		nogoods.setCapacity(capacity);
+	}
 
-			for (Variable variable : variables) {
-				solution.add(variable);
-			}
+	/**
+	 * Sets whether the built-in search strategies break ties between equally ranked variables or values randomly,
+	 * using the solver's source of randomness (see <tt>setSeed</tt>). Otherwise, ties between variables are broken in
+	 * favor of the earliest registered variable.
+	 *
+	 * @param randomTieBreaking Whether ties are broken randomly.
+	 */
+	public void setRandomTieBreaking(boolean randomTieBreaking) {
+		this.randomTieBreaking = randomTieBreaking;
+	}
 
-			if (!handler.handle(solution)) {
-				solving = false;
-			}
+	/**
+	 * Returns <tt>true</tt> if ties between equally ranked variables or values are broken randomly.
+	 *
+	 * @return <tt>true</tt> if ties are broken randomly, <tt>false</tt> otherwise.
+	 */
+	public boolean isRandomTieBreaking() {
+		return randomTieBreaking;
+	}
 
-			return;
+	/**
+	 * Decides whether a search strategy should prefer <tt>candidate</tt> over <tt>best</tt> when it ranks them equally.
+	 * Strategies scanning for the best variable count the variables tied with the best so far; if ties are broken
+	 * randomly, preferring the <tt>ties</tt>-th tied variable with probability <tt>1 / ties</tt> selects each of them
+	 * with equal probability. Otherwise the earlier registered variable is preferred.
+	 *
+	 * @param candidate The candidate variable.
+	 * @param best      The best variable so far.
+	 * @param ties      The number of variables seen with the same rank, including <tt>best</tt> and
+	 *                  <tt>candidate</tt>.
+	 *
+	 * @return <tt>true</tt> if <tt>candidate</tt> should replace <tt>best</tt>, <tt>false</tt> otherwise.
+	 */
+	public boolean preferTied(Variable<?> candidate, Variable<?> best, int ties) {
+		if (randomTieBreaking) {
+			return random.nextInt(ties) == 0;
 		}
 
-		int mark = trail.size();
-		Variable v = getMostConstrainedVariable(selected);
-		selected.push(v);
-		DomainIterator<? extends Domain> iterator = v.getDomain().getUniqueValues();
+		return candidate.getId() < best.getId();
+	}
 
-		while (iterator.hasNext() && solving) {
-			Domain value = iterator.next();
+	/**
+	 * Searches for a solution which minimizes <tt>objective</tt>, branching on the variable with the smallest domain
+	 * and trying values in the order of the domain's own iterator.
+	 *
+	 * @param objective The variable to minimize.
+	 * @param handler   The solution handler.
+	 *
+	 * @return The best solution found, or <tt>null</tt> if there is no solution.
+	 *
+	 * @throws RuntimeException If the solver is already looking for solutions.
+	 * @throws RuntimeException If the objective has not been registered.
+	 * @see #minimize(IntegerVariable, SolutionHandler, VariableSelector, ValueSelector)
+	 */
+	public Solution minimize(IntegerVariable objective, SolutionHandler handler) {
+		return minimize(objective, handler, VariableOrder.MIN_DOMAIN, ValueOrder.DOMAIN);
+	}
 
-			if (trySetValue(v, value) && resolveConstraints()) {
-				iterator.lastDomainValid();
+	/**
+	 * Searches for a solution which minimizes <tt>objective</tt> by branch and bound. Each solution found is reported
+	 * to the <tt>handler</tt>, after which the objective is required to be strictly smaller in the rest of the search:
+	 * the bound is re-posted through <tt>trySetValue</tt> before every decision, so subtrees which cannot improve on
+	 * the best solution are pruned by propagation. Each reported solution is therefore strictly better than the one
+	 * before, and if the handler never stops the search, the last one is a proven optimum.
+	 *
+	 * @param objective        The variable to minimize.
+	 * @param handler          The solution handler.
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 *
+	 * @return The best solution found, or <tt>null</tt> if there is no solution.
+	 *
+	 * @throws RuntimeException If the solver is already looking for solutions.
+	 * @throws RuntimeException If the objective has not been registered.
+	 */
+	public Solution minimize(IntegerVariable objective, SolutionHandler handler, VariableSelector variableSelector,
+			ValueSelector valueSelector) {
+		return optimize(objective, false, handler, variableSelector, valueSelector);
+	}
 
-				if (value.isUnique()) {
-					solveRecursive(handler, selected);
+	/**
+	 * Searches for a solution which maximizes <tt>objective</tt>, branching on the variable with the smallest domain
+	 * and trying values in the order of the domain's own iterator.
+	 *
+	 * @param objective The variable to maximize.
+	 * @param handler   The solution handler.
+	 *
+	 * @return The best solution found, or <tt>null</tt> if there is no solution.
+	 *
+	 * @throws RuntimeException If the solver is already looking for solutions.
+	 * @throws RuntimeException If the objective has not been registered.
+	 * @see #maximize(IntegerVariable, SolutionHandler, VariableSelector, ValueSelector)
+	 */
+	public Solution maximize(IntegerVariable objective, SolutionHandler handler) {
+		return maximize(objective, handler, VariableOrder.MIN_DOMAIN, ValueOrder.DOMAIN);
+	}
+
+	/**
+	 * Searches for a solution which maximizes <tt>objective</tt> by branch and bound (see <tt>minimize</tt>).
+	 *
+	 * @param objective        The variable to maximize.
+	 * @param handler          The solution handler.
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 *
+	 * @return The best solution found, or <tt>null</tt> if there is no solution.
+	 *
+	 * @throws RuntimeException If the solver is already looking for solutions.
+	 * @throws RuntimeException If the objective has not been registered.
+	 */
+	public Solution maximize(IntegerVariable objective, SolutionHandler handler, VariableSelector variableSelector,
+			ValueSelector valueSelector) {
+		return optimize(objective, true, handler, variableSelector, valueSelector);
+	}
+
+	/**
+	 * Sets the budgets of each search. Statistics are counted from the start of each call to <tt>solve</tt>,
+	 * <tt>minimize</tt> or <tt>maximize</tt>, and the clock starts with each search.
+	 *
+	 * @param limits The limits, or <tt>null</tt> for unlimited searches.
+	 */
+	public void setSearchLimits(SearchLimits limits) {
+		this.limits = limits;
+	}
+
+	/**
+	 * Returns the outcome of the current or last search. An optimizing search which is <tt>COMPLETE</tt> has proven
+	 * its last solution optimal.
+	 *
+	 * @return The search status.
+	 */
+	public SearchStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Stops the current search at its next decision or propagation step. The network is restored and the search
+	 * method returns normally with the solutions found so far. This method may be called from any thread. A call made
+	 * while no search is running stops the next search as soon as it starts; the request is cleared when a search ends.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Cancels the current search and every later search on this solver. A pool uses this to stop a copy of the model
+	 * which may be about to start a search. This method may be called from any thread.
+	 */
+	void retire() {
+		retired = true;
+	}
+
+	/**
+	 * Requires the objective of the current optimizing search to improve on <tt>value</tt>, the objective of a solution
+	 * found for the same model by another search, from its next decision on. The value is forgotten when the search
+	 * ends. This method may be called from any thread.
+	 *
+	 * @param value The objective value to improve on.
+	 */
+	void offerBound(int value) {
+		offered = value;
+	}
+
+	/**
+	 * Returns the registered variables in the order they were registered.
+	 *
+	 * @return An unmodifiable list of the registered variables.
+	 */
+	public List<Variable<?>> getVariables() {
+		return Collections.unmodifiableList(variables);
+	}
+
+	/**
+	 * Returns the variables which share an active (not entailed) constraint with <tt>variable</tt>.
+	 *
+	 * @param variable The variable.
+	 *
+	 * @return The neighbors of <tt>variable</tt> in the constraint graph, in no particular order.
+	 *
+	 * @throws RuntimeException If the variable has not been registered.
+	 */
+	public List<Variable<?>> getNeighbors(Variable<?> variable) {
+		if (!isRegistered(variable)) {
+			throw new RuntimeException("Querying neighbors of non-registered variable.");
+		}
+
+		Set<Variable<?>> neighbors = new LinkedHashSet<>();
+
+		for (Event event : Event.values()) {
+			ArcList arcs = getArcs(variable, event);
+
+			for (int i = 0; i < arcs.size(); i++) {
+				for (Variable<?> other : arcs.get(i).getVariables()) {
+					if (other != variable) {
+						neighbors.add(other);
+					}
 				}
 			}
-
-			trail.restore(mark);
 		}
 
-		selected.pop();
+		return new ArrayList<>(neighbors);
 	}
 
 	/**
-	 * Selects a variable which is not in <tt>selected</tt> with the fewest elements in its current domain.
+	 * Propagates the domain changes made through <tt>trySetValue</tt> since the last propagation. The search does this
+	 * after every decision; it is only needed when domains are narrowed outside of the search, such as when a
+	 * neighborhood fixes variables before a large neighborhood search explores the rest.
 	 *
-	 * @param selected The variables which are already assigned.
+	 * @return <tt>true</tt> if the network is consistent, <tt>false</tt> otherwise.
+	 */
+	public boolean propagate() {
+		return resolveConstraints();
+	}
+
+	/**
+	 * Returns a view of the variables which have not yet been selected for branching on the current path of the
+	 * search. The order of the view is unspecified and it must not be modified.
 	 *
-	 * @return The most constrained variable.
+	 * @return The unselected variables.
 	 */
-	private Variable getMostConstrainedVariable(Stack<Variable> selected) {
-		Variable v1 = null;
+	public List<Variable<?>> getUnselectedVariables() {
+		return new AbstractList<Variable<?>>()
+		{
+			@Override
+			public Variable<?> get(int index) {
+				if (index < 0 || index >= unselected.size()) {
+					throw new IndexOutOfBoundsException();
+				}
 
-		for (Variable v2 : variables) {
-			if (selected.contains(v2)) {
-				continue;
+				return unselected.get(index);
 			}
 
-			if (v1 == null || v2.getDomain().size() < v1.getDomain().size()) {
-				v1 = v2;
+			@Override
+			public int size() {
+				return unselected.size();
 			}
+		};
+	}
+
+	/**
+	 * Returns the number of active (not entailed) constraints on <tt>variable</tt>.
+	 *
+	 * @param variable The variable.
+	 *
+	 * @return The number of active constraints on <tt>variable</tt>.
+	 *
+	 * @throws RuntimeException If the variable has not been registered.
+	 */
+	public int getDegree(Variable<?> variable) {
+		if (!isRegistered(variable)) {
+			throw new RuntimeException("Querying degree of non-registered variable.");
+		}
+
+		int degree = 0;
+		for (Event event : Event.values()) {
+			degree += getArcs(variable, event).size();
 		}
 
-		return v1;
+		return degree;
 	}
 
 	/**
-	 * Adds all the arcs neighboring <tt>variable</tt> to <tt>worklist</tt>.
+	 * Returns the sum of the failure weights of the active (not entailed) constraints on <tt>variable</tt>. The weight
+	 * of a constraint starts at one and is incremented each time its propagation wipes out a domain. Weights are kept
+	 * for the lifetime of the solver, so they carry over between searches.
 	 *
 	 * @param variable The variable.
+	 *
+	 * @return The weighted degree of <tt>variable</tt>.
+	 *
+	 * @throws RuntimeException If the variable has not been registered.
 	 */
-	private <T extends Domain> void queueNeighboringArcs(Variable<T> variable) {
-		for (Arc<T> arc : neighbors.get(variable)) {
-			if (!worklist.contains(arc)) {
-				worklist.add(arc);
+	public long getWeightedDegree(Variable<?> variable) {
+		if (!isRegistered(variable)) {
+			throw new RuntimeException("Querying degree of non-registered variable.");
+		}
+
+		long degree = 0;
+		for (Event event : Event.values()) {
+			ArcList arcs = getArcs(variable, event);
+
+			for (int i = 0; i < arcs.size(); i++) {
+				degree += arcs.get(i).getWeight();
 			}
 		}
+
+		return degree;
 	}
 
 	/**
-	 * Iterates the worklist, updating each arc.
+	 * Returns the source of randomness used by the search strategies.
 	 *
-	 * @return <tt>true</tt> if the network is consistent, <tt>false</tt> otherwise.
+	 * @return The source of randomness.
 	 */
-	private boolean resolveConstraints() {
-		while (!worklist.isEmpty()) {
-			if (!worklist.poll().update()) {
-				worklist.clear();
-				return false;
+	public Random getRandom() {
+		return random;
+	}
+
+	/**
+	 * Reseeds the source of randomness used by the search strategies, so that randomized searches are reproducible.
+	 *
+	 * @param seed The seed.
+	 */
+	public void setSeed(long seed) {
+		random.setSeed(seed);
+	}
+
+	/**
+	 * Returns the counters describing the most recent search.
+	 *
+	 * @return The counters describing the most recent search.
+	 */
+	public Statistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Searches a neighborhood of <tt>incumbent</tt> for solutions with a strictly better objective. The neighborhood
+	 * fixes some of the <tt>candidates</tt> to their values in the incumbent, and the rest of the network is explored
+	 * by branch and bound until the search tree is exhausted or <tt>failLimit</tt> decisions have failed. The network
+	 * is restored before returning.
+	 *
+	 * @param neighborhood     The neighborhood generator.
+	 * @param candidates       The variables the neighborhood may fix.
+	 * @param incumbent        The incumbent solution.
+	 * @param objective        The variable to optimize.
+	 * @param maximizing       Whether the objective is maximized rather than minimized.
+	 * @param failLimit        The number of failed decisions after which the neighborhood is abandoned.
+	 * @param handler          The solution handler, which receives each improving solution.
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 *
+	 * @throws RuntimeException If the solver is already looking for solutions.
+	 */
+	void searchNeighborhood(Neighborhood neighborhood, List<Variable<?>> candidates, Solution incumbent,
+			IntegerVariable objective, boolean maximizing, long failLimit, SolutionHandler handler,
+			VariableSelector variableSelector, ValueSelector valueSelector) {
+		if (solving) {
+			throw new RuntimeException("Already solving.");
+		}
+
+		int value = incumbent.get(objective);
+
+		begin(variableSelector, valueSelector);
+		this.objective = objective;
+		this.maximizing = maximizing;
+		this.bounded = true;
+		this.bound = maximizing ? value + 1 : value - 1;
+
+		int root = trail.mark();
+
+		if (neighborhood.fix(this, candidates, incumbent) && resolveConstraints()) {
+			explore(handler, failLimit, true);
+		}
+
+		trail.restore(root);
+
+		this.objective = null;
+		this.bounded = false;
+		end();
+	}
+
+	/**
+	 * Enumerates the solutions of a subproblem of the network. The subproblem is reached by replaying a decision path
+	 * of another search, propagating after each decision as that search did. Whenever <tt>queue</tt> is hungry, the
+	 * untried values of the shallowest open choice point are handed to it as new subproblems instead of being
+	 * searched here. The network is restored before returning.
+	 *
+	 * @param path             The variables of the decisions leading to the subproblem.
+	 * @param values           The values of the decisions leading to the subproblem.
+	 * @param handler          The solution handler.
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 * @param queue            The queue receiving shared work.
+	 *
+	 * @throws RuntimeException If the solver is already looking for solutions.
+	 */
+	void searchSubproblem(Variable<?>[] path, Domain<?>[] values, SolutionHandler handler,
+			VariableSelector variableSelector, ValueSelector valueSelector, WorkQueue queue) {
+		if (!hasSearchSpace()) {
+			return;
+		}
+
+		if (solving) {
+			throw new RuntimeException("Already solving.");
+		}
+
+		begin(variableSelector, valueSelector);
+		workQueue = queue;
+
+		int root = trail.mark();
+		boolean consistent = true;
+
+		for (int i = 0; i < path.length && consistent; i++) {
+			consistent = trySetDomain(path[i], values[i]) && resolveConstraints();
+		}
+
+		if (consistent) {
+			explore(handler, Long.MAX_VALUE, false);
+		}
+
+		trail.restore(root);
+
+		workQueue = null;
+		end();
+	}
+
+	/**
+	 * Splits the network into subproblems by exploring the search tree down to <tt>decisions</tt> decisions. The path
+	 * to each consistent node at that depth, and to each solution found above it, is handed to <tt>queue</tt>;
+	 * branches which fail propagation are dropped. Decisions on variables which had a single value when selected are
+	 * implied by the others, so they neither count towards the depth nor appear in the paths. The network is restored
+	 * before returning.
+	 *
+	 * @param decisions        The number of decisions fixed by each subproblem.
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 * @param queue            The queue receiving the subproblems.
+	 *
+	 * @throws RuntimeException If the solver is already looking for solutions.
+	 */
+	void decompose(int decisions, VariableSelector variableSelector, ValueSelector valueSelector, WorkQueue queue) {
+		if (!hasSearchSpace()) {
+			return;
+		}
+
+		if (solving) {
+			throw new RuntimeException("Already solving.");
+		}
+
+		begin(variableSelector, valueSelector);
+		workQueue = queue;
+		splitDecisions = decisions;
+
+		int root = trail.mark();
+		explore(null, Long.MAX_VALUE, false);
+		trail.restore(root);
+
+		splitDecisions = 0;
+		workQueue = null;
+		end();
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the network has variables and none of them has an empty domain. A search of a network
+	 * without search space reports no solution.
+	 *
+	 * @return <tt>true</tt> if the network can be searched, <tt>false</tt> otherwise.
+	 */
+	private boolean hasSearchSpace() {
+		if (variables.isEmpty()) {
+			return false;
+		}
+
+		for (Variable<?> v : variables) {
+			if (v.getDomain().isEmpty()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Prepares the solver for a search with the given strategy.
+	 *
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 */
+	private void begin(VariableSelector variableSelector, ValueSelector valueSelector) {
+		this.variableSelector = variableSelector;
+		this.valueSelector = valueSelector;
+
+		List<SearchListener> learners = new ArrayList<>();
+		for (Object selector : new Object[] { variableSelector, valueSelector }) {
+			if (selector instanceof SearchListener && !learners.contains(selector)) {
+				learners.add((SearchListener) selector);
+			}
+		}
+
+		listeners = learners.toArray(new SearchListener[learners.size()]);
+		nogoods.clear();
+		solving = true;
+		status = SearchStatus.COMPLETE;
+		deadline = Long.MAX_VALUE;
+
+		if (limits != null && limits.getTime() != Long.MAX_VALUE) {
+			long now = System.currentTimeMillis();
+			deadline = limits.getTime() < Long.MAX_VALUE - now ? now + limits.getTime() : Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * Releases the state of the search which has just ended.
+	 */
+	private void end() {
+		solving = false;
+		cancelled = false;
+		offered = null;
+		nogoods.clear();
+		variableSelector = null;
+		valueSelector = null;
+		listeners = new SearchListener[0];
+	}
+
+	/**
+	 * Runs a branch and bound search on <tt>objective</tt>.
+	 *
+	 * @param objective        The variable to optimize.
+	 * @param maximizing       Whether the objective is maximized rather than minimized.
+	 * @param handler          The solution handler.
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 *
+	 * @return The best solution found, or <tt>null</tt> if there is no solution.
+	 */
+	private Solution optimize(IntegerVariable objective, boolean maximizing, final SolutionHandler handler,
+			VariableSelector variableSelector, ValueSelector valueSelector) {
+		if (solving) {
+			throw new RuntimeException("Already solving.");
+		}
+
+		if (!isRegistered(objective)) {
+			throw new RuntimeException("Optimizing non-registered variable.");
+		}
+
+		final Solution[] best = new Solution[1];
+
+		this.objective = objective;
+		this.maximizing = maximizing;
+		this.bounded = false;
+
+		solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				best[0] = solution;
+				return handler.handle(solution);
+			}
+		}, variableSelector, valueSelector);
+
+		this.objective = null;
+		this.bounded = false;
+
+		return best[0];
+	}
+
+	/**
+	 * Requires the objective of an optimizing search to improve on the best solution found so far.
+	 *
+	 * @return <tt>false</tt> if the objective cannot improve, <tt>true</tt> otherwise.
+	 */
+	private boolean applyBound() {
+		Integer value = offered;
+
+		if (value != null && objective != null) {
+			int offeredBound = maximizing ? value + 1 : value - 1;
+
+			if (!bounded || (maximizing ? offeredBound > bound : offeredBound < bound)) {
+				bound = offeredBound;
+				bounded = true;
+			}
+		}
+
+		if (!bounded) {
+			return true;
+		}
+
+		IntegerDomain domain = objective.getDomain();
+
+		if (maximizing) {
+			if (domain.getMinimum() >= bound) {
+				return true;
+			}
+
+			return bound <= Interval.MAX_VALUE
+					&& trySetValue(objective, domain.retain(new Interval(bound, Interval.MAX_VALUE)));
+		}
+
+		if (domain.getMaximum() <= bound) {
+			return true;
+		}
+
+		return bound >= Interval.MIN_VALUE
+				&& trySetValue(objective, domain.retain(new Interval(Interval.MIN_VALUE, bound)));
+	}
+
+	/**
+	 * The main solver routine. Runs the search from the root, restarting it whenever a run is abandoned under the
+	 * restart schedule.
+	 *
+	 * @param handler The solution handler.
+	 */
+	private void search(SolutionHandler handler) {
+		int run = 0;
+
+		while (solving) {
+			long limit = Long.MAX_VALUE;
+
+			if (restartSchedule != null && statistics.getSolutions() == 0) {
+				limit = restartSchedule.getFailureLimit(run);
+			}
+
+			if (!explore(handler, limit, false)) {
+				break;
+			}
+
+			statistics.recordRestart();
+			run++;
+		}
+	}
+
+	/**
+	 * Runs the search from the root until the search tree is exhausted, the handler stops the search, or the run has
+	 * failed <tt>limit</tt> times. Unless the limit is <tt>strict</tt>, it no longer applies once a solution has been
+	 * found. The network is restored to the root in every case.
+	 * <p/>
+	 * Whenever all variables have a unique assignment, the <tt>handler</tt> is called. Otherwise, the variable selector
+	 * chooses an unselected variable and a choice point is pushed on the search stack. The choice point at the top of
+	 * the stack restores the network and tries its next value on each step, and is popped once all of its values have
+	 * been tried. If the handler returns <tt>false</tt>, we immediately stop solving and rewind the stack.
+	 *
+	 * @param handler The solution handler.
+	 * @param limit   The number of failures after which the run is abandoned.
+	 * @param strict  Whether the limit also applies after a solution has been found.
+	 *
+	 * @return <tt>true</tt> if the run was abandoned, <tt>false</tt> otherwise.
+	 */
+	private boolean explore(SolutionHandler handler, long limit, boolean strict) {
+		if (!nogoods.applyUnits(this) || !applyBound() || !resolveConstraints() || !descend(handler)) {
+			return false;
+		}
+
+		long failures = 0;
+		boolean abandoned = false;
+
+		while (depth > 0 && solving) {
+			if (cancelled || retired) {
+				stop(SearchStatus.CANCELLED);
+				break;
+			}
+
+			if (limits != null && isLimitReached()) {
+				stop(SearchStatus.LIMIT_REACHED);
+				break;
+			}
+
+			if (workQueue != null && workQueue.isHungry()) {
+				share();
+			}
+
+			ChoicePoint choicePoint = choicePoints[depth - 1];
+			trail.restore(choicePoint.getMark());
+
+			if (nogoods.isEnabled()) {
+				recordNogood();
+			}
+
+			if (!choicePoint.getIterator().hasNext()) {
+				pop();
+				continue;
+			}
+
+			Domain<?> value = choicePoint.getIterator().next();
+			choicePoint.setValue(value, statistics.getSolutions());
+			statistics.recordNode();
+
+			for (SearchListener listener : listeners) {
+				listener.decisionStarted(choicePoint.getVariable(), value);
+			}
+
+			boolean consistent = applyBound() && trySetDomain(choicePoint.getVariable(), value) && resolveConstraints();
+
+			for (SearchListener listener : listeners) {
+				listener.decisionFinished(choicePoint.getVariable(), value, consistent);
+			}
+
+			if (!solving) {
+				break;
+			}
+
+			if (consistent) {
+				choicePoint.getIterator().lastDomainValid();
+
+				if (value.isUnique()) {
+					descend(handler);
+				}
+			} else {
+				statistics.recordFailure();
+
+				if (++failures >= limit && (strict || statistics.getSolutions() == 0)) {
+					if (nogoods.isEnabled()) {
+						recordNogood();
+					}
+
+					abandoned = true;
+					break;
+				}
+			}
+		}
+
+		while (depth > 0) {
+			trail.restore(choicePoints[depth - 1].getMark());
+			pop();
+		}
+
+		return abandoned;
+	}
+
+	/**
+	 * Returns whether the current search has exceeded one of its limits. The clock is read only once every
+	 * <tt>CLOCK_INTERVAL</tt> nodes.
+	 *
+	 * @return <tt>true</tt> if a limit has been reached, <tt>false</tt> otherwise.
+	 */
+	private boolean isLimitReached() {
+		long nodes = statistics.getNodes();
+
+		return nodes >= limits.getNodes()
+				|| statistics.getFailures() >= limits.getFailures()
+				|| statistics.getSolutions() >= limits.getSolutions()
+				|| trail.size() >= limits.getTrailSize()
+				|| nodes % CLOCK_INTERVAL == 0 && System.currentTimeMillis() >= deadline;
+	}
+
+	/**
+	 * Stops the current search.
+	 *
+	 * @param status The outcome of the search.
+	 */
+	private void stop(SearchStatus status) {
+		this.status = status;
+		solving = false;
+	}
+
+	/**
+	 * Moves the search below the current node. If all variables are selected, the current assignment is reported to
+	 * the <tt>handler</tt>. Otherwise, a new choice point is pushed on the search stack. While the network is being
+	 * decomposed, nodes deep enough to be subproblems are handed to the work queue instead.
+	 *
+	 * @param handler The solution handler.
+	 *
+	 * @return <tt>true</tt> if a choice point was pushed, <tt>false</tt> otherwise.
+	 */
+	private boolean descend(SolutionHandler handler) {
+		if (splitDecisions > 0 && split()) {
+			return false;
+		}
+
+		if (unselected.isEmpty()) {
+			Solution solution = new Solution();
+
+			for (Variable<?> variable : variables) {
+				solution.add(variable);
+			}
+
+			statistics.recordSolution();
+
+			if (objective != null) {
+				int value = objective.getDomain().getUniqueValue();
+				bound = maximizing ? value + 1 : value - 1;
+				bounded = true;
+			}
+
+			if (!handler.handle(solution)) {
+				stop(SearchStatus.CANCELLED);
+			}
+
+			return false;
+		}
+
+		if (depth == choicePoints.length) {
+			choicePoints = Arrays.copyOf(choicePoints, depth * 2);
+		}
+
+		if (choicePoints[depth] == null) {
+			choicePoints[depth] = new ChoicePoint();
+		}
+
+		Variable<?> variable = variableSelector.select(this);
+
+		if (variable == null || !isRegistered(variable) || !unselected.contains(variable)) {
+			throw new RuntimeException("Variable selector did not return an unselected variable.");
+		}
+
+		int mark = trail.mark();
+		unselected.remove(variable);
+		boolean forced = variable.getDomain().isUnique();
+		choicePoints[depth++].reset(variable, valueSelector.getValues(this, variable), mark, forced);
+		return true;
+	}
+
+	/**
+	 * Pops the choice point at the top of the search stack and returns its variable to the set of unselected
+	 * variables. The network must already be restored to the choice point's mark.
+	 */
+	private void pop() {
+		ChoicePoint choicePoint = choicePoints[--depth];
+		unselected.add(choicePoint.getVariable());
+		choicePoint.reset(null, null, 0, false);
+	}
+
+	/**
+	 * Hands the path to the current node to the work queue if the node is deep enough to be a subproblem of the
+	 * decomposition, or is a solution.
+	 *
+	 * @return <tt>true</tt> if the path was handed to the work queue, <tt>false</tt> otherwise.
+	 */
+	private boolean split() {
+		int decisions = 0;
+		for (int i = 0; i < depth; i++) {
+			if (!choicePoints[i].isForced()) {
+				decisions++;
+			}
+		}
+
+		if (decisions < splitDecisions && !unselected.isEmpty()) {
+			return false;
+		}
+
+		Variable<?>[] path = new Variable<?>[decisions];
+		Domain<?>[] values = new Domain<?>[decisions];
+
+		for (int i = 0, j = 0; i < depth; i++) {
+			if (!choicePoints[i].isForced()) {
+				path[j] = choicePoints[i].getVariable();
+				values[j++] = choicePoints[i].getValue();
+			}
+		}
+
+		workQueue.share(path, values);
+		return true;
+	}
+
+	/**
+	 * Hands the untried values of the shallowest choice point which has any to the work queue. Each value becomes a
+	 * subproblem described by the decisions of the choice points above it followed by the value itself; those choice
+	 * points have all descended, so their values are unique.
+	 */
+	private void share() {
+		for (int i = 0; i < depth; i++) {
+			DomainIterator<?> iterator = choicePoints[i].getIterator();
+
+			if (!iterator.hasNext()) {
+				continue;
+			}
+
+			Variable<?>[] path = new Variable<?>[i + 1];
+			Domain<?>[] values = new Domain<?>[i + 1];
+
+			for (int j = 0; j < i; j++) {
+				path[j] = choicePoints[j].getVariable();
+				values[j] = choicePoints[j].getValue();
+			}
+
+			path[i] = choicePoints[i].getVariable();
+
+			while (iterator.hasNext()) {
+				values[i] = iterator.next();
+				workQueue.share(path, values.clone());
+			}
+
+			return;
+		}
+	}
+
+	/**
+	 * Records the decisions leading to the value last tried by the choice point at the top of the search stack as a
+	 * nogood, if that value is a single value whose subtree has been explored without finding a solution. Decisions on
+	 * variables which had a single value when they were selected are implied by the earlier decisions, and are left out.
+	 * <p/>
+	 * Nothing is recorded while work is handed to a queue, because parts of the subtree may have been given away
+	 * instead of explored, and the nogood would prune values which another worker is still searching.
+	 */
+	private void recordNogood() {
+		if (workQueue != null) {
+			return;
+		}
+
+		ChoicePoint top = choicePoints[depth - 1];
+		Domain<?> value = top.getValue();
+
+		if (value == null || !value.isUnique() || top.isForced() || top.getSolutions() != statistics.getSolutions()) {
+			return;
+		}
+
+		int size = 0;
+		for (int i = 0; i < depth; i++) {
+			if (!choicePoints[i].isForced()) {
+				size++;
+			}
+		}
+
+		Variable<?>[] decisionVariables = new Variable<?>[size];
+		Object[] decisionValues = new Object[size];
+
+		for (int i = 0, j = 0; i < depth; i++) {
+			if (!choicePoints[i].isForced()) {
+				decisionVariables[j] = choicePoints[i].getVariable();
+				decisionValues[j++] = choicePoints[i].getValue().getUniqueValue();
+			}
+		}
+
+		nogoods.record(decisionVariables, decisionValues);
+	}
+
+	/**
+	 * Returns the unselected variable with the smallest domain, breaking ties by variable id or randomly.
+	 *
+	 * @return The unselected variable with the smallest domain, or <tt>null</tt> if there is none.
+	 */
+	Variable<?> getSmallestUnselected() {
+		return randomTieBreaking ? unselected.sample(random) : unselected.peek();
+	}
+
+	/**
+	 * Notifies the solver that the domain of <tt>variable</tt> has been replaced.
+	 *
+	 * @param variable The variable.
+	 */
+	void domainChanged(Variable<?> variable) {
+		unselected.update(variable);
+	}
+
+	/**
+	 * Returns <tt>true</tt> if <tt>variable</tt> is registered with this solver, <tt>false</tt> otherwise.
+	 *
+	 * @param variable The variable.
+	 *
+	 * @return <tt>true</tt> if <tt>variable</tt> is registered with this solver, <tt>false</tt> otherwise.
+	 */
+	private boolean isRegistered(Variable<?> variable) {
+		int id = variable.getId();
+		return id >= 0 && id < variables.size() && variables.get(id) == variable;
+	}
+
+	/**
+	 * Returns the list of arcs which are woken by a change of <tt>variable</tt> at least as strong as <tt>event</tt>.
+	 *
+	 * @param variable The variable.
+	 * @param event    The event.
+	 *
+	 * @return The list of arcs.
+	 */
+	private ArcList getArcs(Variable<?> variable, Event event) {
+		return neighbors.get(variable.getId() * Event.values().length + event.ordinal());
+	}
+
+	/**
+	 * Adds all the arcs constraining <tt>variable</tt> which are woken by <tt>event</tt> to <tt>worklist</tt>.
+	 *
+	 * @param variable The variable.
+	 * @param event    The kind of change made to the domain of <tt>variable</tt>.
+	 */
+	private <T extends Domain<?>> void queueNeighboringArcs(Variable<T> variable, Event event) {
+		for (Event subscribed : Event.values()) {
+			if (subscribed.compareTo(event) >= 0) {
+				ArcList arcs = getArcs(variable, subscribed);
+
+				for (int i = 0; i < arcs.size(); i++) {
+					worklist.add(arcs.get(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Iterates the worklist, updating each arc. Arcs of cheaper constraints are updated first. Arcs whose constraint
+	 * becomes entailed are deactivated until the search backtracks, and the weight of an arc whose update fails is
+	 * incremented. The nogoods watching newly instantiated variables are visited before each arc update. A search which
+	 * is cancelled while propagating is stopped, and <tt>false</tt> is returned without blaming any arc.
+	 *
+	 * @return <tt>true</tt> if the network is consistent, <tt>false</tt> otherwise.
+	 */
+	private boolean resolveConstraints() {
+		while (true) {
+			if (solving && (cancelled || retired)) {
+				worklist.clear();
+				nogoods.clearPending();
+				stop(SearchStatus.CANCELLED);
+				return false;
+			}
+
+			if (!nogoods.propagate(this)) {
+				worklist.clear();
+				return false;
+			}
+
+			if (worklist.isEmpty()) {
+				break;
+			}
+
+			Arc<?> arc = worklist.poll();
+			statistics.recordPropagation(arc.getCost());
+
+			if (!arc.update()) {
+				arc.recordFailure();
+				worklist.clear();
+				nogoods.clearPending();
+				return false;
+			}
+
+			if (arc.isActive() && arc.isEntailed()) {
+				trail.deactivate(arc);
 			}
 		}
 
@@ -0,0 +1,185 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * Counters describing the work done by a solver during its most recent search.
+ *
+ * @author Eric Fritz
+ */
+final public class Statistics
+{
+	/**
+	 * The number of constraint narrowings indexed by cost class.
+	 */
+	private long[] propagations = new long[Cost.values().length];
+
+	/**
+	 * The number of solutions reported to the solution handler.
+	 */
+	private long solutions = 0;
+
+	/**
+	 * The number of decisions tried by the search.
+	 */
+	private long nodes = 0;
+
+	/**
+	 * The number of decisions which were inconsistent with the network.
+	 */
+	private long failures = 0;
+
+	/**
+	 * The number of times the search was restarted from the root.
+	 */
+	private long restarts = 0;
+
+	/**
+	 * Returns the total number of constraint narrowings.
+	 *
+	 * @return The total number of constraint narrowings.
+	 */
+	public long getPropagations() {
+		long total = 0;
+
+		for (long count : propagations) {
+			total += count;
+		}
+
+		return total;
+	}
+
+	/**
+	 * Returns the number of narrowings of constraints with the cost class <tt>cost</tt>.
+	 *
+	 * @param cost The cost class.
+	 *
+	 * @return The number of narrowings of constraints with the cost class <tt>cost</tt>.
+	 */
+	public long getPropagations(Cost cost) {
+		return propagations[cost.ordinal()];
+	}
+
+	/**
+	 * Returns the number of solutions reported to the solution handler.
+	 *
+	 * @return The number of solutions.
+	 */
+	public long getSolutions() {
+		return solutions;
+	}
+
+	/**
+	 * Returns the number of decisions tried by the search.
+	 *
+	 * @return The number of nodes.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns the number of decisions which were inconsistent with the network.
+	 *
+	 * @return The number of failed decisions.
+	 */
+	public long getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Returns the number of times the search was restarted from the root.
+	 *
+	 * @return The number of restarts.
+	 */
+	public long getRestarts() {
+		return restarts;
+	}
+
+	/**
+	 * Records a narrowing of a constraint with the cost class <tt>cost</tt>.
+	 *
+	 * @param cost The cost class.
+	 */
+	void recordPropagation(Cost cost) {
+		propagations[cost.ordinal()]++;
+	}
+
+	/**
+	 * Records a solution reported to the solution handler.
+	 */
+	void recordSolution() {
+		solutions++;
+	}
+
+	/**
+	 * Records a decision tried by the search.
+	 */
+	void recordNode() {
+		nodes++;
+	}
+
+	/**
+	 * Records a decision which was inconsistent with the network.
+	 */
+	void recordFailure() {
+		failures++;
+	}
+
+	/**
+	 * Records a restart of the search.
+	 */
+	void recordRestart() {
+		restarts++;
+	}
+
+	/**
+	 * Resets all counters to zero.
+	 */
+	void reset() {
+		for (int i = 0; i < propagations.length; i++) {
+			propagations[i] = 0;
+		}
+
+		solutions = 0;
+		nodes = 0;
+		failures = 0;
+		restarts = 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("propagations: ").append(getPropagations());
+
+		for (Cost cost : Cost.values()) {
+			builder.append(", ").append(cost.name().toLowerCase()).append(": ").append(getPropagations(cost));
+		}
+
+		builder.append(", solutions: ").append(solutions);
+		builder.append(", nodes: ").append(nodes);
+		builder.append(", failures: ").append(failures);
+		builder.append(", restarts: ").append(restarts);
+
+		return builder.toString();
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * The search configuration of one worker of a portfolio or parallel search. The selectors of a strategy may keep
+ * learned state, so a strategy must not be shared among workers.
+ * <p/>
+ * Stateful selectors, such as <tt>ImpactSearch</tt>, <tt>ActivitySearch</tt> and any other <tt>LearningSelector</tt>,
+ * record what they learn about the variables of the solver they search. Each worker must be given its own instance,
+ * created for its strategy; an instance must never be shared between the threads of a portfolio.
+ *
+ * @author Eric Fritz
+ */
+final public class Strategy
+{
+	/**
+	 * The strategy choosing the variable to branch on.
+	 */
+	private VariableSelector variableSelector;
+
+	/**
+	 * The strategy choosing the order of values of the selected variable.
+	 */
+	private ValueSelector valueSelector;
+
+	/**
+	 * The seed of the solver's source of randomness.
+	 */
+	private long seed = 0;
+
+	/**
+	 * Whether ties between variables are broken randomly.
+	 */
+	private boolean randomTieBreaking = false;
+
+	/**
+	 * The restart schedule, or <tt>null</tt> to search without restarts.
+	 */
+	private RestartSchedule restartSchedule;
+
+	/**
+	 * The maximum number of nogoods kept, or zero to disable nogood recording.
+	 */
+	private int nogoodCapacity = 0;
+
+	/**
+	 * Creates a new Strategy.
+	 *
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 */
+	public Strategy(VariableSelector variableSelector, ValueSelector valueSelector) {
+		this.variableSelector = variableSelector;
+		this.valueSelector = valueSelector;
+	}
+
+	/**
+	 * Returns the strategy choosing the variable to branch on.
+	 *
+	 * @return The variable selector.
+	 */
+	public VariableSelector getVariableSelector() {
+		return variableSelector;
+	}
+
+	/**
+	 * Returns the strategy choosing the order of values of the selected variable.
+	 *
+	 * @return The value selector.
+	 */
+	public ValueSelector getValueSelector() {
+		return valueSelector;
+	}
+
+	/**
+	 * Sets the seed of the solver's source of randomness.
+	 *
+	 * @param seed The seed.
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets whether ties between variables are broken randomly.
+	 *
+	 * @param randomTieBreaking <tt>true</tt> to break ties randomly, <tt>false</tt> to prefer earlier variables.
+	 */
+	public void setRandomTieBreaking(boolean randomTieBreaking) {
+		this.randomTieBreaking = randomTieBreaking;
+	}
+
+	/**
+	 * Sets the restart schedule.
+	 *
+	 * @param restartSchedule The restart schedule, or <tt>null</tt> to search without restarts.
+	 */
+	public void setRestartSchedule(RestartSchedule restartSchedule) {
+		this.restartSchedule = restartSchedule;
+	}
+
+	/**
+	 * Sets the maximum number of nogoods kept.
+	 *
+	 * @param nogoodCapacity The capacity, or zero to disable nogood recording.
+	 */
+	public void setNogoodCapacity(int nogoodCapacity) {
+		this.nogoodCapacity = nogoodCapacity;
+	}
+
+	/**
+	 * Returns a factory creating strategies which share the given selectors. Selectors without state of their own,
+	 * such as those of <tt>VariableOrder</tt> and <tt>ValueOrder</tt>, may safely be used by several workers.
+	 *
+	 * @param variableSelector The strategy choosing the variable to branch on.
+	 * @param valueSelector    The strategy choosing the order of values of the selected variable.
+	 *
+	 * @return The factory.
+	 *
+	 * @throws RuntimeException If one of the selectors learns from the search.
+	 */
+	static StrategyFactory shared(final VariableSelector variableSelector, final ValueSelector valueSelector) {
+		if (variableSelector instanceof SearchListener || valueSelector instanceof SearchListener) {
+			throw new RuntimeException("Learning selectors cannot be shared by workers.");
+		}
+
+		return new StrategyFactory()
+		{
+			@Override
+			public Strategy create(Solver solver) {
+				return new Strategy(variableSelector, valueSelector);
+			}
+		};
+	}
+
+	/**
+	 * Applies the configuration of this strategy to a solver.
+	 *
+	 * @param solver The solver.
+	 */
+	void configure(Solver solver) {
+		solver.setSeed(seed);
+		solver.setRandomTieBreaking(randomTieBreaking);
+		solver.setRestartSchedule(restartSchedule);
+		solver.setNogoodCapacity(nogoodCapacity);
+	}
+}
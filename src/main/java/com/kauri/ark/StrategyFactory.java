@@ -0,0 +1,42 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * Creates the search strategy of each worker of a parallel search. The workers search their own copies of the model
+ * at the same time, and a selector which learns from the search, such as <tt>ImpactSearch</tt> or
+ * <tt>ActivitySearch</tt>, records what it learns about the variables of one copy. Such a selector must therefore be
+ * a new instance in each strategy created.
+ *
+ * @author Eric Fritz
+ */
+public interface StrategyFactory
+{
+	/**
+	 * Creates the strategy of a new worker. This method may be called from several threads at once.
+	 *
+	 * @param solver The solver of the worker, on which the model has already been built.
+	 *
+	 * @return A strategy whose selectors are not used by any other worker.
+	 */
+	public Strategy create(Solver solver);
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A part of the search tree of a model, given by the decisions leading to it. Decisions refer to variables by id, so
+ * a subproblem found on one copy of a model can be searched on any other copy built the same way.
+ *
+ * @author Eric Fritz
+ */
+final public class Subproblem
+{
+	/**
+	 * The ids of the variables of the decisions.
+	 */
+	private int[] ids;
+
+	/**
+	 * The values of the decisions.
+	 */
+	private Domain<?>[] values;
+
+	/**
+	 * Creates a new Subproblem.
+	 *
+	 * @param ids    The ids of the variables of the decisions.
+	 * @param values The values of the decisions.
+	 */
+	Subproblem(int[] ids, Domain<?>[] values) {
+		this.ids = ids;
+		this.values = values;
+	}
+
+	/**
+	 * Returns the number of decisions leading to the subproblem.
+	 *
+	 * @return The number of decisions.
+	 */
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns the ids of the variables of the decisions.
+	 *
+	 * @return The variable ids.
+	 */
+	int[] getIds() {
+		return ids;
+	}
+
+	/**
+	 * Returns the values of the decisions.
+	 *
+	 * @return The values.
+	 */
+	Domain<?>[] getValues() {
+		return values;
+	}
+
+	/**
+	 * Returns the variables of the decisions in a copy of the model.
+	 *
+	 * @param solver The solver on which the copy was built.
+	 *
+	 * @return The variables of <tt>solver</tt> with the ids of the decisions.
+	 */
+	Variable<?>[] getVariables(Solver solver) {
+		List<Variable<?>> variables = solver.getVariables();
+		Variable<?>[] path = new Variable<?>[ids.length];
+
+		for (int i = 0; i < ids.length; i++) {
+			path[i] = variables.get(ids[i]);
+		}
+
+		return path;
+	}
+
+	/**
+	 * Returns the subproblem reached from this one by further decisions.
+	 *
+	 * @param variables The variables of the further decisions.
+	 * @param values    The values of the further decisions.
+	 *
+	 * @return A new Subproblem.
+	 */
+	Subproblem extend(Variable<?>[] variables, Domain<?>[] values) {
+		int length = ids.length;
+		int[] newIds = Arrays.copyOf(ids, length + variables.length);
+		Domain<?>[] newValues = Arrays.copyOf(this.values, length + values.length);
+
+		for (int i = 0; i < variables.length; i++) {
+			newIds[length + i] = variables[i].getId();
+			newValues[length + i] = values[i];
+		}
+
+		return new Subproblem(newIds, newValues);
+	}
+}
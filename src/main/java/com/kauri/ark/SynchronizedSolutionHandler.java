@@ -0,0 +1,68 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * Adapts a solution handler to be called from several threads. Calls are made one at a time, and once the handler
+ * has returned <tt>false</tt>, every later call returns <tt>false</tt> without reaching it.
+ *
+ * @author Eric Fritz
+ */
+final public class SynchronizedSolutionHandler implements SolutionHandler
+{
+	/**
+	 * The wrapped handler.
+	 */
+	private SolutionHandler handler;
+
+	/**
+	 * Whether the wrapped handler has returned <tt>false</tt>.
+	 */
+	private boolean stopped = false;
+
+	/**
+	 * Creates a new SynchronizedSolutionHandler.
+	 *
+	 * @param handler The wrapped handler.
+	 */
+	public SynchronizedSolutionHandler(SolutionHandler handler) {
+		this.handler = handler;
+	}
+
+	@Override
+	public synchronized boolean handle(Solution solution) {
+		if (!stopped && !handler.handle(solution)) {
+			stopped = true;
+		}
+
+		return !stopped;
+	}
+
+	/**
+	 * Returns whether the wrapped handler has asked to stop the search.
+	 *
+	 * @return <tt>true</tt> if the wrapped handler has returned <tt>false</tt>, <tt>false</tt> otherwise.
+	 */
+	public synchronized boolean isStopped() {
+		return stopped;
+	}
+}
@@ -21,19 +21,44 @@
 
 package com.kauri.ark;
 
-import java.util.Stack;
+import java.util.Arrays;
 
 /**
- * A backtracking stack of domain values mapped to variables.
+ * A backtracking stack of domain values mapped to variables and of deactivated arcs.
+ * <p/>
+ * The stack is divided into levels by calls to <tt>mark</tt> and <tt>restore</tt>. Every variable is saved at most
+ * once per level: the first save records the domain the variable had when the level began, and restoring the level
+ * only needs that domain. Each variable is stamped with the level at which it was last saved so that later saves at
+ * the same level can be skipped.
  *
  * @author Eric Fritz
  */
 final class Trail
 {
 	/**
-	 * The stack of domain values.
+	 * The saved objects: a variable for domain entries or an arc for deactivation entries.
 	 */
-	private Stack<VarState> stack = new Stack<>();
+	private Object[] keys = new Object[64];
+
+	/**
+	 * The saved domains, parallel to <tt>keys</tt>. Deactivation entries have no saved domain.
+	 */
+	private Domain<?>[] domains = new Domain<?>[64];
+
+	/**
+	 * The number of entries on the stack.
+	 */
+	private int size = 0;
+
+	/**
+	 * The current level. Levels are never reused, so a stale stamp can never match the current level.
+	 */
+	private long level = 1;
+
+	/**
+	 * The level at which each variable was last saved indexed by variable id.
+	 */
+	private long[] stamps = new long[64];
 
 	/**
 	 * Returns the size of the current stack.
@@ -43,60 +68,98 @@ final class Trail
 	 * @return The size of the current stack.
 	 */
 	public int size() {
-		return stack.size();
+		return size;
+	}
+
+	/**
+	 * Begins a new level and returns the size of the current stack.
+	 * <p/>
+	 * This method must be called before any change which should be undone by restoring to the returned mark.
+	 *
+	 * @return The size of the current stack.
+	 */
+	public int mark() {
+		level++;
+		return size;
 	}
 
 	/**
-	 * Saves the current domain of a variable on the stack.
+	 * Saves the current domain of a variable on the stack unless it was already saved in the current level.
 	 *
 	 * @param variable The variable.
 	 */
-	public <T extends Domain> void save(Variable<T> variable) {
-		stack.push(new VarState(variable, variable.getDomain()));
+	public <T extends Domain<?>> void save(Variable<T> variable) {
+		int id = variable.getId();
+
+		if (id >= stamps.length) {
+			stamps = Arrays.copyOf(stamps, Math.max(stamps.length * 2, id + 1));
+		}
+
+		if (stamps[id] == level) {
+			return;
+		}
+
+		stamps[id] = level;
+		push(variable, variable.getDomain());
+	}
+
+	/**
+	 * Deactivates an arc and saves it on the stack so that it is reactivated on backtrack.
+	 *
+	 * @param arc The arc.
+	 */
+	public void deactivate(Arc<?> arc) {
+		arc.deactivate();
+		push(arc, null);
 	}
 
 	/**
-	 * Unwinds the stack, restoring all changes to domains since <tt>mark</tt>.
+	 * Unwinds the stack, restoring all changes to domains since <tt>mark</tt>, and begins a new level.
 	 *
 	 * @param mark The number of times to unwind the stack.
 	 */
 	public void restore(int mark) {
-		while (stack.size() > mark) {
-			stack.pop().restore();
+		while (size > mark) {
+			size--;
+
+			if (keys[size] instanceof Arc) {
+				((Arc<?>) keys[size]).activate();
+			} else {
+				restore((Variable<?>) keys[size], domains[size]);
+			}
+
+			keys[size] = null;
+			domains[size] = null;
 		}
+
+		level++;
 	}
 
 	/**
-	 * A variable/domain pair.
+	 * Restores a saved domain of a variable.
+	 *
+	 * @param variable The variable.
+	 * @param domain   The saved domain.
 	 */
-	private class VarState<T extends Domain>
-	{
-		/**
-		 * The variable.
-		 */
-		private Variable<T> variable;
-
-		/**
-		 * The domain.
-		 */
-		private T domain;
-
-		/**
-		 * Creates a new VarState.
-		 *
-		 * @param variable The variable.
-		 * @param domain   The domain.
-		 */
-		public VarState(Variable<T> variable, T domain) {
-			this.variable = variable;
-			this.domain = domain;
-		}
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private void restore(Variable<?> variable, Domain<?> domain) {
+		((Variable) variable).setDomain(domain);
+	}
 
-		/**
-		 * Restores the variable's old domain value.
-		 */
-		public void restore() {
-			variable.setDomain(domain);
+	/**
+	 * Pushes an entry on the stack.
+	 *
+	 * @param key    The variable or arc.
+	 * @param domain The saved domain, or <tt>null</tt>.
+	 */
+	private void push(Object key, Domain<?> domain) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			domains = Arrays.copyOf(domains, size * 2);
 		}
+
+		keys[size] = key;
+		domains[size] = domain;
+		size++;
 	}
 }
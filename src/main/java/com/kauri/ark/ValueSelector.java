@@ -0,0 +1,41 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * A strategy which chooses the order in which the values of a selected variable are tried.
+ *
+ * @author Eric Fritz
+ */
+public interface ValueSelector
+{
+	/**
+	 * Returns an iterator over the values to try for <tt>variable</tt>. The iterator must (eventually) cover every
+	 * value of the current domain of <tt>variable</tt>, as described by <tt>DomainIterator</tt>.
+	 *
+	 * @param solver   The solver.
+	 * @param variable The variable selected for branching.
+	 *
+	 * @return An iterator over subsets of the current domain of <tt>variable</tt>.
+	 */
+	public DomainIterator<?> getValues(Solver solver, Variable<?> variable);
+}
@@ -26,7 +26,7 @@ package com.kauri.ark;
  *
  * @author Eric Fritz
  */
-public class Variable<T extends Domain>
+public class Variable<T extends Domain<?>>
 {
 	/**
 	 * The solver.
@@ -38,6 +38,11 @@ public class Variable<T extends Domain>
 	 */
 	private T domain;
 
+	/**
+	 * The variable's index in the solver, or <tt>-1</tt> if the variable is not registered.
+	 */
+	private int id = -1;
+
 	/**
 	 * Creates a new Variable.
 	 *
@@ -60,6 +65,26 @@ public class Variable<T extends Domain>
 		return solver;
 	}
 
+	/**
+	 * Returns the variable's index in the solver.
+	 * <p/>
+	 * Indices are dense: the variables of a solver are numbered from zero in order of registration.
+	 *
+	 * @return The variable's index in the solver, or <tt>-1</tt> if the variable is not registered.
+	 */
+	public int getId() {
+		return id;
+	}
+
+	/**
+	 * Updates the variable's index in the solver.
+	 *
+	 * @param id The index.
+	 */
+	void setId(int id) {
+		this.id = id;
+	}
+
 	/**
 	 * Returns the current domain.
 	 *
@@ -76,6 +101,10 @@ public class Variable<T extends Domain>
 	 */
 	public void setDomain(T domain) {
 		this.domain = domain;
+
+		if (id != -1) {
+			solver.domainChanged(this);
+		}
 	}
 
 	/**
@@ -88,4 +117,14 @@ public class Variable<T extends Domain>
 	public boolean trySetValue(T domain) {
 		return solver.trySetValue(this, domain);
 	}
+
+	/**
+	 * Called by the solver after a constraint on this variable is registered. Subclasses may adapt the domain of the
+	 * variable to the needs of the constraint. Constraints are never registered while the solver is solving, so such a
+	 * change does not need to be trailed.
+	 *
+	 * @param constraint The constraint.
+	 */
+	protected void constrained(Constraint<T> constraint) {
+	}
 }
@@ -0,0 +1,306 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * An indexed binary min-heap of variables ordered by the size of their current domain.
+ * <p/>
+ * Ties are broken by variable id, so the heap always yields the earliest registered variable among those with the
+ * smallest domain. Each variable records its position in the heap (by id), so a variable whose domain changes can be
+ * moved to its new position in logarithmic time.
+ *
+ * @author Eric Fritz
+ */
+final class VariableHeap
+{
+	/**
+	 * The heap-ordered variables.
+	 */
+	private Variable<?>[] heap = new Variable<?>[16];
+
+	/**
+	 * The position of each variable in <tt>heap</tt> indexed by variable id, or <tt>-1</tt> if it is not present.
+	 */
+	private int[] positions = new int[0];
+
+	/**
+	 * The number of variables in the heap.
+	 */
+	private int size = 0;
+
+	/**
+	 * Returns <tt>true</tt> if the heap is empty, <tt>false</tt> otherwise.
+	 *
+	 * @return <tt>true</tt> if the heap is empty, <tt>false</tt> otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of variables in the heap.
+	 *
+	 * @return The number of variables in the heap.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the variable at <tt>index</tt> in heap order.
+	 *
+	 * @param index The index.
+	 *
+	 * @return The variable at <tt>index</tt>.
+	 */
+	public Variable<?> get(int index) {
+		return heap[index];
+	}
+
+	/**
+	 * Returns <tt>true</tt> if the heap contains <tt>variable</tt>, <tt>false</tt> otherwise.
+	 *
+	 * @param variable The variable.
+	 *
+	 * @return <tt>true</tt> if the heap contains <tt>variable</tt>, <tt>false</tt> otherwise.
+	 */
+	public boolean contains(Variable<?> variable) {
+		int id = variable.getId();
+		return id < positions.length && positions[id] != -1;
+	}
+
+	/**
+	 * Adds a variable to the heap.
+	 *
+	 * @param variable The variable.
+	 */
+	public void add(Variable<?> variable) {
+		int id = variable.getId();
+
+		if (id >= positions.length) {
+			int length = positions.length;
+			positions = Arrays.copyOf(positions, Math.max(length * 2, id + 1));
+			Arrays.fill(positions, length, positions.length, -1);
+		}
+
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+		}
+
+		heap[size] = variable;
+		positions[id] = size;
+		siftUp(size++);
+	}
+
+	/**
+	 * Returns the variable with the smallest domain without removing it.
+	 *
+	 * @return The variable with the smallest domain, or <tt>null</tt> if the heap is empty.
+	 */
+	public Variable<?> peek() {
+		return size == 0 ? null : heap[0];
+	}
+
+	/**
+	 * Returns a variable chosen uniformly at random among the variables with the smallest domain without removing it.
+	 * These variables form a subtree containing the root, so only they are visited.
+	 *
+	 * @param random The source of randomness.
+	 *
+	 * @return A variable with the smallest domain, or <tt>null</tt> if the heap is empty.
+	 */
+	public Variable<?> sample(Random random) {
+		if (size == 0) {
+			return null;
+		}
+
+		int smallest = heap[0].getDomain().size();
+		int[] pending = new int[16];
+		int count = 0;
+		int ties = 0;
+		Variable<?> chosen = null;
+
+		pending[count++] = 0;
+
+		while (count > 0) {
+			int position = pending[--count];
+			Variable<?> variable = heap[position];
+
+			if (random.nextInt(++ties) == 0) {
+				chosen = variable;
+			}
+
+			for (int child = 2 * position + 1; child <= 2 * position + 2 && child < size; child++) {
+				if (heap[child].getDomain().size() == smallest) {
+					if (count == pending.length) {
+						pending = Arrays.copyOf(pending, count * 2);
+					}
+
+					pending[count++] = child;
+				}
+			}
+		}
+
+		return chosen;
+	}
+
+	/**
+	 * Removes and returns the variable with the smallest domain.
+	 *
+	 * @return The variable with the smallest domain, or <tt>null</tt> if the heap is empty.
+	 */
+	public Variable<?> poll() {
+		if (size == 0) {
+			return null;
+		}
+
+		Variable<?> variable = heap[0];
+		positions[variable.getId()] = -1;
+
+		size--;
+		if (size > 0) {
+			heap[0] = heap[size];
+			positions[heap[0].getId()] = 0;
+			siftDown(0);
+		}
+
+		heap[size] = null;
+		return variable;
+	}
+
+	/**
+	 * Removes a variable from the heap. Variables which are not in the heap are ignored.
+	 *
+	 * @param variable The variable.
+	 */
+	public void remove(Variable<?> variable) {
+		if (!contains(variable)) {
+			return;
+		}
+
+		int position = positions[variable.getId()];
+		positions[variable.getId()] = -1;
+
+		size--;
+		if (position < size) {
+			Variable<?> last = heap[size];
+			move(last, position);
+			siftUp(position);
+			siftDown(positions[last.getId()]);
+		}
+
+		heap[size] = null;
+	}
+
+	/**
+	 * Moves a variable to its correct position after the size of its domain has changed. Variables which are not in
+	 * the heap are ignored.
+	 *
+	 * @param variable The variable.
+	 */
+	public void update(Variable<?> variable) {
+		if (!contains(variable)) {
+			return;
+		}
+
+		int position = positions[variable.getId()];
+		siftUp(position);
+		siftDown(positions[variable.getId()]);
+	}
+
+	/**
+	 * Moves the variable at <tt>position</tt> towards the root until its parent is not larger.
+	 *
+	 * @param position The position.
+	 */
+	private void siftUp(int position) {
+		Variable<?> variable = heap[position];
+
+		while (position > 0) {
+			int parent = (position - 1) / 2;
+
+			if (!less(variable, heap[parent])) {
+				break;
+			}
+
+			move(heap[parent], position);
+			position = parent;
+		}
+
+		move(variable, position);
+	}
+
+	/**
+	 * Moves the variable at <tt>position</tt> towards the leaves until neither child is smaller.
+	 *
+	 * @param position The position.
+	 */
+	private void siftDown(int position) {
+		Variable<?> variable = heap[position];
+
+		while (2 * position + 1 < size) {
+			int child = 2 * position + 1;
+
+			if (child + 1 < size && less(heap[child + 1], heap[child])) {
+				child++;
+			}
+
+			if (!less(heap[child], variable)) {
+				break;
+			}
+
+			move(heap[child], position);
+			position = child;
+		}
+
+		move(variable, position);
+	}
+
+	/**
+	 * Places a variable at a position in the heap.
+	 *
+	 * @param variable The variable.
+	 * @param position The position.
+	 */
+	private void move(Variable<?> variable, int position) {
+		heap[position] = variable;
+		positions[variable.getId()] = position;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if <tt>v1</tt> should be selected before <tt>v2</tt>, <tt>false</tt> otherwise.
+	 *
+	 * @param v1 The first variable.
+	 * @param v2 The second variable.
+	 *
+	 * @return <tt>true</tt> if <tt>v1</tt> should be selected before <tt>v2</tt>, <tt>false</tt> otherwise.
+	 */
+	private boolean less(Variable<?> v1, Variable<?> v2) {
+		int size1 = v1.getDomain().size();
+		int size2 = v2.getDomain().size();
+
+		return size1 < size2 || (size1 == size2 && v1.getId() < v2.getId());
+	}
+}
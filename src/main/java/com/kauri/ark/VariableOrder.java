@@ -0,0 +1,171 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import java.util.List;
+
+/**
+ * Built-in variable orderings. Ties are broken in favor of the earliest registered variable, or randomly if the solver
+ * breaks ties randomly (see <tt>Solver.setRandomTieBreaking</tt>).
+ *
+ * @author Eric Fritz
+ */
+public enum VariableOrder implements VariableSelector
+{
+	/**
+	 * Selects the earliest registered unselected variable.
+	 */
+	INPUT_ORDER {
+		@Override
+		public Variable<?> select(Solver solver) {
+			List<Variable<?>> variables = solver.getUnselectedVariables();
+			Variable<?> best = variables.get(0);
+
+			for (int i = 1; i < variables.size(); i++) {
+				if (variables.get(i).getId() < best.getId()) {
+					best = variables.get(i);
+				}
+			}
+
+			return best;
+		}
+	},
+
+	/**
+	 * Selects the unselected variable with the smallest domain (first-fail). This ordering is maintained incrementally
+	 * by the solver and is selected in logarithmic time.
+	 */
+	MIN_DOMAIN {
+		@Override
+		public Variable<?> select(Solver solver) {
+			return solver.getSmallestUnselected();
+		}
+	},
+
+	/**
+	 * Selects the unselected variable constrained by the largest number of active constraints.
+	 */
+	MAX_DEGREE {
+		@Override
+		public Variable<?> select(Solver solver) {
+			List<Variable<?>> variables = solver.getUnselectedVariables();
+			Variable<?> best = null;
+			int bestDegree = -1;
+			int ties = 0;
+
+			for (int i = 0; i < variables.size(); i++) {
+				Variable<?> variable = variables.get(i);
+				int degree = solver.getDegree(variable);
+
+				if (degree > bestDegree) {
+					best = variable;
+					bestDegree = degree;
+					ties = 1;
+				} else if (degree == bestDegree && solver.preferTied(variable, best, ++ties)) {
+					best = variable;
+				}
+			}
+
+			return best;
+		}
+	},
+
+	/**
+	 * Selects the unselected variable with the smallest ratio of domain size to the number of active constraints.
+	 * Variables which are not constrained by any active constraint are selected last.
+	 */
+	DOM_DEG {
+		@Override
+		public Variable<?> select(Solver solver) {
+			return selectByRatio(solver, false);
+		}
+	},
+
+	/**
+	 * Selects the unselected variable with the smallest ratio of domain size to weighted degree, where each active
+	 * constraint counts as often as it has failed, plus one (see <tt>Solver.getWeightedDegree</tt>). Variables which
+	 * are not constrained by any active constraint are selected last.
+	 */
+	DOM_WDEG {
+		@Override
+		public Variable<?> select(Solver solver) {
+			return selectByRatio(solver, true);
+		}
+	};
+
+	/**
+	 * Returns the unselected variable with the smallest ratio of domain size to (weighted) degree.
+	 *
+	 * @param solver   The solver.
+	 * @param weighted Whether constraints are counted by their failure weight.
+	 *
+	 * @return The selected variable.
+	 */
+	static Variable<?> selectByRatio(Solver solver, boolean weighted) {
+		List<Variable<?>> variables = solver.getUnselectedVariables();
+		Variable<?> best = null;
+		long bestSize = 0;
+		long bestDegree = 0;
+		int ties = 0;
+
+		for (int i = 0; i < variables.size(); i++) {
+			Variable<?> variable = variables.get(i);
+			long size = variable.getDomain().size();
+			long degree = weighted ? solver.getWeightedDegree(variable) : solver.getDegree(variable);
+			int comparison = best == null ? -1 : compareRatio(size, degree, bestSize, bestDegree);
+
+			if (comparison < 0) {
+				best = variable;
+				bestSize = size;
+				bestDegree = degree;
+				ties = 1;
+			} else if (comparison == 0 && solver.preferTied(variable, best, ++ties)) {
+				best = variable;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * Compares the ratio <tt>size1 / degree1</tt> to <tt>size2 / degree2</tt>, where a degree of zero is an infinite
+	 * ratio. Two infinite ratios are ordered by size.
+	 *
+	 * @param size1   The domain size of the first variable.
+	 * @param degree1 The degree of the first variable.
+	 * @param size2   The domain size of the second variable.
+	 * @param degree2 The degree of the second variable.
+	 *
+	 * @return A negative number, zero, or a positive number if the first ratio is smaller, equal, or larger.
+	 */
+	static int compareRatio(long size1, long degree1, long size2, long degree2) {
+		if (degree1 == 0 || degree2 == 0) {
+			if (degree1 != degree2) {
+				return degree1 == 0 ? 1 : -1;
+			}
+
+			return Long.compare(size1, size2);
+		}
+
+		return Long.compare(size1 * degree2, size2 * degree1);
+	}
+}
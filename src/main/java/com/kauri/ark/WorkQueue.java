@@ -0,0 +1,47 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * A sink for work split off a running search. A search which shares work checks the queue after each decision and,
+ * when the queue is hungry, hands it the untried values of one of its choice points.
+ *
+ * @author Eric Fritz
+ */
+interface WorkQueue
+{
+	/**
+	 * Returns whether the queue wants more work.
+	 *
+	 * @return <tt>true</tt> if the queue wants more work, <tt>false</tt> otherwise.
+	 */
+	public boolean isHungry();
+
+	/**
+	 * Adds a subproblem to the queue. The subproblem is the part of the search tree reached by narrowing each variable
+	 * in turn to its value and propagating.
+	 *
+	 * @param variables The variables of the decisions leading to the subproblem.
+	 * @param values    The values of the decisions leading to the subproblem.
+	 */
+	public void share(Variable<?>[] variables, Domain<?>[] values);
+}
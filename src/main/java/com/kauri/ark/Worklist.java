@@ -0,0 +1,140 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+/**
+ * A queue of arcs which contains each arc at most once, tiered by the cost class of the arc's constraint.
+ * <p/>
+ * Each cost class has its own first-in first-out ring buffer. Polling always drains the cheapest non-empty tier, so
+ * an expensive constraint is narrowed only once every cheaper constraint has reached its fixpoint. Membership is
+ * tracked by a flag on the arc itself. Adding, polling, and checking for duplicates do not allocate once the buffers
+ * have grown to fit the network.
+ *
+ * @author Eric Fritz
+ */
+final class Worklist
+{
+	/**
+	 * The ring buffers indexed by cost class. The capacity of each buffer is always a power of two.
+	 */
+	private Arc<?>[][] buffers = new Arc<?>[Cost.values().length][16];
+
+	/**
+	 * The index of the head of each ring buffer.
+	 */
+	private int[] heads = new int[Cost.values().length];
+
+	/**
+	 * The number of arcs in each ring buffer.
+	 */
+	private int[] sizes = new int[Cost.values().length];
+
+	/**
+	 * The total number of arcs in the queue.
+	 */
+	private int size = 0;
+
+	/**
+	 * Returns <tt>true</tt> if the queue is empty, <tt>false</tt> otherwise.
+	 *
+	 * @return <tt>true</tt> if the queue is empty, <tt>false</tt> otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Adds an arc to the tail of its tier if it is not already queued.
+	 *
+	 * @param arc The arc.
+	 */
+	public void add(Arc<?> arc) {
+		if (arc.isQueued()) {
+			return;
+		}
+
+		int tier = arc.getCost().ordinal();
+
+		if (sizes[tier] == buffers[tier].length) {
+			grow(tier);
+		}
+
+		Arc<?>[] buffer = buffers[tier];
+		buffer[(heads[tier] + sizes[tier]) & (buffer.length - 1)] = arc;
+		sizes[tier]++;
+		size++;
+
+		arc.setQueued(true);
+	}
+
+	/**
+	 * Removes and returns the arc at the head of the cheapest non-empty tier.
+	 *
+	 * @return The arc at the head of the cheapest non-empty tier, or <tt>null</tt> if the queue is empty.
+	 */
+	public Arc<?> poll() {
+		if (size == 0) {
+			return null;
+		}
+
+		int tier = 0;
+		while (sizes[tier] == 0) {
+			tier++;
+		}
+
+		Arc<?>[] buffer = buffers[tier];
+		Arc<?> arc = buffer[heads[tier]];
+		buffer[heads[tier]] = null;
+		heads[tier] = (heads[tier] + 1) & (buffer.length - 1);
+		sizes[tier]--;
+		size--;
+
+		arc.setQueued(false);
+		return arc;
+	}
+
+	/**
+	 * Removes all arcs from the queue.
+	 */
+	public void clear() {
+		while (size > 0) {
+			poll();
+		}
+	}
+
+	/**
+	 * Doubles the capacity of a ring buffer, moving the queued arcs to the front of the new buffer.
+	 *
+	 * @param tier The index of the ring buffer.
+	 */
+	private void grow(int tier) {
+		Arc<?>[] buffer = buffers[tier];
+		Arc<?>[] newBuffer = new Arc<?>[buffer.length * 2];
+
+		for (int i = 0; i < sizes[tier]; i++) {
+			newBuffer[i] = buffer[(heads[tier] + i) & (buffer.length - 1)];
+		}
+
+		buffers[tier] = newBuffer;
+		heads[tier] = 0;
+	}
+}
@@ -92,6 +92,21 @@ public class FiniteDomain<T> implements Domain<T>, Iterable<T>
 		return size == 1;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * The bounds of a finite domain are its first and last present elements in the order of the element list.
+	 *
+	 * @param domain Another domain of the same kind.
+	 *
+	 * @return <tt>true</tt> if the domain has the same smallest and largest values as <tt>domain</tt>.
+	 */
+	@Override
+	public boolean hasSameBounds(Domain<?> domain) {
+		BitSet other = ((FiniteDomain<?>) domain).bitset;
+		return bitset.nextSetBit(0) == other.nextSetBit(0) && bitset.length() == other.length();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -113,6 +128,44 @@ public class FiniteDomain<T> implements Domain<T>, Iterable<T>
 		return new FiniteDomainIterator();
 	}
 
+	/**
+	 * Returns the position in the element list of the first element in the domain.
+	 *
+	 * @return The position of the first element, or <tt>-1</tt> if the domain is empty.
+	 */
+	public int getFirstIndex() {
+		return bitset.nextSetBit(0);
+	}
+
+	/**
+	 * Returns the position in the element list of the last element in the domain.
+	 *
+	 * @return The position of the last element, or <tt>-1</tt> if the domain is empty.
+	 */
+	public int getLastIndex() {
+		return bitset.length() - 1;
+	}
+
+	/**
+	 * Returns a new FiniteDomain constructed by retaining only the elements whose positions in the element list are
+	 * between <tt>from</tt> and <tt>to</tt>.
+	 *
+	 * @param from The inclusive position of the first element.
+	 * @param to   The inclusive position of the last element.
+	 *
+	 * @return A new FiniteDomain.
+	 */
+	public FiniteDomain<T> retainRange(int from, int to) {
+		BitSet newSet = new BitSet(bitset.size());
+
+		if (0 <= from && from <= to) {
+			newSet.set(from, to + 1);
+			newSet.and(bitset);
+		}
+
+		return new FiniteDomain<>(elements, newSet);
+	}
+
 	@Override
 	public Iterator<T> iterator() {
 		return new ValueIterator();
@@ -163,10 +216,28 @@ public class FiniteDomain<T> implements Domain<T>, Iterable<T>
 	 *
 	 * @return <tt>true</tt> if this domain currently contains <tt>element</tt>.
 	 */
+	@Override
 	public boolean contains(T element) {
 		return bitset.get(indexOf(element));
 	}
 
+	/**
+	 * Returns <tt>true</tt> if this domain and <tt>other</tt> share an element. No domain is created.
+	 *
+	 * @param other Another FiniteDomain.
+	 *
+	 * @return <tt>true</tt> if the domains share an element, <tt>false</tt> otherwise.
+	 *
+	 * @throws RuntimeException If the finite domains do not match.
+	 */
+	public boolean intersects(FiniteDomain<T> other) {
+		if (!elements.equals(other.elements)) {
+			throw new RuntimeException("Finite domains do not match.");
+		}
+
+		return bitset.intersects(other.bitset);
+	}
+
 	/**
 	 * Returns a new FiniteDomain constructed by retaining only the element <tt>element</tt>.
 	 *
@@ -176,6 +247,7 @@ public class FiniteDomain<T> implements Domain<T>, Iterable<T>
 	 *
 	 * @throws RuntimeException If the element is not part of the domain.
 	 */
+	@Override
 	public FiniteDomain<T> retain(T element) {
 		BitSet newSet = new BitSet(bitset.size());
 		newSet.set(indexOf(element));
@@ -191,6 +263,7 @@ public class FiniteDomain<T> implements Domain<T>, Iterable<T>
 	 *
 	 * @throws RuntimeException If the element is not part of the domain.
 	 */
+	@Override
 	public FiniteDomain<T> remove(T element) {
 		BitSet newSet = bitset.get(0, bitset.size());
 		newSet.clear(indexOf(element));
@@ -241,7 +314,12 @@ public class FiniteDomain<T> implements Domain<T>, Iterable<T>
 			return false;
 		}
 
-		return elements.equals(((FiniteDomain) o).elements) && bitset.equals(((FiniteDomain) o).bitset);
+		return elements.equals(((FiniteDomain<?>) o).elements) && bitset.equals(((FiniteDomain<?>) o).bitset);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * elements.hashCode() + bitset.hashCode();
 	}
 
 	@Override
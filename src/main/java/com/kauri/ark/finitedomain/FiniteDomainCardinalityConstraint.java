@@ -21,7 +21,9 @@
 
 package com.kauri.ark.finitedomain;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 import com.kauri.ark.integer.IntegerVariable;
 import com.kauri.ark.integer.Interval;
@@ -32,7 +34,7 @@ import com.kauri.ark.integer.Interval;
  *
  * @author Eric Fritz
  */
-public class FiniteDomainCardinalityConstraint<T> implements Constraint
+public class FiniteDomainCardinalityConstraint<T> implements Propagator<FiniteDomain<T>>
 {
 	/**
 	 * The target value.
@@ -56,6 +58,8 @@ public class FiniteDomainCardinalityConstraint<T> implements Constraint
 	 * @param counter   The counter variable.
 	 * @param variables The variables whose assignments are counted.
 	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
 	public FiniteDomainCardinalityConstraint(T value, IntegerVariable counter, Variable<FiniteDomain<T>>... variables) {
 		this.value = value;
 		this.counter = counter;
@@ -63,7 +67,92 @@ public class FiniteDomainCardinalityConstraint<T> implements Constraint
 	}
 
 	@Override
-	public boolean narrow(Variable variable) {
+	public Cost getCost() {
+		return Cost.GLOBAL;
+	}
+
+	@Override
+	public Event getEvent(Variable<FiniteDomain<T>> variable) {
+		// The counter is only compared by its bounds, but removing the target value from any other variable changes
+		// the number of variables which can possibly be assigned the target value.
+
+		return variable.equals(counter) ? Event.BOUNDS : Event.REMOVE;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		int definite = 0;
+		int possible = 0;
+
+		for (Variable<FiniteDomain<T>> v : variables) {
+			if (v.getDomain().contains(value)) {
+				possible++;
+
+				if (v.getDomain().isUnique()) {
+					definite++;
+				}
+			}
+		}
+
+		// The constraint is satisfied by any assignment once the number of variables assigned the target value can no
+		// longer change and the counter is assigned exactly that number.
+
+		return definite == possible && counter.getDomain().isUnique() && counter.getDomain().getUniqueValue() == definite;
+	}
+
+	@Override
+	public boolean propagate() {
+		int definite = 0;
+		int possible = 0;
+
+		// Count the number of variables which can possibly be assigned the target value and the number of variables
+		// which are already assigned the target value once for the entire set of variables (see narrow).
+
+		for (Variable<FiniteDomain<T>> v : variables) {
+			if (v.getDomain().contains(value)) {
+				possible++;
+
+				if (v.getDomain().isUnique()) {
+					definite++;
+				}
+			}
+		}
+
+		if (possible < counter.getDomain().getMinimum() || definite > counter.getDomain().getMaximum()) {
+			return false;
+		}
+
+		if (!counter.trySetValue(counter.getDomain().retain(new Interval(definite, possible)))) {
+			return false;
+		}
+
+		// With the counter narrowed, either every undecided variable must take the target value, every undecided
+		// variable must not take the target value, or nothing can be inferred. Assigning or removing the target
+		// value from an undecided variable does not change the condition for the remaining variables, so the counts
+		// do not need to be recomputed inside the loop.
+
+		boolean retain = possible == counter.getDomain().getMinimum();
+		boolean remove = definite == counter.getDomain().getMaximum();
+
+		if (!retain && !remove) {
+			return true;
+		}
+
+		for (Variable<FiniteDomain<T>> v : variables) {
+			if (v.getDomain().contains(value) && !v.getDomain().isUnique()) {
+				FiniteDomain<T> domain = retain ? v.getDomain().retain(value) : v.getDomain().remove(value);
+
+				if (!v.trySetValue(domain)) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public boolean narrow(Variable<FiniteDomain<T>> variable) {
 		int definite = 0;
 		int possible = 0;
 
@@ -94,18 +183,16 @@ public class FiniteDomainCardinalityConstraint<T> implements Constraint
 		// target value must have the target value as its unique value in the first case, and every domain containing
 		// the target value must not have the target value as its unique value in the second case.
 
-		if (variable == counter) {
+		if (variable.equals(counter)) {
 			return counter.trySetValue(counter.getDomain().retain(new Interval(definite, possible)));
 		} else {
-			Variable<FiniteDomain<T>> v = variable;
-
-			if (v.getDomain().contains(value) && !v.getDomain().isUnique()) {
+			if (variable.getDomain().contains(value) && !variable.getDomain().isUnique()) {
 				if (possible == counter.getDomain().getMinimum()) {
-					return v.trySetValue(v.getDomain().retain(value));
+					return variable.trySetValue(variable.getDomain().retain(value));
 				}
 
 				if (definite == counter.getDomain().getMaximum()) {
-					return v.trySetValue(v.getDomain().remove(value));
+					return variable.trySetValue(variable.getDomain().remove(value));
 				}
 			}
 
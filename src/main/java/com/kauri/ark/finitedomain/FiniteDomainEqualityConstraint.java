@@ -21,7 +21,9 @@
 
 package com.kauri.ark.finitedomain;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 
 /**
@@ -29,7 +31,7 @@ import com.kauri.ark.Variable;
  *
  * @author Eric Fritz
  */
-public class FiniteDomainEqualityConstraint<T> implements Constraint<FiniteDomain<T>>
+public class FiniteDomainEqualityConstraint<T> implements Propagator<FiniteDomain<T>>
 {
 	/**
 	 * The first variable.
@@ -52,6 +54,26 @@ public class FiniteDomainEqualityConstraint<T> implements Constraint<FiniteDomai
 		this.var2 = var2;
 	}
 
+	@Override
+	public Cost getCost() {
+		return Cost.BINARY;
+	}
+
+	@Override
+	public Event getEvent(Variable<FiniteDomain<T>> variable) {
+		return Event.REMOVE;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		return var1.getDomain().isUnique() && var1.getDomain().equals(var2.getDomain());
+	}
+
+	@Override
+	public boolean propagate() {
+		return narrow(var1) && narrow(var2);
+	}
+
 	@Override
 	public boolean narrow(Variable<FiniteDomain<T>> variable) {
 		// Narrow the domain of the argument variable to include (at most) the elements of the other domain. Notice
@@ -21,7 +21,9 @@
 
 package com.kauri.ark.finitedomain;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 
 /**
@@ -29,7 +31,7 @@ import com.kauri.ark.Variable;
  *
  * @author Eric Fritz
  */
-public class FiniteDomainInequalityConstraint<T> implements Constraint<FiniteDomain<T>>
+public class FiniteDomainInequalityConstraint<T> implements Propagator<FiniteDomain<T>>
 {
 	/**
 	 * The first variable.
@@ -52,6 +54,28 @@ public class FiniteDomainInequalityConstraint<T> implements Constraint<FiniteDom
 		this.var2 = var2;
 	}
 
+	@Override
+	public Cost getCost() {
+		return Cost.BINARY;
+	}
+
+	@Override
+	public Event getEvent(Variable<FiniteDomain<T>> variable) {
+		return Event.INSTANTIATE;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		// The constraint is satisfied by any assignment once the two domains no longer share an element.
+
+		return !var1.getDomain().intersects(var2.getDomain());
+	}
+
+	@Override
+	public boolean propagate() {
+		return narrow(var1) && narrow(var2);
+	}
+
 	@Override
 	public boolean narrow(Variable<FiniteDomain<T>> variable) {
 		// Narrow the domain of the argument variable to remove the unique element of the other domain. If the other
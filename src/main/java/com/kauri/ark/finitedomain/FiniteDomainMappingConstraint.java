@@ -21,7 +21,9 @@
 
 package com.kauri.ark.finitedomain;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 
 /**
@@ -30,7 +32,7 @@ import com.kauri.ark.Variable;
  *
  * @author Eric Fritz
  */
-public class FiniteDomainMappingConstraint<T1, T2> implements Constraint
+public class FiniteDomainMappingConstraint<T1, T2> implements Propagator<FiniteDomain<T2>>
 {
 	/**
 	 * The variable associated with the mapping's domain.
@@ -61,19 +63,56 @@ public class FiniteDomainMappingConstraint<T1, T2> implements Constraint
 	}
 
 	@Override
-	public boolean narrow(Variable variable) {
+	public Cost getCost() {
+		return Cost.QUADRATIC;
+	}
+
+	@Override
+	public Event getEvent(Variable<FiniteDomain<T2>> variable) {
+		return Event.REMOVE;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		if (!var1.getDomain().isUnique() || !var2.getDomain().isUnique()) {
+			return false;
+		}
+
+		return mapping.getForwardMapping(var1.getDomain().getUniqueValue()).equals(var2.getDomain().getUniqueValue());
+	}
+
+	@Override
+	public boolean propagate() {
+		return narrowDomain() && narrowCodomain();
+	}
+
+	@Override
+	public boolean narrow(Variable<FiniteDomain<T2>> variable) {
 		// Narrow the domain of the argument variable to include (at most) the elements of a temporary domain
 		// constructed by including the element `vi' where the domain of the other variable contains `vj' and
 		//   1) (`vj', `vi') exists in the mapping (the forward case), or
 		//   2) (`vi', `vj') exists in the mapping (the reverse case).
 
+		return variable == var2 ? narrowCodomain() : narrowDomain();
+	}
+
+	/**
+	 * Narrows the variable associated with the mapping's domain (the reverse case).
+	 *
+	 * @return <tt>true</tt> if the variable can remain arc-consistent after narrowing, <tt>false</tt> otherwise.
+	 */
+	private boolean narrowDomain() {
 		FiniteDomain<T1> domain1 = var1.getDomain();
-		FiniteDomain<T2> domain2 = var2.getDomain();
+		return var1.trySetValue(domain1.retainAll(domain1.mapReverse(var2.getDomain(), mapping)));
+	}
 
-		if (variable == var1) {
-			return variable.trySetValue(domain1.retainAll(domain1.mapReverse(domain2, mapping)));
-		} else {
-			return variable.trySetValue(domain2.retainAll(domain2.mapForward(domain1, mapping)));
-		}
+	/**
+	 * Narrows the variable associated with the mapping's codomain (the forward case).
+	 *
+	 * @return <tt>true</tt> if the variable can remain arc-consistent after narrowing, <tt>false</tt> otherwise.
+	 */
+	private boolean narrowCodomain() {
+		FiniteDomain<T2> domain2 = var2.getDomain();
+		return var2.trySetValue(domain2.retainAll(domain2.mapForward(var1.getDomain(), mapping)));
 	}
 }
@@ -40,6 +40,8 @@ public class FiniteDomainVariable<T> extends Variable<FiniteDomain<T>>
 	 * @param solver   The solver.
 	 * @param elements The elements which form the finite domain.
 	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
 	public FiniteDomainVariable(Solver solver, T... elements) {
 		this(solver, Arrays.asList(elements));
 	}
@@ -69,12 +71,13 @@ public class FiniteDomainVariable<T> extends Variable<FiniteDomain<T>>
 	 *
 	 * @param variables The set of variables to constrain.
 	 */
+	@SafeVarargs
 	public static <T> void allSame(FiniteDomainVariable<T>... variables) {
 		for (int i = 0; i < variables.length - 1; i++) {
 			FiniteDomainVariable<T> var1 = variables[i];
 			FiniteDomainVariable<T> var2 = variables[i + 1];
 
-			variables[i].getSolver().addConstraint(new FiniteDomainEqualityConstraint(var1, var2), var1, var2);
+			variables[i].getSolver().addConstraint(new FiniteDomainEqualityConstraint<>(var1, var2), var1, var2);
 		}
 	}
 
@@ -83,13 +86,14 @@ public class FiniteDomainVariable<T> extends Variable<FiniteDomain<T>>
 	 *
 	 * @param variables The set of variables to constrain.
 	 */
+	@SafeVarargs
 	public static <T> void allDiff(FiniteDomainVariable<T>... variables) {
 		for (int i = 0; i < variables.length - 1; i++) {
 			for (int j = i + 1; j < variables.length; j++) {
 				FiniteDomainVariable<T> var1 = variables[i];
 				FiniteDomainVariable<T> var2 = variables[j];
 
-				variables[i].getSolver().addConstraint(new FiniteDomainInequalityConstraint(var1, var2), var1, var2);
+				variables[i].getSolver().addConstraint(new FiniteDomainInequalityConstraint<>(var1, var2), var1, var2);
 			}
 		}
 	}
@@ -102,6 +106,8 @@ public class FiniteDomainVariable<T> extends Variable<FiniteDomain<T>>
 	 *
 	 * @return The counter variable.
 	 */
+	@SafeVarargs
+	@SuppressWarnings({"varargs", "rawtypes", "unchecked"})
 	public static <T> IntegerVariable cardinality(T value, FiniteDomainVariable<T>... variables) {
 		IntegerVariable v = new IntegerVariable(variables[0].getSolver());
 
@@ -124,6 +130,8 @@ public class FiniteDomainVariable<T> extends Variable<FiniteDomain<T>>
 	 * @param lower     The lower bound of occurrences.
 	 * @param variables The set of variables.
 	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
 	public static <T> void atLeast(T value, int lower, FiniteDomainVariable<T>... variables) {
 		cardinality(value, variables).ge(lower);
 	}
@@ -136,6 +144,8 @@ public class FiniteDomainVariable<T> extends Variable<FiniteDomain<T>>
 	 * @param upper     The upper bound of occurrences.
 	 * @param variables The set of variables.
 	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
 	public static <T> void atMost(T value, int upper, FiniteDomainVariable<T>... variables) {
 		cardinality(value, variables).le(upper);
 	}
@@ -149,6 +159,8 @@ public class FiniteDomainVariable<T> extends Variable<FiniteDomain<T>>
 	 * @param upper     The upper bound of occurrences.
 	 * @param variables The set of variables.
 	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
 	public static <T> void between(T value, int lower, int upper, FiniteDomainVariable<T>... variables) {
 		IntegerVariable v = cardinality(value, variables);
 		v.ge(lower);
@@ -209,6 +221,7 @@ public class FiniteDomainVariable<T> extends Variable<FiniteDomain<T>>
 	 *
 	 * @return <tt>this</tt>
 	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
 	public <T2> FiniteDomainVariable<T> map(FiniteDomainVariable<T2> variable, Mapping<T, T2> mapping) {
 		getSolver().addConstraint(new FiniteDomainMappingConstraint<>(this, variable, mapping), (Variable) this, variable);
 		return this;
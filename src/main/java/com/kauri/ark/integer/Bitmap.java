@@ -0,0 +1,195 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark.integer;
+
+import java.util.Arrays;
+
+/**
+ * An immutable array of membership words.
+ * <p/>
+ * The words are stored in blocks of <tt>BLOCK</tt> words. Clearing bits copies the array of blocks and the blocks
+ * whose words change, and shares every other block with the original. Removing a single value therefore copies one
+ * block and one reference per block instead of every word. Reads never change a bitmap, so the versions of a bitmap
+ * may be read by any number of threads at once.
+ *
+ * @author Eric Fritz
+ */
+final class Bitmap
+{
+	/**
+	 * The base two logarithm of the number of words in a block.
+	 */
+	private static final int SHIFT = 3;
+
+	/**
+	 * The number of words in a block.
+	 */
+	static final int BLOCK = 1 << SHIFT;
+
+	/**
+	 * The blocks of words. Neither the array nor the blocks are modified once the bitmap is built.
+	 */
+	private final long[][] blocks;
+
+	/**
+	 * Creates a new Bitmap.
+	 *
+	 * @param words The words. The array is copied.
+	 */
+	Bitmap(long[] words) {
+		blocks = new long[(words.length + BLOCK - 1) >>> SHIFT][];
+
+		for (int i = 0; i < blocks.length; i++) {
+			blocks[i] = Arrays.copyOfRange(words, i << SHIFT, (i + 1) << SHIFT);
+		}
+	}
+
+	/**
+	 * Creates a new Bitmap from blocks of words.
+	 *
+	 * @param blocks The blocks. The array is not copied.
+	 */
+	private Bitmap(long[][] blocks) {
+		this.blocks = blocks;
+	}
+
+	/**
+	 * Returns a word of the bitmap.
+	 *
+	 * @param i The index of the word.
+	 *
+	 * @return The word.
+	 */
+	long word(int i) {
+		return blocks[i >>> SHIFT][i & (BLOCK - 1)];
+	}
+
+	/**
+	 * Returns a bitmap whose bits between <tt>from</tt> and <tt>to</tt> are cleared. This bitmap is unchanged.
+	 *
+	 * @param from The index of the first bit.
+	 * @param to   The index of the last bit.
+	 *
+	 * @return A new Bitmap, or this bitmap if no bit is set between <tt>from</tt> and <tt>to</tt>.
+	 */
+	Bitmap clear(int from, int to) {
+		long[][] newBlocks = null;
+
+		for (int i = from >>> 6; from <= to && i <= to >>> 6; i++) {
+			long word = word(i);
+			long mask = IntegerDomain.mask(i, from, to);
+
+			if ((word & mask) != 0) {
+				int block = i >>> SHIFT;
+
+				if (newBlocks == null) {
+					newBlocks = blocks.clone();
+				}
+
+				if (newBlocks[block] == blocks[block]) {
+					newBlocks[block] = blocks[block].clone();
+				}
+
+				newBlocks[block][i & (BLOCK - 1)] = word & ~mask;
+			}
+		}
+
+		return newBlocks == null ? this : new Bitmap(newBlocks);
+	}
+
+	/**
+	 * Returns the number of bits set between <tt>from</tt> and <tt>to</tt>.
+	 *
+	 * @param from The index of the first bit.
+	 * @param to   The index of the last bit.
+	 *
+	 * @return The number of bits set.
+	 */
+	int count(int from, int to) {
+		int count = 0;
+		for (int i = from >>> 6; from <= to && i <= to >>> 6; i++) {
+			count += Long.bitCount(word(i) & IntegerDomain.mask(i, from, to));
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns the index of the first bit set between <tt>from</tt> and <tt>to</tt>.
+	 *
+	 * @param from The index of the first bit.
+	 * @param to   The index of the last bit.
+	 *
+	 * @return The index of the bit, or <tt>to + 1</tt> if there is none.
+	 */
+	int nextSet(int from, int to) {
+		for (int i = from >>> 6; from <= to && i <= to >>> 6; i++) {
+			long word = word(i) & IntegerDomain.mask(i, from, to);
+
+			if (word != 0) {
+				return (i << 6) + Long.numberOfTrailingZeros(word);
+			}
+		}
+
+		return to + 1;
+	}
+
+	/**
+	 * Returns the index of the first bit clear between <tt>from</tt> and <tt>to</tt>.
+	 *
+	 * @param from The index of the first bit.
+	 * @param to   The index of the last bit.
+	 *
+	 * @return The index of the bit, or <tt>to + 1</tt> if there is none.
+	 */
+	int nextClear(int from, int to) {
+		for (int i = from >>> 6; from <= to && i <= to >>> 6; i++) {
+			long word = ~word(i) & IntegerDomain.mask(i, from, to);
+
+			if (word != 0) {
+				return (i << 6) + Long.numberOfTrailingZeros(word);
+			}
+		}
+
+		return to + 1;
+	}
+
+	/**
+	 * Returns the index of the last bit set between <tt>from</tt> and <tt>to</tt>, searching down from <tt>to</tt>.
+	 *
+	 * @param to   The index of the last bit.
+	 * @param from The index of the first bit.
+	 *
+	 * @return The index of the bit, or <tt>from - 1</tt> if there is none.
+	 */
+	int previousSet(int to, int from) {
+		for (int i = to >>> 6; from <= to && i >= from >>> 6; i--) {
+			long word = word(i) & IntegerDomain.mask(i, from, to);
+
+			if (word != 0) {
+				return (i << 6) + 63 - Long.numberOfLeadingZeros(word);
+			}
+		}
+
+		return from - 1;
+	}
+}
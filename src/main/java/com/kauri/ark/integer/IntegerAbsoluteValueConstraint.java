@@ -21,7 +21,9 @@
 
 package com.kauri.ark.integer;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 
 /**
@@ -29,7 +31,7 @@ import com.kauri.ark.Variable;
  *
  * @author Eric Fritz
  */
-public class IntegerAbsoluteValueConstraint implements Constraint<IntegerDomain>
+public class IntegerAbsoluteValueConstraint implements Propagator<IntegerDomain>
 {
 	/**
 	 * The unconstrainted variable.
@@ -52,6 +54,30 @@ public class IntegerAbsoluteValueConstraint implements Constraint<IntegerDomain>
 		this.var2 = var2;
 	}
 
+	@Override
+	public Cost getCost() {
+		return Cost.BINARY;
+	}
+
+	@Override
+	public Event getEvent(Variable<IntegerDomain> variable) {
+		return Event.REMOVE;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		if (!var1.getDomain().isUnique() || !var2.getDomain().isUnique()) {
+			return false;
+		}
+
+		return Math.abs(var1.getDomain().getUniqueValue()) == var2.getDomain().getUniqueValue();
+	}
+
+	@Override
+	public boolean propagate() {
+		return narrow(var1) && narrow(var2);
+	}
+
 	@Override
 	public boolean narrow(Variable<IntegerDomain> variable) {
 		// Narrow the domain of the argument variable to retain only consistent (valid) values.
@@ -0,0 +1,45 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark.integer;
+
+import com.kauri.ark.Constraint;
+
+/**
+ * A constraint which may declare that it stays correct when only the bounds of the domains of its variables are
+ * known. Such a constraint may still use the inner values of exact domains to narrow further.
+ * <p/>
+ * The arithmetic builders of <tt>IntegerVariable</tt> create their result variables with a bounds-only domain. The
+ * domain becomes exact again as soon as a constraint is registered on the variable which does not declare that it
+ * works on bounds.
+ *
+ * @author Eric Fritz
+ */
+public interface IntegerBoundsConstraint extends Constraint<IntegerDomain>
+{
+	/**
+	 * Returns <tt>true</tt> if this constraint stays correct, and narrows its variables nearly as well, when the
+	 * domains of its variables keep only their smallest and largest values.
+	 *
+	 * @return <tt>true</tt> if this constraint only needs the bounds of its variables.
+	 */
+	boolean isBoundsOnly();
+}
@@ -23,39 +23,100 @@ package com.kauri.ark.integer;
 
 import com.kauri.ark.Domain;
 import com.kauri.ark.DomainIterator;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Queue;
-import java.util.Stack;
 
 /**
  * An integer domain represents a finite set of integers.
+ * <p/>
+ * The domain is stored in one of two forms. In interval form it is an array of sorted, disjoint intervals packed as
+ * consecutive <tt>[lower, upper]</tt> pairs. In bitmap form it is an array of words where bit <tt>i</tt> is set if
+ * <tt>offset + i</tt> is in the domain. Operations work on the primitive array and allocate only the array of the
+ * new domain; intervals are created only when the domain is iterated as an <tt>Iterable&lt;Interval&gt;</tt>.
+ * <p/>
+ * A domain which is fragmented over a small span is built in bitmap form, so removing a value from it, testing a
+ * value and narrowing it are word operations. A domain is built in bitmap form when its span needs no more words
+ * than it has intervals, and is built in interval form again once it is a single interval.
+ * <p/>
+ * A bounds-only domain keeps only its smallest and largest values. It is stored as a single interval, and narrowing
+ * it never punches a hole: removing values inside the domain or retaining a fragmented set keeps the smallest interval
+ * which contains the exact result. Such a domain may contain values which an exact domain would have ruled out, so it
+ * is meant for intermediate variables whose constraints only reason about bounds.
+ * <p/>
+ * Domains are immutable, so a domain narrowed only at its bounds shares the array of the domain it was narrowed
+ * from: it is a window over a range of the intervals, whose first lower bound and last upper bound may be tighter
+ * than those in the array. Narrowing bounds or removing a bound value therefore costs time in proportion to the
+ * intervals cut off, and the saved domain on the trail is restored on backtrack by reference.
+ * <p/>
+ * A domain in bitmap form keeps its bits in a {@link Bitmap} of fixed-size blocks. Removing values from it copies
+ * only the blocks which change and shares the others, so a domain saved on the trail is restored by reference like
+ * any other. No operation, including reading, ever modifies a domain, so domains may be shared between threads.
  *
  * @author Eric Fritz
  */
 public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 {
 	/**
-	 * A list of disjoint intervals.
+	 * An empty array of bounds.
 	 */
-	private List<Interval> intervals = new ArrayList<>();
+	private static final int[] EMPTY = new int[0];
+
+	/**
+	 * The bounds of the disjoint intervals, as consecutive lower and upper bounds, or <tt>null</tt> if the domain is
+	 * in bitmap form. The array may be shared with other domains and is never modified.
+	 */
+	private int[] bounds;
+
+	/**
+	 * The membership bits of the domain, or <tt>null</tt> if the domain is in interval form. The bitmap may be shared
+	 * with other domains and is never modified.
+	 */
+	private Bitmap bitmap;
+
+	/**
+	 * The value of the first bit of <tt>bitmap</tt>.
+	 */
+	private int offset;
+
+	/**
+	 * The index in <tt>bounds</tt> of the lower bound of the first interval of the domain.
+	 */
+	private int start;
+
+	/**
+	 * The index in <tt>bounds</tt> after the upper bound of the last interval of the domain.
+	 */
+	private int end;
+
+	/**
+	 * The minimum value of the domain. In interval form this is the lower bound of the first interval, which may be
+	 * greater than <tt>bounds[start]</tt>.
+	 */
+	private int first;
+
+	/**
+	 * The maximum value of the domain. In interval form this is the upper bound of the last interval, which may be
+	 * less than <tt>bounds[end - 1]</tt>.
+	 */
+	private int last;
 
 	/**
 	 * The total number of unique integers in the domain.
 	 */
 	private int size;
 
+	/**
+	 * Whether the domain is bounds-only.
+	 */
+	private boolean bounded;
+
 	/**
 	 * Creates a new IntegerDomain with no values.
 	 */
 	public IntegerDomain() {
-		this(new ArrayList<Interval>());
+		this(EMPTY, 0);
 	}
 
 	/**
@@ -64,27 +125,106 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 	 * @param interval The interval.
 	 */
 	public IntegerDomain(Interval interval) {
-		this(Arrays.asList(interval));
+		this(new int[] { interval.getLower(), interval.getUpper() }, 2);
+	}
+
+	/**
+	 * Creates a new bounds-only IntegerDomain from an interval.
+	 *
+	 * @param interval The interval.
+	 *
+	 * @return A new bounds-only IntegerDomain.
+	 */
+	public static IntegerDomain boundsOnly(Interval interval) {
+		return bounded(interval.getLower(), interval.getUpper());
 	}
 
 	/**
-	 * Creates a new IntegerDomain from a list of intervals.
+	 * Creates a new IntegerDomain in interval form from packed interval bounds.
 	 * <p/>
-	 * The intervals are assumed to be sorted and disjoint.
+	 * The intervals are assumed to be sorted and disjoint. The array is not copied.
 	 *
-	 * @param intervals The list of intervals.
+	 * @param bounds The bounds of the intervals, as consecutive lower and upper bounds.
+	 * @param length The number of elements of <tt>bounds</tt> in use.
 	 */
-	private IntegerDomain(List<Interval> intervals) {
-		this.intervals = intervals;
+	private IntegerDomain(int[] bounds, int length) {
+		this.bounds = bounds;
+		this.start = 0;
+		this.end = length;
+
+		if (length > 0) {
+			first = bounds[0];
+			last = bounds[length - 1];
+		}
 
 		int size = 0;
-		for (Interval interval : intervals) {
-			size += interval.getUpper() - interval.getLower() + 1;
+		for (int i = 0; i < length; i += 2) {
+			size += bounds[i + 1] - bounds[i] + 1;
 		}
 
 		this.size = size;
 	}
 
+	/**
+	 * Creates a new IntegerDomain in interval form as a window over the packed interval bounds of another domain.
+	 *
+	 * @param bounds The bounds of the intervals, as consecutive lower and upper bounds.
+	 * @param start  The index of the lower bound of the first interval.
+	 * @param end    The index after the upper bound of the last interval.
+	 * @param first  The lower bound of the first interval.
+	 * @param last   The upper bound of the last interval.
+	 * @param size   The total number of unique integers in the window.
+	 */
+	private IntegerDomain(int[] bounds, int start, int end, int first, int last, int size) {
+		this.bounds = bounds;
+		this.start = start;
+		this.end = end;
+		this.first = first;
+		this.last = last;
+		this.size = size;
+	}
+
+	/**
+	 * Creates a new IntegerDomain in bitmap form. Bits outside of <tt>[first, last]</tt> are ignored.
+	 * <p/>
+	 * The bitmap is not copied.
+	 *
+	 * @param bitmap The membership bits.
+	 * @param offset The value of the first bit.
+	 * @param first  The minimum value of the domain, whose bit is set.
+	 * @param last   The maximum value of the domain, whose bit is set.
+	 * @param size   The number of bits set between <tt>first</tt> and <tt>last</tt>.
+	 */
+	private IntegerDomain(Bitmap bitmap, int offset, int first, int last, int size) {
+		this.bitmap = bitmap;
+		this.offset = offset;
+		this.first = first;
+		this.last = last;
+		this.size = size;
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this domain keeps only its smallest and largest values.
+	 *
+	 * @return <tt>true</tt> if this domain is bounds-only.
+	 */
+	public boolean isBoundsOnly() {
+		return bounded;
+	}
+
+	/**
+	 * Returns a domain with the same values as this domain which keeps every value through later narrowing.
+	 *
+	 * @return This domain, or a new IntegerDomain if this domain is bounds-only.
+	 */
+	public IntegerDomain exact() {
+		if (!bounded) {
+			return this;
+		}
+
+		return new IntegerDomain(bounds, start, end, first, last, size);
+	}
+
 	@Override
 	public int size() {
 		return size;
@@ -100,6 +240,17 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 		return size == 1;
 	}
 
+	@Override
+	public boolean hasSameBounds(Domain<?> domain) {
+		IntegerDomain other = (IntegerDomain) domain;
+
+		if (isEmpty() || other.isEmpty()) {
+			return isEmpty() && other.isEmpty();
+		}
+
+		return getMinimum() == other.getMinimum() && getMaximum() == other.getMaximum();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 *
@@ -121,9 +272,40 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 		return new IntegerDomainIterator();
 	}
 
+	/**
+	 * Returns an iterator over the intervals of the domain. The intervals are created as they are reached.
+	 *
+	 * @return An iterator over the intervals of the domain.
+	 */
 	@Override
 	public Iterator<Interval> iterator() {
-		return intervals.iterator();
+		final IntegerDomain domain = intervals();
+
+		return new Iterator<Interval>()
+		{
+			private int index = domain.start;
+
+			@Override
+			public boolean hasNext() {
+				return index < domain.end;
+			}
+
+			@Override
+			public Interval next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+
+				Interval interval = new Interval(domain.lowerAt(index), domain.upperAt(index));
+				index += 2;
+				return interval;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
 	}
 
 	/**
@@ -134,15 +316,131 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 	 * @return <tt>true</tt> if this domain contains <tt>value</tt>.
 	 */
 	public boolean contains(int value) {
-		for (Interval i : this) {
-			if (i.contains(value)) {
+		if (size == 0 || value < first || value > last) {
+			return false;
+		}
+
+		if (bitmap != null) {
+			return (bitmap.word((value - offset) >>> 6) & (1L << (value - offset))) != 0;
+		}
+
+		int low = 0;
+		int high = (end - start) / 2 - 1;
+
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int i = start + 2 * middle;
+
+			if (value < lowerAt(i)) {
+				high = middle - 1;
+			} else if (value > upperAt(i)) {
+				low = middle + 1;
+			} else {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean contains(Integer value) {
+		return contains(value.intValue());
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this domain and <tt>other</tt> share a value. The bounds are compared first; otherwise
+	 * the intervals of both domains are walked together, and the walk stops at the first shared value. No domain is
+	 * created.
+	 *
+	 * @param other Another IntegerDomain.
+	 *
+	 * @return <tt>true</tt> if the domains share a value, <tt>false</tt> otherwise.
+	 */
+	public boolean intersects(IntegerDomain other) {
+		int lower = Math.max(first, other.first);
+		int upper = Math.min(last, other.last);
+
+		if (size == 0 || other.size == 0 || lower > upper) {
+			return false;
+		}
+
+		if (bitmap == null && other.bitmap == null) {
+			int i = start;
+			int j = other.start;
+
+			while (i < end && j < other.end) {
+				if (upperAt(i) < other.lowerAt(j)) {
+					i += 2;
+				} else if (other.upperAt(j) < lowerAt(i)) {
+					j += 2;
+				} else {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		// Walk the runs of the domain in bitmap form, looking each one up in the other domain.
+
+		IntegerDomain walked = bitmap != null ? this : other;
+		IntegerDomain probed = walked == this ? other : this;
+
+		int from = lower - walked.offset;
+		int to = upper - walked.offset;
+
+		for (int low = walked.bitmap.nextSet(from, to); low <= to; ) {
+			int high = walked.bitmap.nextClear(low, to) - 1;
+
+			if (probed.containsAny(walked.offset + low, walked.offset + high)) {
 				return true;
 			}
+
+			low = walked.bitmap.nextSet(high + 1, to);
 		}
 
 		return false;
 	}
 
+	/**
+	 * Returns <tt>true</tt> if this domain contains a value between <tt>lower</tt> and <tt>upper</tt>.
+	 *
+	 * @param lower The inclusive lower bound.
+	 * @param upper The inclusive upper bound.
+	 *
+	 * @return <tt>true</tt> if this domain contains a value between the bounds.
+	 */
+	private boolean containsAny(int lower, int upper) {
+		lower = Math.max(lower, first);
+		upper = Math.min(upper, last);
+
+		if (size == 0 || lower > upper) {
+			return false;
+		}
+
+		if (bitmap != null) {
+			return bitmap.nextSet(lower - offset, upper - offset) <= upper - offset;
+		}
+
+		// Find the first interval which ends at or after the lower bound.
+
+		int low = 0;
+		int high = (end - start) / 2 - 1;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+
+			if (upperAt(start + 2 * middle) < lower) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+
+		return lowerAt(start + 2 * low) <= upper;
+	}
+
 	/**
 	 * Returns a new IntegerDomain constructed by the union of this domain and <tt>other</tt>.
 	 *
@@ -151,7 +449,32 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 	 * @return A new IntegerDomain.
 	 */
 	public IntegerDomain concat(IntegerDomain other) {
-		return concat(other.intervals);
+		if (bounded) {
+			if (isEmpty()) {
+				return other;
+			}
+
+			return other.isEmpty() ? this : bounded(Math.min(first, other.first), Math.max(last, other.last));
+		}
+
+		if (bitmap != null || other.bitmap != null) {
+			return intervals().concat(other.intervals());
+		}
+
+		int[] newBounds = new int[end - start + other.end - other.start];
+		int newLength = 0;
+
+		for (int i = start, j = other.start; i < end || j < other.end; ) {
+			if (j == other.end || (i < end && lowerAt(i) <= other.lowerAt(j))) {
+				newLength = append(newBounds, newLength, lowerAt(i), upperAt(i));
+				i += 2;
+			} else {
+				newLength = append(newBounds, newLength, other.lowerAt(j), other.upperAt(j));
+				j += 2;
+			}
+		}
+
+		return create(newBounds, newLength);
 	}
 
 	/**
@@ -162,39 +485,42 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 	 * @return A new IntegerDomain.
 	 */
 	public IntegerDomain concat(List<Interval> otherIntervals) {
-		List<Interval> newIntervals = new ArrayList<>();
-		newIntervals.addAll(intervals);
-		newIntervals.addAll(otherIntervals);
-
-		Collections.sort(newIntervals, new Comparator<Interval>()
-		{
-			@Override
-			public int compare(Interval o1, Interval o2) {
-				return new Integer(o1.getLower()).compareTo(o2.getLower());
+		if (bounded) {
+			IntegerDomain domain = this;
+			for (Interval interval : otherIntervals) {
+				domain = domain.concat(new IntegerDomain(interval));
 			}
-		});
 
-		Stack<Interval> stack = new Stack<>();
+			return domain;
+		}
 
-		if (newIntervals.size() > 0) {
-			stack.push(newIntervals.get(0));
+		if (bitmap != null) {
+			return intervals().concat(otherIntervals);
+		}
 
-			for (int i = 0; i < newIntervals.size(); i++) {
-				Interval top = stack.peek();
-				Interval now = newIntervals.get(i);
+		long[] keys = new long[otherIntervals.size()];
 
-				if (now.getLower() > top.getUpper()) {
-					stack.push(now);
-				} else {
-					if (now.getUpper() > top.getUpper()) {
-						stack.pop();
-						stack.push(new Interval(top.getLower(), now.getUpper()));
-					}
-				}
+		int k = 0;
+		for (Interval interval : otherIntervals) {
+			keys[k++] = pack(interval.getLower(), interval.getUpper());
+		}
+
+		Arrays.sort(keys);
+
+		int[] newBounds = new int[end - start + keys.length * 2];
+		int newLength = 0;
+
+		for (int i = start, j = 0; i < end || j < keys.length; ) {
+			if (j == keys.length || (i < end && lowerAt(i) <= (int) (keys[j] >> 32))) {
+				newLength = append(newBounds, newLength, lowerAt(i), upperAt(i));
+				i += 2;
+			} else {
+				newLength = append(newBounds, newLength, (int) (keys[j] >> 32), (int) keys[j]);
+				j++;
 			}
 		}
 
-		return new IntegerDomain(stack);
+		return create(newBounds, newLength);
 	}
 
 	/**
@@ -203,13 +529,23 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 	 * @return A new IntegerDomain.
 	 */
 	public IntegerDomain negate() {
-		List<Interval> newIntervals = new ArrayList<>();
+		if (bounded) {
+			return isEmpty() ? this : bounded(-last, -first);
+		}
 
-		for (Interval interval : intervals) {
-			newIntervals.add(new Interval(-interval.getUpper(), -interval.getLower()));
+		if (bitmap != null) {
+			return intervals().negate();
 		}
 
-		return new IntegerDomain(newIntervals);
+		int length = end - start;
+		int[] newBounds = new int[length];
+
+		for (int i = start, j = length; i < end; i += 2, j -= 2) {
+			newBounds[j - 2] = -upperAt(i);
+			newBounds[j - 1] = -lowerAt(i);
+		}
+
+		return create(newBounds, length);
 	}
 
 	/**
@@ -222,17 +558,12 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 	 * @throws RuntimeException If the element is not part of the domain.
 	 */
 	public IntegerDomain retain(Interval interval) {
-		List<Interval> newIntervals = new ArrayList<>();
-
-		for (Interval interval1 : intervals) {
-			Interval intersection = interval1.intersection(interval);
-
-			if (intersection != null) {
-				newIntervals.add(intersection);
-			}
-		}
+		return retain(interval.getLower(), interval.getUpper());
+	}
 
-		return new IntegerDomain(newIntervals);
+	@Override
+	public IntegerDomain retain(Integer value) {
+		return retain(value, value);
 	}
 
 	/**
@@ -245,7 +576,12 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 	 * @throws RuntimeException If the element is not part of the domain.
 	 */
 	public IntegerDomain remove(Interval interval) {
-		return new IntegerDomain(remove(intervals, interval));
+		return remove(interval.getLower(), interval.getUpper());
+	}
+
+	@Override
+	public IntegerDomain remove(Integer value) {
+		return remove(value, value);
 	}
 
 	/**
@@ -258,19 +594,63 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 	 * @throws RuntimeException If the finite domains do not match.
 	 */
 	public IntegerDomain retainAll(IntegerDomain other) {
-		List<Interval> newIntervals = new ArrayList<>();
+		if (bounded) {
+			IntegerDomain domain = other.retain(first, last);
+			return domain.isEmpty() ? empty() : retain(domain.first, domain.last);
+		}
 
-		for (Interval interval1 : intervals) {
-			for (Interval interval2 : other.intervals) {
-				Interval intersection = interval1.intersection(interval2);
+		if (bitmap == null && other.bitmap != null) {
+			return other.retainAll(this);
+		}
 
-				if (intersection != null) {
-					newIntervals.add(intersection);
+		if (bitmap != null) {
+			if (size == 0) {
+				return this;
+			}
+
+			IntegerDomain domain = other.intervals();
+			Bitmap newBitmap = bitmap;
+			int next = first - offset;
+
+			for (int j = domain.start; j < domain.end; j += 2) {
+				int lower = Math.max(domain.lowerAt(j), first) - offset;
+				int upper = Math.min(domain.upperAt(j), last) - offset;
+
+				if (lower <= upper) {
+					newBitmap = newBitmap.clear(next, lower - 1);
+					next = upper + 1;
 				}
 			}
+
+			newBitmap = newBitmap.clear(next, last - offset);
+			return newBitmap == bitmap ? this : create(newBitmap, offset, first - offset, last - offset);
+		}
+
+		int[] newBounds = new int[Math.max(0, end - start + other.end - other.start - 2)];
+		int newLength = 0;
+
+		for (int i = start, j = other.start; i < end && j < other.end; ) {
+			int upper1 = upperAt(i);
+			int upper2 = other.upperAt(j);
+			int lower = Math.max(lowerAt(i), other.lowerAt(j));
+			int upper = Math.min(upper1, upper2);
+
+			if (lower <= upper) {
+				newBounds[newLength++] = lower;
+				newBounds[newLength++] = upper;
+			}
+
+			// Advance past whichever interval ends first; it cannot overlap any later interval of the other domain.
+			if (upper1 <= upper2) {
+				i += 2;
+			}
+
+			if (upper2 <= upper1) {
+				j += 2;
+			}
 		}
 
-		return new IntegerDomain(newIntervals);
+		return create(newBounds, newLength);
 	}
 
 	/**
@@ -283,67 +663,566 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 	 * @throws RuntimeException If the finite domains do not match.
 	 */
 	public IntegerDomain removeAll(IntegerDomain other) {
-		//
-		// TODO - can do in single pass?
-		//
+		other = other.intervals();
+
+		if (bounded) {
+			int lower = first;
+			int upper = last;
+
+			for (int j = other.start; j < other.end; j += 2) {
+				if (other.lowerAt(j) <= lower && lower <= other.upperAt(j)) {
+					lower = other.upperAt(j) + 1;
+				}
+			}
+
+			for (int j = other.end - 2; j >= other.start; j -= 2) {
+				if (other.lowerAt(j) <= upper && upper <= other.upperAt(j)) {
+					upper = other.lowerAt(j) - 1;
+				}
+			}
+
+			return retain(lower, upper);
+		}
+
+		if (bitmap != null) {
+			if (size == 0) {
+				return this;
+			}
+
+			Bitmap newBitmap = bitmap;
+
+			for (int j = other.start; j < other.end; j += 2) {
+				int lower = Math.max(other.lowerAt(j), first) - offset;
+				int upper = Math.min(other.upperAt(j), last) - offset;
+
+				newBitmap = newBitmap.clear(lower, upper);
+			}
+
+			return newBitmap == bitmap ? this : create(newBitmap, offset, first - offset, last - offset);
+		}
+
+		int[] newBounds = new int[end - start + other.end - other.start];
+		int newLength = 0;
 
-		List<Interval> newIntervals = intervals;
+		for (int i = start, j = other.start; i < end; i += 2) {
+			int lower = lowerAt(i);
+			int upper = upperAt(i);
 
-		for (Interval interval : other.intervals) {
-			newIntervals = remove(newIntervals, interval);
+			while (j < other.end && other.upperAt(j) < lower) {
+				j += 2;
+			}
+
+			// Cut each overlapping interval of the other domain out of [lower, upper]. The last one may also overlap
+			// the next interval of this domain, so j is not advanced past it.
+			for (int k = j; k < other.end && other.lowerAt(k) <= upper && lower <= upper; k += 2) {
+				if (other.lowerAt(k) > lower) {
+					newBounds[newLength++] = lower;
+					newBounds[newLength++] = other.lowerAt(k) - 1;
+				}
+
+				lower = Math.max(lower, other.upperAt(k) + 1);
+			}
+
+			if (lower <= upper) {
+				newBounds[newLength++] = lower;
+				newBounds[newLength++] = upper;
+			}
 		}
 
-		return new IntegerDomain(newIntervals);
+		return create(newBounds, newLength);
 	}
 
 	/**
 	 * Returns the minimum value in this domain.
 	 *
 	 * @return The minimum value in this domain.
+	 *
+	 * @throws RuntimeException If the domain is empty.
 	 */
 	public int getMinimum() {
-		return intervals.get(0).getLower();
+		if (size == 0) {
+			throw new RuntimeException("Domain is empty.");
+		}
+
+		return first;
 	}
 
 	/**
 	 * Returns the maximum value in this domain.
 	 *
 	 * @return The maximum value in this domain.
+	 *
+	 * @throws RuntimeException If the domain is empty.
 	 */
 	public int getMaximum() {
-		return intervals.get(intervals.size() - 1).getUpper();
+		if (size == 0) {
+			throw new RuntimeException("Domain is empty.");
+		}
+
+		return last;
 	}
 
+	/**
+	 * Returns <tt>true</tt> if <tt>o</tt> is an IntegerDomain with the same values as this domain, whatever the form
+	 * of either domain.
+	 *
+	 * @param o The object.
+	 *
+	 * @return <tt>true</tt> if <tt>o</tt> is an IntegerDomain with the same values.
+	 */
 	@Override
 	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+
 		if (o == null || !(o instanceof IntegerDomain)) {
 			return false;
 		}
 
-		return intervals.equals(((IntegerDomain) o).intervals);
+		IntegerDomain other = (IntegerDomain) o;
+
+		if (size != other.size || (size != 0 && (first != other.first || last != other.last))) {
+			return false;
+		}
+
+		IntegerDomain domain1 = intervals();
+		IntegerDomain domain2 = other.intervals();
+
+		int common = 0;
+		for (int i = domain1.start, j = domain2.start; i < domain1.end && j < domain2.end; ) {
+			int upper1 = domain1.upperAt(i);
+			int upper2 = domain2.upperAt(j);
+			int lower = Math.max(domain1.lowerAt(i), domain2.lowerAt(j));
+			int upper = Math.min(upper1, upper2);
+
+			if (lower <= upper) {
+				common += upper - lower + 1;
+			}
+
+			if (upper1 <= upper2) {
+				i += 2;
+			}
+
+			if (upper2 <= upper1) {
+				j += 2;
+			}
+		}
+
+		return common == size;
+	}
+
+	@Override
+	public int hashCode() {
+		return size == 0 ? 0 : 31 * (31 * size + first) + last;
 	}
 
 	@Override
 	public String toString() {
-		return intervals.toString();
+		IntegerDomain domain = intervals();
+		StringBuilder builder = new StringBuilder("[");
+
+		for (int i = domain.start; i < domain.end; i += 2) {
+			if (i > domain.start) {
+				builder.append(", ");
+			}
+
+			builder.append(String.format("[%d, %d]", domain.lowerAt(i), domain.upperAt(i)));
+		}
+
+		return builder.append("]").toString();
+	}
+
+	/**
+	 * Returns the lower bound of the interval whose lower bound is at index <tt>i</tt> of <tt>bounds</tt>.
+	 *
+	 * @param i The index of the interval's lower bound.
+	 *
+	 * @return The lower bound of the interval.
+	 */
+	private int lowerAt(int i) {
+		return i == start ? first : bounds[i];
+	}
+
+	/**
+	 * Returns the upper bound of the interval whose lower bound is at index <tt>i</tt> of <tt>bounds</tt>.
+	 *
+	 * @param i The index of the interval's lower bound.
+	 *
+	 * @return The upper bound of the interval.
+	 */
+	private int upperAt(int i) {
+		return i == end - 2 ? last : bounds[i + 1];
+	}
+
+	/**
+	 * Returns this domain in interval form. A domain in bitmap form is converted by scanning its runs of set bits.
+	 *
+	 * @return This domain, or a new IntegerDomain in interval form.
+	 */
+	private IntegerDomain intervals() {
+		if (bitmap == null) {
+			return this;
+		}
+
+		int from = first - offset;
+		int to = last - offset;
+
+		int length = 0;
+		int[] newBounds = new int[8];
+
+		for (int lower = from; lower <= to; lower = bitmap.nextSet(lower, to)) {
+			int upper = bitmap.nextClear(lower, to) - 1;
+
+			if (length == newBounds.length) {
+				newBounds = Arrays.copyOf(newBounds, length * 2);
+			}
+
+			newBounds[length++] = offset + lower;
+			newBounds[length++] = offset + upper;
+			lower = upper + 1;
+		}
+
+		return new IntegerDomain(newBounds, length);
+	}
+
+	/**
+	 * Returns a new IntegerDomain constructed by retaining only the values between <tt>lower</tt> and <tt>upper</tt>.
+	 * The new domain shares the array of this domain.
+	 *
+	 * @param lower The inclusive lower bound.
+	 * @param upper The inclusive upper bound.
+	 *
+	 * @return A new IntegerDomain, or this domain if no value is removed.
+	 */
+	private IntegerDomain retain(int lower, int upper) {
+		if (size == 0 || (lower <= first && last <= upper)) {
+			return this;
+		}
+
+		if (bitmap != null) {
+			int from = bitmap.nextSet(Math.max(lower, first) - offset, Math.min(upper, last) - offset);
+			int to = Math.min(upper, last) - offset;
+
+			if (from > to) {
+				return new IntegerDomain();
+			}
+
+			to = bitmap.previousSet(to, from);
+
+			int removed = bitmap.count(first - offset, from - 1) + bitmap.count(to + 1, last - offset);
+			return create(bitmap, offset, from, to, size - removed);
+		}
+
+		int newStart = start;
+		int removed = 0;
+
+		while (newStart < end && upperAt(newStart) < lower) {
+			removed += upperAt(newStart) - lowerAt(newStart) + 1;
+			newStart += 2;
+		}
+
+		int newEnd = end;
+
+		while (newEnd > newStart && lowerAt(newEnd - 2) > upper) {
+			removed += upperAt(newEnd - 2) - lowerAt(newEnd - 2) + 1;
+			newEnd -= 2;
+		}
+
+		if (newStart == newEnd) {
+			return empty();
+		}
+
+		int newFirst = Math.max(lowerAt(newStart), lower);
+		int newLast = Math.min(upperAt(newEnd - 2), upper);
+
+		if (newStart == newEnd - 2) {
+			if (newFirst > newLast) {
+				return empty();
+			}
+
+			int newSize = newLast - newFirst + 1;
+
+			IntegerDomain domain = new IntegerDomain(bounds, newStart, newEnd, newFirst, newLast, newSize);
+			domain.bounded = bounded;
+			return domain;
+		}
+
+		removed += newFirst - lowerAt(newStart);
+		removed += upperAt(newEnd - 2) - newLast;
+
+		return new IntegerDomain(bounds, newStart, newEnd, newFirst, newLast, size - removed);
+	}
+
+	/**
+	 * Returns a new IntegerDomain constructed by removing the values between <tt>lower</tt> and <tt>upper</tt>. If only
+	 * values at the ends of the domain are removed, the new domain shares the array of this domain.
+	 *
+	 * @param lower The inclusive lower bound.
+	 * @param upper The inclusive upper bound.
+	 *
+	 * @return A new IntegerDomain, or this domain if no value is removed.
+	 */
+	private IntegerDomain remove(int lower, int upper) {
+		if (size == 0 || upper < first || last < lower) {
+			return this;
+		}
+
+		if (lower <= first) {
+			return upper >= last ? empty() : retain(upper + 1, last);
+		}
+
+		if (upper >= last) {
+			return retain(first, lower - 1);
+		}
+
+		if (bounded) {
+			return this;
+		}
+
+		if (bitmap != null) {
+			int removed = bitmap.count(lower - offset, upper - offset);
+
+			if (removed == 0) {
+				return this;
+			}
+
+			return new IntegerDomain(bitmap.clear(lower - offset, upper - offset), offset, first, last, size - removed);
+		}
+
+		int[] newBounds = new int[end - start + 2];
+		int newLength = 0;
+
+		for (int i = start; i < end; i += 2) {
+			int l = lowerAt(i);
+			int h = upperAt(i);
+
+			if (h < lower || upper < l) {
+				newBounds[newLength++] = l;
+				newBounds[newLength++] = h;
+			} else {
+				if (l <= lower - 1) {
+					newBounds[newLength++] = l;
+					newBounds[newLength++] = lower - 1;
+				}
+
+				if (upper + 1 <= h) {
+					newBounds[newLength++] = upper + 1;
+					newBounds[newLength++] = h;
+				}
+			}
+		}
+
+		return create(newBounds, newLength);
+	}
+
+	/**
+	 * Returns a new bounds-only IntegerDomain holding the values between <tt>lower</tt> and <tt>upper</tt>.
+	 *
+	 * @param lower The inclusive lower bound.
+	 * @param upper The inclusive upper bound.
+	 *
+	 * @return A new IntegerDomain, which is empty if <tt>lower</tt> is greater than <tt>upper</tt>.
+	 */
+	private static IntegerDomain bounded(int lower, int upper) {
+		IntegerDomain domain = lower > upper ? new IntegerDomain() : new IntegerDomain(new int[] { lower, upper }, 2);
+		domain.bounded = true;
+		return domain;
+	}
+
+	/**
+	 * Returns a new empty IntegerDomain, which is bounds-only if this domain is.
+	 *
+	 * @return A new empty IntegerDomain.
+	 */
+	private IntegerDomain empty() {
+		IntegerDomain domain = new IntegerDomain();
+		domain.bounded = bounded;
+		return domain;
+	}
+
+	/**
+	 * Returns a new IntegerDomain from packed interval bounds, in bitmap form if the span of the intervals needs no
+	 * more words than there are intervals and in interval form otherwise.
+	 *
+	 * @param bounds The bounds of the intervals, as consecutive lower and upper bounds.
+	 * @param length The number of elements of <tt>bounds</tt> in use.
+	 *
+	 * @return A new IntegerDomain.
+	 */
+	private static IntegerDomain create(int[] bounds, int length) {
+		if (length < 4 || (long) bounds[length - 1] - bounds[0] >= 32L * length) {
+			return new IntegerDomain(bounds, length);
+		}
+
+		int offset = bounds[0];
+		long[] newWords = new long[((bounds[length - 1] - offset) >>> 6) + 1];
+
+		int size = 0;
+		for (int i = 0; i < length; i += 2) {
+			set(newWords, bounds[i] - offset, bounds[i + 1] - offset);
+			size += bounds[i + 1] - bounds[i] + 1;
+		}
+
+		return new IntegerDomain(new Bitmap(newWords), offset, bounds[0], bounds[length - 1], size);
+	}
+
+	/**
+	 * Returns a new IntegerDomain from the set bits between <tt>from</tt> and <tt>to</tt>, in interval form if the
+	 * set bits form a single run and in bitmap form otherwise.
+	 *
+	 * @param bitmap The membership bits.
+	 * @param offset The value of the first bit.
+	 * @param from   The index of the first bit to consider.
+	 * @param to     The index of the last bit to consider.
+	 *
+	 * @return A new IntegerDomain.
+	 */
+	private static IntegerDomain create(Bitmap bitmap, int offset, int from, int to) {
+		from = bitmap.nextSet(from, to);
+
+		if (from > to) {
+			return new IntegerDomain();
+		}
+
+		to = bitmap.previousSet(to, from);
+		return create(bitmap, offset, from, to, bitmap.count(from, to));
+	}
+
+	/**
+	 * Returns a new IntegerDomain from the set bits between <tt>from</tt> and <tt>to</tt>, which are both set, in
+	 * interval form if the set bits form a single run and in bitmap form otherwise.
+	 *
+	 * @param bitmap The membership bits.
+	 * @param offset The value of the first bit.
+	 * @param from   The index of the first set bit.
+	 * @param to     The index of the last set bit.
+	 * @param size   The number of set bits between <tt>from</tt> and <tt>to</tt>.
+	 *
+	 * @return A new IntegerDomain.
+	 */
+	private static IntegerDomain create(Bitmap bitmap, int offset, int from, int to, int size) {
+		if (size == to - from + 1) {
+			return new IntegerDomain(new int[] { offset + from, offset + to }, 2);
+		}
+
+		return new IntegerDomain(bitmap, offset, offset + from, offset + to, size);
+	}
+
+	/**
+	 * Returns a mask of the bits of word <tt>index</tt> which lie between bit <tt>from</tt> and bit <tt>to</tt>.
+	 *
+	 * @param index The index of the word.
+	 * @param from  The index of the first bit.
+	 * @param to    The index of the last bit.
+	 *
+	 * @return The mask.
+	 */
+	static long mask(int index, int from, int to) {
+		long mask = -1L;
+
+		if (index == from >>> 6) {
+			mask &= -1L << from;
+		}
+
+		if (index == to >>> 6) {
+			mask &= -1L >>> (63 - (to & 63));
+		}
+
+		return mask;
+	}
+
+	/**
+	 * Sets the bits between <tt>from</tt> and <tt>to</tt>.
+	 *
+	 * @param words The bits.
+	 * @param from  The index of the first bit.
+	 * @param to    The index of the last bit.
+	 */
+	private static void set(long[] words, int from, int to) {
+		for (int i = from >>> 6; from <= to && i <= to >>> 6; i++) {
+			words[i] |= mask(i, from, to);
+		}
+	}
+
+	/**
+	 * Packs an interval into a key which orders intervals by their lower bound.
+	 *
+	 * @param lower The inclusive lower bound.
+	 * @param upper The inclusive upper bound.
+	 *
+	 * @return The key.
+	 */
+	private static long pack(int lower, int upper) {
+		return ((long) lower << 32) | (upper & 0xFFFFFFFFL);
 	}
 
-	//
-	// TODO - document
-	//
+	/**
+	 * Appends an interval to sorted packed intervals, merging it into the last interval if they overlap. Intervals
+	 * must be appended in order of their lower bound.
+	 *
+	 * @param bounds The packed intervals.
+	 * @param length The number of elements of <tt>bounds</tt> in use.
+	 * @param lower  The inclusive lower bound.
+	 * @param upper  The inclusive upper bound.
+	 *
+	 * @return The number of elements of <tt>bounds</tt> in use.
+	 */
+	private static int append(int[] bounds, int length, int lower, int upper) {
+		if (length == 0 || lower > bounds[length - 1]) {
+			bounds[length++] = lower;
+			bounds[length++] = upper;
+		} else if (upper > bounds[length - 1]) {
+			bounds[length - 1] = upper;
+		}
+
+		return length;
+	}
 
+	/**
+	 * An iterator which first offers each interval of the domain, then bisects each interval which was consistent
+	 * with the network. Pending intervals are kept as packed bounds in a first-in first-out queue.
+	 */
 	private class IntegerDomainIterator implements DomainIterator<Integer>
 	{
-		private Queue<Interval> candidates;
-		private Interval last;
+		/**
+		 * The bounds of the pending intervals, from <tt>head</tt> to <tt>tail</tt>.
+		 */
+		private int[] candidates;
+
+		/**
+		 * The index of the first pending bound.
+		 */
+		private int head = 0;
+
+		/**
+		 * The index after the last pending bound.
+		 */
+		private int tail = 0;
+
+		/**
+		 * The lower bound of the last interval returned.
+		 */
+		private int lastLower;
+
+		/**
+		 * The upper bound of the last interval returned.
+		 */
+		private int lastUpper;
 
 		public IntegerDomainIterator() {
-			candidates = new LinkedList<>(intervals);
+			IntegerDomain domain = intervals();
+			candidates = new int[Math.max(domain.end - domain.start, 4)];
+
+			for (int i = domain.start; i < domain.end; i += 2) {
+				candidates[tail++] = domain.lowerAt(i);
+				candidates[tail++] = domain.upperAt(i);
+			}
 		}
 
 		@Override
 		public boolean hasNext() {
-			return !candidates.isEmpty();
+			return head < tail;
 		}
 
 		@Override
@@ -352,8 +1231,9 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 				throw new NoSuchElementException();
 			}
 
-			last = candidates.poll();
-			return new IntegerDomain(last);
+			lastLower = candidates[head++];
+			lastUpper = candidates[head++];
+			return bounded ? bounded(lastLower, lastUpper) : new IntegerDomain(new int[] { lastLower, lastUpper }, 2);
 		}
 
 		@Override
@@ -363,14 +1243,14 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 
 		@Override
 		public void lastDomainValid() {
-			int center = last.getLower() + (last.getUpper() - last.getLower()) / 2;
+			int center = lastLower + (lastUpper - lastLower) / 2;
 
-			int lower1 = last.getLower();
+			int lower1 = lastLower;
 			int upper1;
 			int lower2;
-			int upper2 = last.getUpper();
+			int upper2 = lastUpper;
 
-			if (center == last.getUpper()) {
+			if (center == lastUpper) {
 				upper1 = center - 1;
 				lower2 = center;
 			} else {
@@ -378,37 +1258,34 @@ public class IntegerDomain implements Domain<Integer>, Iterable<Interval>
 				lower2 = center + 1;
 			}
 
-			if (lower1 <= upper1 && (lower1 != last.getLower() || upper1 != last.getUpper())) {
-				candidates.add(new Interval(lower1, upper1));
+			if (lower1 <= upper1 && (lower1 != lastLower || upper1 != lastUpper)) {
+				add(lower1, upper1);
 			}
 
-			if (lower2 <= upper2 && (lower2 != last.getLower() || upper2 != last.getUpper())) {
-				candidates.add(new Interval(lower2, upper2));
+			if (lower2 <= upper2 && (lower2 != lastLower || upper2 != lastUpper)) {
+				add(lower2, upper2);
 			}
 		}
-	}
-
-	private List<Interval> remove(List<Interval> intervals, Interval interval) {
-		List<Interval> newIntervals = new ArrayList<>();
 
-		for (int i = 0; i < intervals.size(); i++) {
-			Interval i1 = intervals.get(i);
-			Interval i2 = interval;
-
-			if (i1.getUpper() < i2.getLower() || i2.getUpper() < i1.getLower()) {
-				newIntervals.add(i1);
-			} else {
-				int l1 = i1.getLower();
-				int h1 = i2.getLower() - 1;
-
-				int l2 = i2.getUpper() + 1;
-				int h2 = i1.getUpper();
-
-				if (l1 <= h1) newIntervals.add(new Interval(l1, h1));
-				if (l2 <= h2) newIntervals.add(new Interval(l2, h2));
+		/**
+		 * Adds an interval to the end of the queue, compacting or growing the queue when it is full.
+		 *
+		 * @param lower The inclusive lower bound.
+		 * @param upper The inclusive upper bound.
+		 */
+		private void add(int lower, int upper) {
+			if (tail + 2 > candidates.length) {
+				int pending = tail - head;
+				int[] target = pending + 2 > candidates.length / 2 ? new int[candidates.length * 2] : candidates;
+
+				System.arraycopy(candidates, head, target, 0, pending);
+				candidates = target;
+				head = 0;
+				tail = pending;
 			}
-		}
 
-		return newIntervals;
+			candidates[tail++] = lower;
+			candidates[tail++] = upper;
+		}
 	}
 }
@@ -21,7 +21,9 @@
 
 package com.kauri.ark.integer;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 
 /**
@@ -29,7 +31,7 @@ import com.kauri.ark.Variable;
  *
  * @author Eric Fritz
  */
-public class IntegerEqualityConstraint implements Constraint<IntegerDomain>
+public class IntegerEqualityConstraint implements Propagator<IntegerDomain>
 {
 	/**
 	 * The first variable.
@@ -52,6 +54,26 @@ public class IntegerEqualityConstraint implements Constraint<IntegerDomain>
 		this.var2 = var2;
 	}
 
+	@Override
+	public Cost getCost() {
+		return Cost.BINARY;
+	}
+
+	@Override
+	public Event getEvent(Variable<IntegerDomain> variable) {
+		return Event.REMOVE;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		return var1.getDomain().isUnique() && var1.getDomain().equals(var2.getDomain());
+	}
+
+	@Override
+	public boolean propagate() {
+		return narrow(var1) && narrow(var2);
+	}
+
 	@Override
 	public boolean narrow(Variable<IntegerDomain> variable) {
 		// Narrow the domain of the argument variable to include (at most) the elements of the other domain. Notice
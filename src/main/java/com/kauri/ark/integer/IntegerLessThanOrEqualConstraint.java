@@ -21,7 +21,9 @@
 
 package com.kauri.ark.integer;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 
 /**
@@ -29,7 +31,7 @@ import com.kauri.ark.Variable;
  *
  * @author Eric Fritz
  */
-public class IntegerLessThanOrEqualConstraint implements Constraint<IntegerDomain>
+public class IntegerLessThanOrEqualConstraint implements Propagator<IntegerDomain>, IntegerBoundsConstraint
 {
 	/**
 	 * The smaller variable.
@@ -52,6 +54,33 @@ public class IntegerLessThanOrEqualConstraint implements Constraint<IntegerDomai
 		this.var2 = var2;
 	}
 
+	@Override
+	public Cost getCost() {
+		return Cost.BINARY;
+	}
+
+	@Override
+	public Event getEvent(Variable<IntegerDomain> variable) {
+		return Event.BOUNDS;
+	}
+
+	@Override
+	public boolean isBoundsOnly() {
+		return true;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		// The constraint is satisfied by any assignment once the domains no longer overlap (except at a single point).
+
+		return var1.getDomain().getMaximum() <= var2.getDomain().getMinimum();
+	}
+
+	@Override
+	public boolean propagate() {
+		return narrow(var1) && narrow(var2);
+	}
+
 	@Override
 	public boolean narrow(Variable<IntegerDomain> variable) {
 		// Narrow the domain of the argument variable to retain only consistent (valid) values:
@@ -21,7 +21,9 @@
 
 package com.kauri.ark.integer;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 
 /**
@@ -29,7 +31,7 @@ import com.kauri.ark.Variable;
  *
  * @author Eric Fritz
  */
-public class IntegerMaxConstraint implements Constraint<IntegerDomain>
+public class IntegerMaxConstraint implements Propagator<IntegerDomain>, IntegerBoundsConstraint
 {
 	/**
 	 * The maximum variable.
@@ -47,11 +49,73 @@ public class IntegerMaxConstraint implements Constraint<IntegerDomain>
 	 * @param max       The maximum variable.
 	 * @param variables The variables whose maximum value constrains <tt>max</tt>.
 	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
 	public IntegerMaxConstraint(Variable<IntegerDomain> max, Variable<IntegerDomain>... variables) {
 		this.max = max;
 		this.variables = variables;
 	}
 
+	@Override
+	public Cost getCost() {
+		return Cost.LINEAR;
+	}
+
+	@Override
+	public Event getEvent(Variable<IntegerDomain> variable) {
+		return Event.BOUNDS;
+	}
+
+	@Override
+	public boolean isBoundsOnly() {
+		return true;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		// The constraint is satisfied by any assignment once max is assigned and no variable can be assigned a larger
+		// value, and at least one variable is assigned max's value.
+
+		if (!max.getDomain().isUnique()) {
+			return false;
+		}
+
+		boolean attained = false;
+
+		for (Variable<IntegerDomain> v : variables) {
+			if (v.getDomain().getMaximum() > max.getDomain().getMaximum()) {
+				return false;
+			}
+
+			if (v.getDomain().isUnique() && v.getDomain().equals(max.getDomain())) {
+				attained = true;
+			}
+		}
+
+		return attained;
+	}
+
+	@Override
+	public boolean propagate() {
+		// Narrow the max variable first, then bound every other variable by its (possibly narrowed) upper bound
+		// in a single pass. Narrowing the max variable depends only on the other variables' bounds, so it does not
+		// need to be recomputed for each of them.
+
+		if (!narrow(max)) {
+			return false;
+		}
+
+		int upper = max.getDomain().getMaximum();
+
+		for (Variable<IntegerDomain> v : variables) {
+			if (!v.trySetValue(v.getDomain().retain(new Interval(Interval.MIN_VALUE, upper)))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 	@Override
 	public boolean narrow(Variable<IntegerDomain> variable) {
 		// If we are updating the max variable, cap it between the minimum lower bound and the maximum upper bound
@@ -21,7 +21,9 @@
 
 package com.kauri.ark.integer;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 
 /**
@@ -29,7 +31,7 @@ import com.kauri.ark.Variable;
  *
  * @author Eric Fritz
  */
-public class IntegerMinConstraint implements Constraint<IntegerDomain>
+public class IntegerMinConstraint implements Propagator<IntegerDomain>, IntegerBoundsConstraint
 {
 	/**
 	 * The minimum variable.
@@ -47,11 +49,73 @@ public class IntegerMinConstraint implements Constraint<IntegerDomain>
 	 * @param min       The minimum variable.
 	 * @param variables The variables whose minimum value constrains <tt>min</tt>.
 	 */
+	@SafeVarargs
+	@SuppressWarnings("varargs")
 	public IntegerMinConstraint(Variable<IntegerDomain> min, Variable<IntegerDomain>... variables) {
 		this.min = min;
 		this.variables = variables;
 	}
 
+	@Override
+	public Cost getCost() {
+		return Cost.LINEAR;
+	}
+
+	@Override
+	public Event getEvent(Variable<IntegerDomain> variable) {
+		return Event.BOUNDS;
+	}
+
+	@Override
+	public boolean isBoundsOnly() {
+		return true;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		// The constraint is satisfied by any assignment once min is assigned and no variable can be assigned a smaller
+		// value, and at least one variable is assigned min's value.
+
+		if (!min.getDomain().isUnique()) {
+			return false;
+		}
+
+		boolean attained = false;
+
+		for (Variable<IntegerDomain> v : variables) {
+			if (v.getDomain().getMinimum() < min.getDomain().getMinimum()) {
+				return false;
+			}
+
+			if (v.getDomain().isUnique() && v.getDomain().equals(min.getDomain())) {
+				attained = true;
+			}
+		}
+
+		return attained;
+	}
+
+	@Override
+	public boolean propagate() {
+		// Narrow the min variable first, then bound every other variable by its (possibly narrowed) lower bound
+		// in a single pass. Narrowing the min variable depends only on the other variables' bounds, so it does not
+		// need to be recomputed for each of them.
+
+		if (!narrow(min)) {
+			return false;
+		}
+
+		int lower = min.getDomain().getMinimum();
+
+		for (Variable<IntegerDomain> v : variables) {
+			if (!v.trySetValue(v.getDomain().retain(new Interval(lower, Interval.MAX_VALUE)))) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
 	@Override
 	public boolean narrow(Variable<IntegerDomain> variable) {
 		// If we are updating the min variable, cap it between the minimum lower bound and the maximum upper bound
@@ -21,7 +21,9 @@
 
 package com.kauri.ark.integer;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,7 +33,7 @@ import java.util.List;
  *
  * @author Eric Fritz
  */
-public class IntegerProductConstraint implements Constraint<IntegerDomain>
+public class IntegerProductConstraint implements Propagator<IntegerDomain>, IntegerBoundsConstraint
 {
 	/**
 	 * The multiplicand variable.
@@ -61,6 +63,37 @@ public class IntegerProductConstraint implements Constraint<IntegerDomain>
 		this.c = c;
 	}
 
+	@Override
+	public Cost getCost() {
+		return Cost.QUADRATIC;
+	}
+
+	@Override
+	public Event getEvent(Variable<IntegerDomain> variable) {
+		// The intervals of exact domains are used to narrow, so a hole in an operand may narrow the other variables.
+		// A bounds-only domain never loses an inner value, so its variables are still only woken by bounds changes.
+		return Event.REMOVE;
+	}
+
+	@Override
+	public boolean isBoundsOnly() {
+		return true;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		if (!a.getDomain().isUnique() || !b.getDomain().isUnique() || !c.getDomain().isUnique()) {
+			return false;
+		}
+
+		return a.getDomain().getUniqueValue() * b.getDomain().getUniqueValue() == c.getDomain().getUniqueValue();
+	}
+
+	@Override
+	public boolean propagate() {
+		return narrow(a) && narrow(b) && narrow(c);
+	}
+
 	@Override
 	public boolean narrow(Variable<IntegerDomain> variable) {
 		// Narrow the domain of the argument variable to include (at most) the intervals satisfying:
@@ -21,7 +21,9 @@
 
 package com.kauri.ark.integer;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 import java.util.ArrayList;
 import java.util.List;
@@ -32,7 +34,7 @@ import java.util.List;
  *
  * @author Eric Fritz
  */
-public class IntegerSignConstraint implements Constraint<IntegerDomain>
+public class IntegerSignConstraint implements Propagator<IntegerDomain>
 {
 	/**
 	 * The unconstrained variable.
@@ -55,6 +57,30 @@ public class IntegerSignConstraint implements Constraint<IntegerDomain>
 		this.var2 = var2;
 	}
 
+	@Override
+	public Cost getCost() {
+		return Cost.BINARY;
+	}
+
+	@Override
+	public Event getEvent(Variable<IntegerDomain> variable) {
+		return Event.REMOVE;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		if (!var1.getDomain().isUnique() || !var2.getDomain().isUnique()) {
+			return false;
+		}
+
+		return Integer.signum(var1.getDomain().getUniqueValue()) == var2.getDomain().getUniqueValue();
+	}
+
+	@Override
+	public boolean propagate() {
+		return narrow(var1) && narrow(var2);
+	}
+
 	@Override
 	public boolean narrow(Variable<IntegerDomain> variable) {
 		IntegerDomain domain1 = variable == var1 ? var1.getDomain() : var2.getDomain();
@@ -21,7 +21,9 @@
 
 package com.kauri.ark.integer;
 
-import com.kauri.ark.Constraint;
+import com.kauri.ark.Cost;
+import com.kauri.ark.Event;
+import com.kauri.ark.Propagator;
 import com.kauri.ark.Variable;
 import java.util.ArrayList;
 import java.util.List;
@@ -31,7 +33,7 @@ import java.util.List;
  *
  * @author Eric Fritz
  */
-public class IntegerSumConstraint implements Constraint<IntegerDomain>
+public class IntegerSumConstraint implements Propagator<IntegerDomain>, IntegerBoundsConstraint
 {
 	/**
 	 * The augend variable.
@@ -61,6 +63,40 @@ public class IntegerSumConstraint implements Constraint<IntegerDomain>
 		this.c = c;
 	}
 
+	@Override
+	public Cost getCost() {
+		// Unlike the min and max constraints, which make one pass over the bounds of their variables, narrowing adds
+		// or subtracts every pair of intervals of the two other domains.
+
+		return Cost.QUADRATIC;
+	}
+
+	@Override
+	public Event getEvent(Variable<IntegerDomain> variable) {
+		// The intervals of exact domains are used to narrow, so a hole in an operand may narrow the other variables.
+		// A bounds-only domain never loses an inner value, so its variables are still only woken by bounds changes.
+		return Event.REMOVE;
+	}
+
+	@Override
+	public boolean isBoundsOnly() {
+		return true;
+	}
+
+	@Override
+	public boolean isEntailed() {
+		if (!a.getDomain().isUnique() || !b.getDomain().isUnique() || !c.getDomain().isUnique()) {
+			return false;
+		}
+
+		return a.getDomain().getUniqueValue() + b.getDomain().getUniqueValue() == c.getDomain().getUniqueValue();
+	}
+
+	@Override
+	public boolean propagate() {
+		return narrow(a) && narrow(b) && narrow(c);
+	}
+
 	@Override
 	public boolean narrow(Variable<IntegerDomain> variable) {
 		// Narrow the domain of the argument variable to include (at most) the intervals satisfying:
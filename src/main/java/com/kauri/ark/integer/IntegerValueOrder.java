@@ -0,0 +1,296 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark.integer;
+
+import com.kauri.ark.Domain;
+import com.kauri.ark.DomainIterator;
+import com.kauri.ark.Solver;
+import com.kauri.ark.ValueSelector;
+import com.kauri.ark.Variable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Value orderings for integer variables. Variables whose domain is not an <tt>IntegerDomain</tt> are branched on in
+ * the order of their domain's own iterator.
+ * <p/>
+ * Except for <tt>BISECT</tt>, each ordering tries one value at a time and picks the next value from the values of the
+ * domain which have not been tried yet, so large domains are never enumerated up front.
+ *
+ * @author Eric Fritz
+ */
+public enum IntegerValueOrder implements ValueSelector
+{
+	/**
+	 * Tries the values in increasing order.
+	 */
+	MIN,
+
+	/**
+	 * Tries the values in decreasing order.
+	 */
+	MAX,
+
+	/**
+	 * Tries the values closest to the center of the domain's bounds first.
+	 */
+	MIDDLE,
+
+	/**
+	 * Tries the values in a random order drawn from the solver's source of randomness.
+	 */
+	RANDOM,
+
+	/**
+	 * Splits the domain into a lower and an upper half and tries the lower half first. A half which is consistent with
+	 * the network is split again until it is narrowed to a single value.
+	 */
+	BISECT;
+
+	@Override
+	public DomainIterator<?> getValues(Solver solver, Variable<?> variable) {
+		Domain<?> domain = variable.getDomain();
+
+		if (!(domain instanceof IntegerDomain)) {
+			return domain.getUniqueValues();
+		}
+
+		if (this == BISECT) {
+			return new BisectionIterator((IntegerDomain) domain);
+		}
+
+		return new ValueIterator((IntegerDomain) domain, this, solver.getRandom(), solver.isRandomTieBreaking());
+	}
+
+	/**
+	 * Iterates over the single values of a domain, choosing each value from the values not yet tried.
+	 */
+	private static class ValueIterator implements DomainIterator<Integer>
+	{
+		/**
+		 * The values which have not yet been tried.
+		 */
+		private IntegerDomain remaining;
+
+		/**
+		 * The ordering used to choose the next value.
+		 */
+		private IntegerValueOrder order;
+
+		/**
+		 * The source of randomness for the <tt>RANDOM</tt> ordering and for breaking ties.
+		 */
+		private Random random;
+
+		/**
+		 * Whether values equally close to the center are chosen randomly.
+		 */
+		private boolean randomTieBreaking;
+
+		/**
+		 * Creates a new ValueIterator.
+		 *
+		 * @param domain            The domain.
+		 * @param order             The ordering used to choose the next value.
+		 * @param random            The source of randomness for the <tt>RANDOM</tt> ordering and for breaking ties.
+		 * @param randomTieBreaking Whether values equally close to the center are chosen randomly.
+		 */
+		public ValueIterator(IntegerDomain domain, IntegerValueOrder order, Random random, boolean randomTieBreaking) {
+			// Tried values are removed one at a time, which a bounds-only domain would ignore inside its bounds.
+			this.remaining = domain.exact();
+			this.order = order;
+			this.random = random;
+			this.randomTieBreaking = randomTieBreaking;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !remaining.isEmpty();
+		}
+
+		@Override
+		public IntegerDomain next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			int value = choose();
+			remaining = remaining.remove(new Interval(value, value));
+			return new IntegerDomain(new Interval(value, value));
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void lastDomainValid() {
+			// Each returned domain is a single value.
+		}
+
+		/**
+		 * Returns the next value to try according to the ordering.
+		 *
+		 * @return A value of <tt>remaining</tt>.
+		 */
+		private int choose() {
+			switch (order) {
+				case MIN:
+					return remaining.getMinimum();
+
+				case MAX:
+					return remaining.getMaximum();
+
+				case MIDDLE:
+					return closestTo(remaining.getMinimum() + (remaining.getMaximum() - remaining.getMinimum()) / 2);
+
+				default:
+					return valueAt(random.nextInt(remaining.size()));
+			}
+		}
+
+		/**
+		 * Returns the value of <tt>remaining</tt> closest to <tt>target</tt>, preferring the smaller value on a tie
+		 * unless ties are broken randomly.
+		 *
+		 * @param target The target value.
+		 *
+		 * @return A value of <tt>remaining</tt>.
+		 */
+		private int closestTo(int target) {
+			int best = remaining.getMinimum();
+
+			for (Interval interval : remaining) {
+				if (interval.contains(target)) {
+					return target;
+				}
+
+				int candidate = interval.getUpper() < target ? interval.getUpper() : interval.getLower();
+
+				int distance = Math.abs(candidate - target);
+
+				if (distance < Math.abs(best - target)) {
+					best = candidate;
+				} else if (distance == Math.abs(best - target) && candidate != best && randomTieBreaking && random.nextBoolean()) {
+					best = candidate;
+				}
+			}
+
+			return best;
+		}
+
+		/**
+		 * Returns the value at position <tt>index</tt> of <tt>remaining</tt> in increasing order.
+		 *
+		 * @param index The index.
+		 *
+		 * @return A value of <tt>remaining</tt>.
+		 */
+		private int valueAt(int index) {
+			for (Interval interval : remaining) {
+				int length = interval.getUpper() - interval.getLower() + 1;
+
+				if (index < length) {
+					return interval.getLower() + index;
+				}
+
+				index -= length;
+			}
+
+			throw new IndexOutOfBoundsException();
+		}
+	}
+
+	/**
+	 * Iterates over a domain by recursive bisection. The halves of a domain are only produced once the domain has
+	 * been reported consistent, so inconsistent halves are pruned as a whole.
+	 */
+	private static class BisectionIterator implements DomainIterator<Integer>
+	{
+		/**
+		 * The domains which remain to be tried, the next one on top.
+		 */
+		private Deque<IntegerDomain> candidates = new ArrayDeque<>();
+
+		/**
+		 * The most recently returned domain.
+		 */
+		private IntegerDomain last;
+
+		/**
+		 * Creates a new BisectionIterator.
+		 *
+		 * @param domain The domain.
+		 */
+		public BisectionIterator(IntegerDomain domain) {
+			if (domain.isUnique()) {
+				candidates.push(domain);
+			} else {
+				split(domain);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !candidates.isEmpty();
+		}
+
+		@Override
+		public IntegerDomain next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			last = candidates.pop();
+			return last;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void lastDomainValid() {
+			if (!last.isUnique()) {
+				split(last);
+			}
+		}
+
+		/**
+		 * Pushes the upper and then the lower half of a domain with at least two values.
+		 *
+		 * @param domain The domain.
+		 */
+		private void split(IntegerDomain domain) {
+			int lower = domain.getMinimum();
+			int upper = domain.getMaximum();
+			int center = lower + (upper - lower) / 2;
+
+			candidates.push(domain.retain(new Interval(center + 1, upper)));
+			candidates.push(domain.retain(new Interval(lower, center)));
+		}
+	}
+}
@@ -21,6 +21,7 @@
 
 package com.kauri.ark.integer;
 
+import com.kauri.ark.Constraint;
 import com.kauri.ark.Solver;
 import com.kauri.ark.Variable;
 
@@ -71,6 +72,40 @@ public class IntegerVariable extends Variable<IntegerDomain>
 		super(solver, domain);
 	}
 
+	/**
+	 * Creates a new variable for the result of an arithmetic builder. The variable starts with a bounds-only domain,
+	 * which becomes exact once a constraint needing more than its bounds is registered on it.
+	 *
+	 * @param solver The solver.
+	 *
+	 * @return The result variable.
+	 */
+	private static IntegerVariable intermediate(Solver solver) {
+		Interval interval = new Interval(Interval.MIN_VALUE, Interval.MAX_VALUE);
+		return new IntegerVariable(solver, IntegerDomain.boundsOnly(interval));
+	}
+
+	/**
+	 * Replaces a bounds-only domain by an exact domain if <tt>constraint</tt> does not declare that it only reasons
+	 * about the bounds of its variables.
+	 *
+	 * @param constraint The constraint.
+	 */
+	@Override
+	protected void constrained(Constraint<IntegerDomain> constraint) {
+		if (!getDomain().isBoundsOnly()) {
+			return;
+		}
+
+		if (constraint instanceof IntegerBoundsConstraint) {
+			if (((IntegerBoundsConstraint) constraint).isBoundsOnly()) {
+				return;
+			}
+		}
+
+		setDomain(getDomain().exact());
+	}
+
 	/**
 	 * Creates a series of constraints so that each supplied variable have equivalent values.
 	 *
@@ -109,7 +144,7 @@ public class IntegerVariable extends Variable<IntegerDomain>
 	 * @return The minimum variable.
 	 */
 	public static IntegerVariable min(IntegerVariable... variables) {
-		IntegerVariable v = new IntegerVariable(variables[0].getSolver());
+		IntegerVariable v = intermediate(variables[0].getSolver());
 
 		IntegerVariable[] vars = new IntegerVariable[variables.length + 1];
 
@@ -130,7 +165,7 @@ public class IntegerVariable extends Variable<IntegerDomain>
 	 * @return The maximum variable.
 	 */
 	public static IntegerVariable max(IntegerVariable... variables) {
-		IntegerVariable v = new IntegerVariable(variables[0].getSolver());
+		IntegerVariable v = intermediate(variables[0].getSolver());
 
 		IntegerVariable[] vars = new IntegerVariable[variables.length + 1];
 
@@ -162,7 +197,7 @@ public class IntegerVariable extends Variable<IntegerDomain>
 	 * @return The sum variable.
 	 */
 	public IntegerVariable add(IntegerVariable variable) {
-		IntegerVariable v = new IntegerVariable(getSolver());
+		IntegerVariable v = intermediate(getSolver());
 		getSolver().addConstraint(new IntegerSumConstraint(this, variable, v), this, variable, v);
 		return v;
 	}
@@ -186,7 +221,7 @@ public class IntegerVariable extends Variable<IntegerDomain>
 	 * @return The difference variable.
 	 */
 	public IntegerVariable sub(IntegerVariable variable) {
-		IntegerVariable v = new IntegerVariable(getSolver());
+		IntegerVariable v = intermediate(getSolver());
 		getSolver().addConstraint(new IntegerSumConstraint(v, variable, this), v, variable, this);
 		return v;
 	}
@@ -210,7 +245,7 @@ public class IntegerVariable extends Variable<IntegerDomain>
 	 * @return The product variable.
 	 */
 	public IntegerVariable mul(IntegerVariable variable) {
-		IntegerVariable v = new IntegerVariable(getSolver());
+		IntegerVariable v = intermediate(getSolver());
 		getSolver().addConstraint(new IntegerProductConstraint(this, variable, v), this, variable, v);
 		return v;
 	}
@@ -234,7 +269,7 @@ public class IntegerVariable extends Variable<IntegerDomain>
 	 * @return The quotient variable.
 	 */
 	public IntegerVariable div(IntegerVariable variable) {
-		IntegerVariable v = new IntegerVariable(getSolver());
+		IntegerVariable v = intermediate(getSolver());
 		variable.ne(0);
 		getSolver().addConstraint(new IntegerProductConstraint(v, variable, this), v, variable, this);
 		return v;
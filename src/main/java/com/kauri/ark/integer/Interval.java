@@ -122,6 +122,11 @@ public class Interval
 		return i.lowerBound == lowerBound && i.upperBound == upperBound;
 	}
 
+	@Override
+	public int hashCode() {
+		return 31 * lowerBound + upperBound;
+	}
+
 	@Override
 	public String toString() {
 		return String.format("[%d, %d]", lowerBound, upperBound);
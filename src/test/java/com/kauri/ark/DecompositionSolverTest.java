@@ -0,0 +1,205 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the subproblems of a decomposition together hold every solution exactly once, including after a round
+ * trip through a file.
+ *
+ * @author Eric Fritz
+ */
+public class DecompositionSolverTest
+{
+	/**
+	 * The executor solving the subproblems.
+	 */
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testSolutionCount() {
+		for (int decisions = 1; decisions <= 4; decisions++) {
+			for (int n = 4; n <= 8; n++) {
+				DecompositionSolver solver = new DecompositionSolver(new Queens(n), executor);
+				solver.setDecisions(decisions);
+
+				assertEquals(Queens.SOLUTIONS[n], count(solver, solver.decompose()));
+			}
+		}
+	}
+
+	@Test
+	public void testDistinctSolutions() {
+		final Set<String> solutions = Collections.synchronizedSet(new HashSet<String>());
+		final Solver reference = new Solver();
+		new Queens(8).build(reference);
+
+		new DecompositionSolver(new Queens(8), executor).solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				StringBuilder builder = new StringBuilder();
+				Solution translated = solution.translate(reference);
+
+				for (int i = 0; i < 8; i++) {
+					builder.append(translated.get((IntegerVariable) reference.getVariables().get(i))).append(' ');
+				}
+
+				assertTrue(solutions.add(builder.toString()));
+				return true;
+			}
+		});
+
+		assertEquals(Queens.SOLUTIONS[8], solutions.size());
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		DecompositionSolver solver = new DecompositionSolver(new Queens(8), executor);
+		List<Subproblem> subproblems = solver.decompose();
+		File file = File.createTempFile("subproblems", ".txt");
+
+		try {
+			solver.write(subproblems, file);
+			List<Subproblem> read = solver.read(file);
+
+			assertEquals(subproblems.size(), read.size());
+
+			for (int i = 0; i < subproblems.size(); i++) {
+				assertTrue(Arrays.equals(subproblems.get(i).getIds(), read.get(i).getIds()));
+				assertTrue(Arrays.equals(subproblems.get(i).getValues(), read.get(i).getValues()));
+			}
+
+			assertEquals(Queens.SOLUTIONS[8], count(solver, read));
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testReadMalformed() throws IOException {
+		File file = File.createTempFile("subproblems", ".txt");
+
+		try {
+			try (FileWriter writer = new FileWriter(file)) {
+				writer.write("0:1\n");
+			}
+
+			new DecompositionSolver(new Queens(8), executor).read(file);
+		} finally {
+			assertTrue(file.delete());
+		}
+	}
+
+	@Test
+	public void testStrategyFactory() {
+		final Set<Strategy> strategies = Collections.synchronizedSet(new HashSet<Strategy>());
+
+		DecompositionSolver solver = new DecompositionSolver(new Queens(8), executor);
+		solver.setStrategyFactory(new StrategyFactory()
+		{
+			@Override
+			public Strategy create(Solver solver) {
+				ActivitySearch search = new ActivitySearch();
+				Strategy strategy = new Strategy(search, search);
+				strategies.add(strategy);
+				return strategy;
+			}
+		});
+
+		assertEquals(Queens.SOLUTIONS[8], count(solver, solver.decompose()));
+		// One strategy decomposes the model, and each copy solving subproblems has its own.
+		assertTrue(strategies.size() >= 2);
+	}
+
+	@Test
+	public void testStop() {
+		final AtomicInteger solutions = new AtomicInteger();
+
+		new DecompositionSolver(new Queens(8), executor).solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				return solutions.incrementAndGet() < 3;
+			}
+		});
+
+		assertEquals(3, solutions.get());
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testInvalidDecisions() {
+		new DecompositionSolver(new Queens(8), executor).setDecisions(0);
+	}
+
+	/**
+	 * Returns the number of solutions reported while solving a list of subproblems.
+	 *
+	 * @param solver      The decomposition solver.
+	 * @param subproblems The subproblems.
+	 *
+	 * @return The number of solutions.
+	 */
+	private static int count(DecompositionSolver solver, List<Subproblem> subproblems) {
+		final AtomicInteger solutions = new AtomicInteger();
+
+		solver.solve(subproblems, new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				solutions.incrementAndGet();
+				return true;
+			}
+		});
+
+		return solutions.get();
+	}
+}
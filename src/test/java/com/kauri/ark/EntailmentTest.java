@@ -0,0 +1,93 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that entailed constraints are deactivated during the search and reactivated when it backtracks.
+ *
+ * @author Eric Fritz
+ */
+public class EntailmentTest
+{
+	@Test
+	public void testDeactivatedUntilBacktrack() {
+		final Solver solver = new Solver();
+		final IntegerVariable x = new IntegerVariable(solver, 0, 2);
+		final IntegerVariable y = new IntegerVariable(solver, 0, 2);
+		final IntegerVariable z = new IntegerVariable(solver, 0, 2);
+
+		x.ne(y);
+		y.ne(z);
+		x.ne(z);
+
+		final int[] solutions = new int[1];
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				// Every inequality is entailed once all variables are assigned distinct values.
+				assertTrue(solver.getNeighbors(x).isEmpty());
+				assertTrue(solver.getNeighbors(y).isEmpty());
+
+				solutions[0]++;
+				return true;
+			}
+		});
+
+		assertEquals(6, solutions[0]);
+		assertEquals(2, solver.getNeighbors(x).size());
+		assertEquals(2, solver.getNeighbors(y).size());
+	}
+
+	@Test
+	public void testEntailedAtRoot() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 1);
+		IntegerVariable y = new IntegerVariable(solver, 2, 3);
+		IntegerVariable z = new IntegerVariable(solver, 0, 3);
+
+		x.ne(y);
+		x.ne(z);
+
+		final int[] solutions = new int[1];
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				solutions[0]++;
+				return true;
+			}
+		});
+
+		// The first inequality never prunes anything, and the second removes one value of z for each value of x.
+		assertEquals(2 * 2 * 3, solutions[0]);
+		assertEquals(2, solver.getNeighbors(x).size());
+	}
+}
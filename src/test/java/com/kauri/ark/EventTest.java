@@ -0,0 +1,107 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerDomain;
+import com.kauri.ark.integer.IntegerVariable;
+import com.kauri.ark.integer.Interval;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that a constraint is woken by the events it subscribes to and by every stronger event, and by no other.
+ *
+ * @author Eric Fritz
+ */
+public class EventTest
+{
+	@Test
+	public void testInstantiate() {
+		assertEquals("0 0 1", wakeups(Event.INSTANTIATE));
+	}
+
+	@Test
+	public void testBounds() {
+		assertEquals("0 1 2", wakeups(Event.BOUNDS));
+	}
+
+	@Test
+	public void testRemove() {
+		assertEquals("1 2 3", wakeups(Event.REMOVE));
+	}
+
+	/**
+	 * Removes an inner value, then a bound, then all but one value of a variable, and returns the number of times a
+	 * constraint subscribed to <tt>event</tt> has been narrowed after each step.
+	 *
+	 * @param event The event the constraint subscribes to.
+	 *
+	 * @return The number of narrowings after each step.
+	 */
+	private static String wakeups(final Event event) {
+		Solver solver = new Solver();
+		IntegerVariable variable = new IntegerVariable(solver, 0, 9);
+		final int[] count = new int[1];
+
+		solver.addConstraint(new Constraint<IntegerDomain>()
+		{
+			@Override
+			public Cost getCost() {
+				return Cost.UNARY;
+			}
+
+			@Override
+			public Event getEvent(Variable<IntegerDomain> variable) {
+				return event;
+			}
+
+			@Override
+			public boolean isEntailed() {
+				return false;
+			}
+
+			@Override
+			public boolean narrow(Variable<IntegerDomain> variable) {
+				count[0]++;
+				return true;
+			}
+		}, variable);
+
+		StringBuilder builder = new StringBuilder();
+
+		assertTrue(variable.trySetValue(variable.getDomain().remove(5)));
+		assertTrue(solver.propagate());
+		builder.append(count[0]);
+
+		assertTrue(variable.trySetValue(variable.getDomain().retain(new Interval(1, 9))));
+		assertTrue(solver.propagate());
+		builder.append(' ').append(count[0]);
+
+		assertTrue(variable.trySetValue(variable.getDomain().retain(new Interval(7, 7))));
+		assertTrue(solver.propagate());
+		builder.append(' ').append(count[0]);
+
+		return builder.toString();
+	}
+}
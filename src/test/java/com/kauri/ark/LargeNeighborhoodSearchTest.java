@@ -0,0 +1,245 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks large neighborhood search against a brute force enumeration of a small knapsack model.
+ *
+ * @author Eric Fritz
+ */
+public class LargeNeighborhoodSearchTest
+{
+	/**
+	 * The weights of the items.
+	 */
+	private static final int[] WEIGHTS = { 2, 3, 4, 5, 3, 2 };
+
+	/**
+	 * The values of the items.
+	 */
+	private static final int[] VALUES = { 3, 4, 5, 8, 4, 1 };
+
+	/**
+	 * The largest number of copies of each item.
+	 */
+	private static final int COPIES = 2;
+
+	/**
+	 * The capacity of the knapsack.
+	 */
+	private static final int CAPACITY = 12;
+
+	@Test
+	public void testMaximize() {
+		Neighborhood[] neighborhoods = {
+				new RandomNeighborhood(4), new AdjacentNeighborhood(4), new PropagationGuidedNeighborhood(4)
+		};
+
+		for (Neighborhood neighborhood : neighborhoods) {
+			assertEquals(bruteForce(true), run(neighborhood, true));
+		}
+	}
+
+	@Test
+	public void testMinimize() {
+		assertEquals(bruteForce(false), run(new RandomNeighborhood(4), false));
+	}
+
+	@Test
+	public void testIncumbent() {
+		Solver solver = new Solver();
+		solver.setSeed(42);
+		IntegerVariable[] items = new IntegerVariable[WEIGHTS.length];
+		final IntegerVariable objective = build(solver, items);
+		final Solution[] first = new Solution[1];
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				first[0] = solution;
+				return false;
+			}
+		});
+
+		LargeNeighborhoodSearch search = new LargeNeighborhoodSearch(solver, objective, true, items);
+		search.setIterations(0);
+		assertEquals(first[0], search.run(first[0], new Enumerator()));
+
+		search.setNeighborhood(new RandomNeighborhood(4));
+		search.setIterations(200);
+		Solution solution = search.run(first[0], new Enumerator());
+		assertEquals(bruteForce(true), (int) solution.get(objective));
+	}
+
+	@Test
+	public void testStopFromHandler() {
+		Solver solver = new Solver();
+		IntegerVariable[] items = new IntegerVariable[WEIGHTS.length];
+		final IntegerVariable objective = build(solver, items);
+		final int[] count = new int[1];
+
+		LargeNeighborhoodSearch search = new LargeNeighborhoodSearch(solver, objective, true, items);
+		Solution solution = search.run(null, new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				count[0]++;
+				return count[0] < 2;
+			}
+		});
+
+		assertNotNull(solution);
+		assertEquals(2, count[0]);
+	}
+
+	@Test
+	public void testNoSolution() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 3);
+		IntegerVariable y = new IntegerVariable(solver, 0, 3);
+		x.add(y).ge(7);
+
+		assertNull(new LargeNeighborhoodSearch(solver, x.sub(y), false, x, y).run(null, new Enumerator()));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testInvalidFailLimit() {
+		Solver solver = new Solver();
+		new LargeNeighborhoodSearch(solver, new IntegerVariable(solver, 0, 3), false).setFailLimit(0);
+	}
+
+	/**
+	 * Builds the knapsack model.
+	 *
+	 * @param solver The solver.
+	 * @param items  The array receiving the number of copies of each item.
+	 *
+	 * @return The total value.
+	 */
+	private static IntegerVariable build(Solver solver, IntegerVariable[] items) {
+		IntegerVariable weight = null;
+		IntegerVariable value = null;
+
+		for (int i = 0; i < items.length; i++) {
+			items[i] = new IntegerVariable(solver, 0, COPIES);
+			weight = weight == null ? items[i].mul(WEIGHTS[i]) : weight.add(items[i].mul(WEIGHTS[i]));
+			value = value == null ? items[i].mul(VALUES[i]) : value.add(items[i].mul(VALUES[i]));
+		}
+
+		weight.le(CAPACITY);
+		return value;
+	}
+
+	/**
+	 * Returns the best total value of the knapsack model by enumerating every assignment.
+	 *
+	 * @param maximize Whether the total value is maximized.
+	 *
+	 * @return The best total value.
+	 */
+	private static int bruteForce(boolean maximize) {
+		int best = maximize ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		int[] copies = new int[WEIGHTS.length];
+
+		while (true) {
+			int weight = 0;
+			int value = 0;
+
+			for (int i = 0; i < copies.length; i++) {
+				weight += copies[i] * WEIGHTS[i];
+				value += copies[i] * VALUES[i];
+			}
+
+			if (weight <= CAPACITY) {
+				best = maximize ? Math.max(best, value) : Math.min(best, value);
+			}
+
+			int i = 0;
+			while (i < copies.length && copies[i] == COPIES) {
+				copies[i++] = 0;
+			}
+
+			if (i == copies.length) {
+				return best;
+			}
+
+			copies[i]++;
+		}
+	}
+
+	/**
+	 * Optimizes the knapsack model by large neighborhood search, checking that every reported solution improves on
+	 * the one before.
+	 *
+	 * @param neighborhood The neighborhood.
+	 * @param maximize     Whether the total value is maximized.
+	 *
+	 * @return The total value of the returned solution.
+	 */
+	private static int run(Neighborhood neighborhood, final boolean maximize) {
+		Solver solver = new Solver();
+		solver.setSeed(42);
+		IntegerVariable[] items = new IntegerVariable[WEIGHTS.length];
+		final IntegerVariable objective = build(solver, items);
+		final Integer[] last = new Integer[1];
+
+		LargeNeighborhoodSearch search = new LargeNeighborhoodSearch(solver, objective, maximize, items);
+		search.setNeighborhood(neighborhood);
+		search.setIterations(200);
+
+		Solution solution = search.run(null, new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				Integer value = solution.get(objective);
+				assertTrue(last[0] == null || (maximize ? value > last[0] : value < last[0]));
+				last[0] = value;
+				return true;
+			}
+		});
+
+		assertNotNull(solution);
+		assertEquals(last[0], solution.get(objective));
+		return last[0];
+	}
+
+	/**
+	 * A solution handler which never stops the search.
+	 */
+	private static class Enumerator implements SolutionHandler
+	{
+		@Override
+		public boolean handle(Solution solution) {
+			return true;
+		}
+	}
+}
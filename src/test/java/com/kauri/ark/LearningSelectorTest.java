@@ -0,0 +1,131 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the impact-based and activity-based searches, which reorder variables and values as they learn, still
+ * find every solution exactly once.
+ *
+ * @author Eric Fritz
+ */
+public class LearningSelectorTest
+{
+	@Test
+	public void testImpactSolutionCount() {
+		for (int n = 1; n <= 9; n++) {
+			for (boolean randomTieBreaking : new boolean[] { false, true }) {
+				ImpactSearch search = new ImpactSearch();
+				assertEquals(Queens.SOLUTIONS[n], count(n, search, randomTieBreaking));
+			}
+		}
+	}
+
+	@Test
+	public void testActivitySolutionCount() {
+		for (int n = 1; n <= 9; n++) {
+			for (boolean randomTieBreaking : new boolean[] { false, true }) {
+				ActivitySearch search = new ActivitySearch();
+				assertEquals(Queens.SOLUTIONS[n], count(n, search, randomTieBreaking));
+			}
+		}
+	}
+
+	@Test
+	public void testImpactLearned() {
+		Solver solver = new Solver();
+		new Queens(8).build(solver);
+		ImpactSearch search = new ImpactSearch();
+
+		solver.solve(new Enumerator(), search, search);
+
+		double total = 0;
+
+		for (Variable<?> variable : solver.getVariables()) {
+			double impact = search.getImpact(variable);
+			assertTrue(impact >= 0 && impact <= 1);
+			total += impact;
+		}
+
+		assertTrue(total > 0);
+	}
+
+	@Test
+	public void testActivityLearned() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 1, 8);
+		IntegerVariable y = new IntegerVariable(solver, 1, 8);
+		IntegerVariable z = new IntegerVariable(solver, 5);
+		x.lt(y);
+		x.add(z).ne(y);
+		ActivitySearch search = new ActivitySearch();
+
+		solver.solve(new Enumerator(), search, search);
+		assertEquals(25, solver.getStatistics().getSolutions());
+
+		// A constant is never narrowed, so it never becomes active.
+		assertTrue(search.getActivity(x) > 0);
+		assertTrue(search.getActivity(y) > 0);
+		assertEquals(0, search.getActivity(z), 0);
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testInvalidDecay() {
+		new ActivitySearch(0);
+	}
+
+	/**
+	 * Counts the solutions of the n-queens problem with a learning selector.
+	 *
+	 * @param n                 The board size.
+	 * @param search            The learning selector.
+	 * @param randomTieBreaking Whether ties are broken randomly.
+	 *
+	 * @return The number of solutions.
+	 */
+	private static long count(int n, LearningSelector search, boolean randomTieBreaking) {
+		Solver solver = new Solver();
+		solver.setRandomTieBreaking(randomTieBreaking);
+		solver.setSeed(n);
+		new Queens(n).build(solver);
+
+		solver.solve(new Enumerator(), search, search);
+		return solver.getStatistics().getSolutions();
+	}
+
+	/**
+	 * A solution handler which never stops the search.
+	 */
+	private static class Enumerator implements SolutionHandler
+	{
+		@Override
+		public boolean handle(Solution solution) {
+			return true;
+		}
+	}
+}
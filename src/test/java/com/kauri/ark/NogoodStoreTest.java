@@ -0,0 +1,230 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerDomain;
+import com.kauri.ark.integer.IntegerVariable;
+import com.kauri.ark.integer.Interval;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the propagation of recorded nogoods through their watched decisions, the eviction of the least useful
+ * nogoods, and that searching with nogoods neither loses nor repeats solutions.
+ *
+ * @author Eric Fritz
+ */
+public class NogoodStoreTest
+{
+	@Test
+	public void testUnitPropagation() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 2);
+		IntegerVariable y = new IntegerVariable(solver, 0, 2);
+		IntegerVariable z = new IntegerVariable(solver, 0, 2);
+		NogoodStore store = store(x, y, z);
+
+		assertTrue(instantiate(solver, store, x, 0));
+		assertEquals(domain(0, 2), y.getDomain());
+		assertEquals(domain(0, 2), z.getDomain());
+
+		// With two of its decisions true, the nogood removes the value of the third.
+		assertTrue(instantiate(solver, store, y, 1));
+		assertEquals(domain(0, 1), z.getDomain());
+	}
+
+	@Test
+	public void testWatchMoves() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 2);
+		IntegerVariable y = new IntegerVariable(solver, 0, 2);
+		IntegerVariable z = new IntegerVariable(solver, 0, 2);
+		NogoodStore store = store(x, y, z);
+
+		assertTrue(instantiate(solver, store, z, 2));
+		assertEquals(domain(0, 2), x.getDomain());
+		assertEquals(domain(0, 2), y.getDomain());
+
+		assertTrue(instantiate(solver, store, x, 0));
+		assertEquals(domain(0, 2).remove(1), y.getDomain());
+	}
+
+	@Test
+	public void testViolation() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 2);
+		IntegerVariable y = new IntegerVariable(solver, 0, 2);
+		IntegerVariable z = new IntegerVariable(solver, 0, 2);
+		NogoodStore store = store(x, y, z);
+
+		x.setDomain(domain(0, 0));
+		z.setDomain(domain(2, 2));
+		assertFalse(instantiate(solver, store, y, 1));
+	}
+
+	@Test
+	public void testUnits() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 2);
+		NogoodStore store = new NogoodStore();
+		store.setCapacity(10);
+
+		store.record(new Variable<?>[] { x }, new Object[] { 1 });
+		assertEquals(1, store.size());
+
+		assertTrue(store.applyUnits(solver));
+		assertEquals(domain(0, 2).remove(1), x.getDomain());
+
+		x.setDomain(domain(1, 1));
+		assertFalse(store.applyUnits(solver));
+	}
+
+	@Test
+	public void testReduce() {
+		Solver solver = new Solver();
+		IntegerVariable[] variables = new IntegerVariable[10];
+
+		for (int i = 0; i < variables.length; i++) {
+			variables[i] = new IntegerVariable(solver, 0, 2);
+		}
+
+		NogoodStore store = new NogoodStore();
+		store.setCapacity(4);
+		store.record(new Variable<?>[] { variables[0], variables[1] }, new Object[] { 0, 0 });
+
+		// The first nogood propagates once, which makes it more useful than the ones recorded after it.
+		assertTrue(instantiate(solver, store, variables[0], 0));
+		assertEquals(domain(1, 2), variables[1].getDomain());
+		variables[0].setDomain(domain(0, 2));
+		variables[1].setDomain(domain(0, 2));
+
+		for (int i = 2; i < variables.length; i += 2) {
+			store.record(new Variable<?>[] { variables[i], variables[i + 1] }, new Object[] { 0, 0 });
+		}
+
+		// The fifth nogood exceeds the capacity; half of it is kept: the useful nogood and the most recent one.
+		assertEquals(2, store.size());
+
+		assertTrue(instantiate(solver, store, variables[0], 0));
+		assertEquals(domain(1, 2), variables[1].getDomain());
+
+		assertTrue(instantiate(solver, store, variables[2], 0));
+		assertEquals(domain(0, 2), variables[3].getDomain());
+
+		assertTrue(instantiate(solver, store, variables[8], 0));
+		assertEquals(domain(1, 2), variables[9].getDomain());
+	}
+
+	@Test
+	public void testSolutionCount() {
+		for (int n = 1; n <= 9; n++) {
+			Solver solver = new Solver();
+			solver.setNogoodCapacity(100);
+			solver.setRestartSchedule(new LubySchedule(1));
+			solver.setRandomTieBreaking(true);
+			solver.setSeed(n);
+			new Queens(n).build(solver);
+
+			assertEquals(SearchStatus.COMPLETE, solver.solve(new Enumerator(), VariableOrder.DOM_WDEG,
+					ValueOrder.DOMAIN));
+			assertEquals(Queens.SOLUTIONS[n], solver.getStatistics().getSolutions());
+		}
+	}
+
+	@Test
+	public void testUnsatisfiable() {
+		Solver solver = new Solver();
+		solver.setNogoodCapacity(100);
+		solver.setRestartSchedule(new LubySchedule(1));
+
+		IntegerVariable[] pigeons = new IntegerVariable[6];
+
+		for (int i = 0; i < pigeons.length; i++) {
+			pigeons[i] = new IntegerVariable(solver, 1, pigeons.length - 1);
+		}
+
+		IntegerVariable.allDiff(pigeons);
+
+		assertEquals(SearchStatus.COMPLETE, solver.solve(new Enumerator()));
+		assertEquals(0, solver.getStatistics().getSolutions());
+		assertTrue(solver.getStatistics().getRestarts() > 0);
+	}
+
+	/**
+	 * Creates a new store holding the nogood which forbids <tt>x = 0, y = 1, z = 2</tt>.
+	 *
+	 * @param x The first variable.
+	 * @param y The second variable.
+	 * @param z The third variable.
+	 *
+	 * @return The store.
+	 */
+	private static NogoodStore store(IntegerVariable x, IntegerVariable y, IntegerVariable z) {
+		NogoodStore store = new NogoodStore();
+		store.setCapacity(10);
+		store.record(new Variable<?>[] { x, y, z }, new Object[] { 0, 1, 2 });
+		return store;
+	}
+
+	/**
+	 * Assigns a value to a variable and propagates the nogoods watching it.
+	 *
+	 * @param solver   The solver.
+	 * @param store    The store.
+	 * @param variable The variable.
+	 * @param value    The value.
+	 *
+	 * @return <tt>false</tt> if a nogood is violated, <tt>true</tt> otherwise.
+	 */
+	private static boolean instantiate(Solver solver, NogoodStore store, IntegerVariable variable, int value) {
+		variable.setDomain(domain(value, value));
+		store.instantiated(variable);
+		return store.propagate(solver);
+	}
+
+	/**
+	 * Returns the domain of the values between <tt>lower</tt> and <tt>upper</tt>.
+	 *
+	 * @param lower The lower bound.
+	 * @param upper The upper bound.
+	 *
+	 * @return The domain.
+	 */
+	private static IntegerDomain domain(int lower, int upper) {
+		return new IntegerDomain(new Interval(lower, upper));
+	}
+
+	/**
+	 * A solution handler which never stops the search.
+	 */
+	private static class Enumerator implements SolutionHandler
+	{
+		@Override
+		public boolean handle(Solution solution) {
+			return true;
+		}
+	}
+}
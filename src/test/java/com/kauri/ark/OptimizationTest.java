@@ -0,0 +1,226 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks branch and bound against a brute force enumeration of a small model.
+ *
+ * @author Eric Fritz
+ */
+public class OptimizationTest
+{
+	/**
+	 * The largest value of each variable of the model.
+	 */
+	private static final int MAX = 5;
+
+	@Test
+	public void testMinimize() {
+		for (VariableOrder order : VariableOrder.values()) {
+			assertEquals(order.name(), bruteForce(false), optimize(false, order));
+		}
+	}
+
+	@Test
+	public void testMaximize() {
+		for (VariableOrder order : VariableOrder.values()) {
+			assertEquals(order.name(), bruteForce(true), optimize(true, order));
+		}
+	}
+
+	@Test
+	public void testStopFromHandler() {
+		Solver solver = new Solver();
+		IntegerVariable objective = build(solver);
+		final Solution[] first = new Solution[1];
+
+		Solution solution = solver.minimize(objective, new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				first[0] = solution;
+				return false;
+			}
+		});
+
+		assertNotNull(solution);
+		assertEquals(first[0].get(objective), solution.get(objective));
+	}
+
+	@Test
+	public void testNoSolution() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 3);
+		IntegerVariable y = new IntegerVariable(solver, 0, 3);
+		x.add(y).ge(7);
+
+		assertNull(solver.minimize(x.sub(y), new Enumerator()));
+	}
+
+	@Test
+	public void testSolveAfterOptimize() {
+		Solver solver = new Solver();
+		IntegerVariable objective = build(solver);
+		solver.maximize(objective, new Enumerator());
+
+		// The bound of the optimization does not outlive it.
+		solver.solve(new Enumerator());
+		assertEquals(count(), solver.getStatistics().getSolutions());
+	}
+
+	/**
+	 * Builds the model: four variables between zero and <tt>MAX</tt>, the first three pairwise different, the sum
+	 * of the first two at least four and the last different from two, with objective <tt>2a - 3b + cd</tt>.
+	 *
+	 * @param solver The solver.
+	 *
+	 * @return The objective.
+	 */
+	private static IntegerVariable build(Solver solver) {
+		IntegerVariable a = new IntegerVariable(solver, 0, MAX);
+		IntegerVariable b = new IntegerVariable(solver, 0, MAX);
+		IntegerVariable c = new IntegerVariable(solver, 0, MAX);
+		IntegerVariable d = new IntegerVariable(solver, 0, MAX);
+
+		IntegerVariable.allDiff(a, b, c);
+		a.add(b).ge(4);
+		d.ne(2);
+
+		return a.mul(2).sub(b.mul(3)).add(c.mul(d));
+	}
+
+	/**
+	 * Returns whether an assignment satisfies the model.
+	 *
+	 * @param a The first value.
+	 * @param b The second value.
+	 * @param c The third value.
+	 * @param d The fourth value.
+	 *
+	 * @return <tt>true</tt> if the assignment is a solution, <tt>false</tt> otherwise.
+	 */
+	private static boolean feasible(int a, int b, int c, int d) {
+		return a != b && a != c && b != c && a + b >= 4 && d != 2;
+	}
+
+	/**
+	 * Returns the best objective value of the model by enumerating every assignment.
+	 *
+	 * @param maximize Whether the objective is maximized.
+	 *
+	 * @return The best objective value.
+	 */
+	private static int bruteForce(boolean maximize) {
+		int best = maximize ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+
+		for (int a = 0; a <= MAX; a++) {
+			for (int b = 0; b <= MAX; b++) {
+				for (int c = 0; c <= MAX; c++) {
+					for (int d = 0; d <= MAX; d++) {
+						if (feasible(a, b, c, d)) {
+							int value = 2 * a - 3 * b + c * d;
+							best = maximize ? Math.max(best, value) : Math.min(best, value);
+						}
+					}
+				}
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * Returns the number of solutions of the model by enumerating every assignment.
+	 *
+	 * @return The number of solutions.
+	 */
+	private static int count() {
+		int count = 0;
+
+		for (int a = 0; a <= MAX; a++) {
+			for (int b = 0; b <= MAX; b++) {
+				for (int c = 0; c <= MAX; c++) {
+					for (int d = 0; d <= MAX; d++) {
+						if (feasible(a, b, c, d)) {
+							count++;
+						}
+					}
+				}
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Optimizes the model by branch and bound, checking that every reported solution improves on the one before.
+	 *
+	 * @param maximize Whether the objective is maximized.
+	 * @param order    The variable order.
+	 *
+	 * @return The objective value of the returned solution.
+	 */
+	private static int optimize(final boolean maximize, VariableOrder order) {
+		Solver solver = new Solver();
+		final IntegerVariable objective = build(solver);
+		final Integer[] last = new Integer[1];
+
+		SolutionHandler handler = new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				Integer value = solution.get(objective);
+				assertTrue(last[0] == null || (maximize ? value > last[0] : value < last[0]));
+				last[0] = value;
+				return true;
+			}
+		};
+
+		Solution solution = maximize
+				? solver.maximize(objective, handler, order, ValueOrder.DOMAIN)
+				: solver.minimize(objective, handler, order, ValueOrder.DOMAIN);
+
+		assertNotNull(solution);
+		assertEquals(last[0], solution.get(objective));
+		return last[0];
+	}
+
+	/**
+	 * A solution handler which never stops the search.
+	 */
+	private static class Enumerator implements SolutionHandler
+	{
+		@Override
+		public boolean handle(Solution solution) {
+			return true;
+		}
+	}
+}
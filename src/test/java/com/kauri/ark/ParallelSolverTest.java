@@ -0,0 +1,137 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the workers of a parallel search together report every solution exactly once.
+ *
+ * @author Eric Fritz
+ */
+public class ParallelSolverTest
+{
+	@Test
+	public void testSolutionCount() {
+		for (int threads = 1; threads <= 4; threads++) {
+			for (int n = 4; n <= 8; n++) {
+				assertEquals(Queens.SOLUTIONS[n], count(new ParallelSolver(new Queens(n), threads)));
+			}
+		}
+	}
+
+	@Test
+	public void testStrategyFactory() {
+		final Set<Strategy> strategies = Collections.synchronizedSet(new HashSet<Strategy>());
+
+		ParallelSolver solver = new ParallelSolver(new Queens(8), 4);
+		solver.setStrategyFactory(new StrategyFactory()
+		{
+			@Override
+			public Strategy create(Solver solver) {
+				ImpactSearch search = new ImpactSearch();
+				Strategy strategy = new Strategy(search, search);
+				strategies.add(strategy);
+				return strategy;
+			}
+		});
+
+		assertEquals(Queens.SOLUTIONS[8], count(solver));
+		assertEquals(4, strategies.size());
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testSharedLearningSelector() {
+		ActivitySearch search = new ActivitySearch();
+		new ParallelSolver(new Queens(8), 4).setSelectors(search, search);
+	}
+
+	@Test
+	public void testStop() {
+		final AtomicInteger solutions = new AtomicInteger();
+
+		new ParallelSolver(new Queens(8), 4).solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				return solutions.incrementAndGet() < 3;
+			}
+		});
+
+		assertEquals(3, solutions.get());
+	}
+
+	@Test
+	public void testDistinctSolutions() {
+		final Set<String> solutions = Collections.synchronizedSet(new HashSet<String>());
+		final Solver reference = new Solver();
+		new Queens(8).build(reference);
+
+		new ParallelSolver(new Queens(8), 4).solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				StringBuilder builder = new StringBuilder();
+				Solution translated = solution.translate(reference);
+
+				for (int i = 0; i < 8; i++) {
+					builder.append(translated.get((IntegerVariable) reference.getVariables().get(i))).append(' ');
+				}
+
+				assertTrue(solutions.add(builder.toString()));
+				return true;
+			}
+		});
+
+		assertEquals(Queens.SOLUTIONS[8], solutions.size());
+	}
+
+	/**
+	 * Returns the number of solutions reported by a parallel search.
+	 *
+	 * @param solver The parallel solver.
+	 *
+	 * @return The number of solutions.
+	 */
+	private static int count(ParallelSolver solver) {
+		final AtomicInteger solutions = new AtomicInteger();
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				solutions.incrementAndGet();
+				return true;
+			}
+		});
+
+		return solutions.get();
+	}
+}
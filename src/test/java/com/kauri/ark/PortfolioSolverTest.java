@@ -0,0 +1,177 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks the portfolio against a single branch and bound search, and the bound shared between its workers.
+ *
+ * @author Eric Fritz
+ */
+public class PortfolioSolverTest
+{
+	/**
+	 * A small optimization model: three distinct digits with weighted sum <tt>3x + 5y - 2z</tt>, where <tt>x + y</tt>
+	 * is at least 9 and <tt>z</tt> is at most 6.
+	 */
+	private static final Model MODEL = new Model()
+	{
+		@Override
+		public IntegerVariable build(Solver solver) {
+			IntegerVariable x = new IntegerVariable(solver, 0, 9);
+			IntegerVariable y = new IntegerVariable(solver, 0, 9);
+			IntegerVariable z = new IntegerVariable(solver, 0, 9);
+
+			IntegerVariable.allDiff(x, y, z);
+			x.add(y).ge(9);
+			z.le(6);
+
+			return x.mul(3).add(y.mul(5)).sub(z.mul(2));
+		}
+	};
+
+	@Test
+	public void testMinimize() {
+		Solution solution = portfolio().minimize();
+		assertNotNull(solution);
+		assertEquals(optimum(false), objectiveOf(solution));
+	}
+
+	@Test
+	public void testMaximize() {
+		Solution solution = portfolio().maximize();
+		assertNotNull(solution);
+		assertEquals(optimum(true), objectiveOf(solution));
+	}
+
+	@Test
+	public void testOfferedBound() {
+		int optimum = optimum(false);
+
+		// A bound offered before the search starts is kept until the search ends.
+		Solver solver = new Solver();
+		IntegerVariable objective = MODEL.build(solver);
+		solver.offerBound(optimum);
+		assertNull(solver.minimize(objective, new Collector()));
+		assertEquals(SearchStatus.COMPLETE, solver.getStatus());
+
+		solver.offerBound(optimum + 1);
+		Collector collector = new Collector();
+		assertEquals(optimum, (int) solver.minimize(objective, collector).get(objective));
+		assertEquals(1, collector.count);
+
+		// The bound was forgotten when the last search ended.
+		assertNotNull(solver.minimize(objective, new Collector()));
+	}
+
+	@Test
+	public void testForeignVariable() {
+		Solution solution = portfolio().minimize();
+		Solver solver = new Solver();
+		IntegerVariable objective = MODEL.build(solver);
+
+		try {
+			solution.get(objective);
+			fail("Read a variable of another solver.");
+		} catch (RuntimeException e) {
+			assertEquals("Variable not present in assignment.", e.getMessage());
+		}
+
+		assertEquals(optimum(false), (int) solution.translate(solver).get(objective));
+	}
+
+	/**
+	 * Creates a portfolio of the model with several strategies.
+	 *
+	 * @return The portfolio.
+	 */
+	private static PortfolioSolver portfolio() {
+		PortfolioSolver portfolio = new PortfolioSolver(MODEL);
+		portfolio.addStrategy(new Strategy(VariableOrder.MIN_DOMAIN, ValueOrder.DOMAIN));
+		portfolio.addStrategy(new Strategy(VariableOrder.DOM_WDEG, ValueOrder.DOMAIN));
+
+		ImpactSearch search = new ImpactSearch();
+		portfolio.addStrategy(new Strategy(search, search));
+		return portfolio;
+	}
+
+	/**
+	 * Returns the objective of a solution found by the portfolio.
+	 *
+	 * @param solution The solution.
+	 *
+	 * @return The objective value.
+	 */
+	private static int objectiveOf(Solution solution) {
+		Solver solver = new Solver();
+		IntegerVariable objective = MODEL.build(solver);
+		return solution.translate(solver).get(objective);
+	}
+
+	/**
+	 * Returns the optimum of the model, by enumerating every assignment.
+	 *
+	 * @param maximizing Whether the objective is maximized rather than minimized.
+	 *
+	 * @return The optimum.
+	 */
+	private static int optimum(boolean maximizing) {
+		int best = maximizing ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+
+		for (int x = 0; x <= 9; x++) {
+			for (int y = 0; y <= 9; y++) {
+				for (int z = 0; z <= 6; z++) {
+					if (x != y && y != z && x != z && x + y >= 9) {
+						int value = 3 * x + 5 * y - 2 * z;
+						best = maximizing ? Math.max(best, value) : Math.min(best, value);
+					}
+				}
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * A solution handler which counts the solutions and never stops the search.
+	 */
+	private static class Collector implements SolutionHandler
+	{
+		/**
+		 * The number of solutions.
+		 */
+		private int count;
+
+		@Override
+		public boolean handle(Solution solution) {
+			count++;
+			return true;
+		}
+	}
+}
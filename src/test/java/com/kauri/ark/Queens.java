@@ -0,0 +1,73 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+
+/**
+ * The n-queens problem: one queen per column, no two queens on the same row or diagonal. The numbers of solutions are
+ * well known, which makes it a convenient reference for every search strategy.
+ *
+ * @author Eric Fritz
+ */
+class Queens implements Model
+{
+	/**
+	 * The number of solutions for each board size, starting with the empty board.
+	 */
+	static final int[] SOLUTIONS = { 1, 1, 0, 0, 2, 10, 4, 40, 92, 352, 724 };
+
+	/**
+	 * The board size.
+	 */
+	private final int n;
+
+	/**
+	 * Creates a new Queens model.
+	 *
+	 * @param n The board size.
+	 */
+	Queens(int n) {
+		this.n = n;
+	}
+
+	@Override
+	public IntegerVariable build(Solver solver) {
+		IntegerVariable[] rows = new IntegerVariable[n];
+		IntegerVariable[] diagonals1 = new IntegerVariable[n];
+		IntegerVariable[] diagonals2 = new IntegerVariable[n];
+
+		for (int i = 0; i < n; i++) {
+			rows[i] = new IntegerVariable(solver, 1, n);
+		}
+
+		for (int i = 0; i < n; i++) {
+			diagonals1[i] = rows[i].add(i);
+			diagonals2[i] = rows[i].sub(i);
+		}
+
+		IntegerVariable.allDiff(rows);
+		IntegerVariable.allDiff(diagonals1);
+		IntegerVariable.allDiff(diagonals2);
+		return null;
+	}
+}
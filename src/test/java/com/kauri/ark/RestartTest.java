@@ -0,0 +1,144 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the restart schedules, and that restarting the search neither loses nor repeats solutions.
+ *
+ * @author Eric Fritz
+ */
+public class RestartTest
+{
+	@Test
+	public void testLubySchedule() {
+		long[] expected = { 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1, 1, 2 };
+		RestartSchedule schedule = new LubySchedule(3);
+
+		for (int run = 0; run < expected.length; run++) {
+			assertEquals(3 * expected[run], schedule.getFailureLimit(run));
+		}
+
+		assertEquals(Long.MAX_VALUE, new LubySchedule(Long.MAX_VALUE / 2).getFailureLimit(6));
+	}
+
+	@Test
+	public void testGeometricSchedule() {
+		RestartSchedule schedule = new GeometricSchedule(10, 1.5);
+
+		assertEquals(10, schedule.getFailureLimit(0));
+		assertEquals(15, schedule.getFailureLimit(1));
+		assertEquals(22, schedule.getFailureLimit(2));
+		assertEquals(33, schedule.getFailureLimit(3));
+		assertEquals(Long.MAX_VALUE, schedule.getFailureLimit(1000));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testInvalidScale() {
+		new LubySchedule(0);
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testInvalidFactor() {
+		new GeometricSchedule(10, 0.5);
+	}
+
+	@Test
+	public void testSolutionCount() {
+		RestartSchedule[] schedules = { new LubySchedule(1), new GeometricSchedule(1, 1.2) };
+
+		for (RestartSchedule schedule : schedules) {
+			for (int n = 1; n <= 9; n++) {
+				Solver solver = new Solver();
+				solver.setRestartSchedule(schedule);
+				solver.setRandomTieBreaking(true);
+				solver.setSeed(n);
+				new Queens(n).build(solver);
+
+				assertEquals(SearchStatus.COMPLETE, solver.solve(new Enumerator(), VariableOrder.DOM_WDEG,
+						ValueOrder.DOMAIN));
+				assertEquals(Queens.SOLUTIONS[n], solver.getStatistics().getSolutions());
+			}
+		}
+	}
+
+	@Test
+	public void testUnsatisfiable() {
+		Solver solver = new Solver();
+		solver.setRestartSchedule(new LubySchedule(1));
+		solver.setRandomTieBreaking(true);
+		pigeons(solver, 6);
+
+		assertEquals(SearchStatus.COMPLETE, solver.solve(new Enumerator(), VariableOrder.DOM_WDEG, ValueOrder.DOMAIN));
+		assertEquals(0, solver.getStatistics().getSolutions());
+		assertTrue(solver.getStatistics().getRestarts() > 0);
+	}
+
+	@Test
+	public void testFailureLimit() {
+		Solver solver = new Solver();
+		SearchLimits limits = new SearchLimits();
+		limits.setFailures(50);
+
+		solver.setRestartSchedule(new LubySchedule(1));
+		solver.setSearchLimits(limits);
+		pigeons(solver, 7);
+
+		// The limit counts the failures of all runs together.
+		assertEquals(SearchStatus.LIMIT_REACHED, solver.solve(new Enumerator()));
+		assertEquals(50, solver.getStatistics().getFailures());
+		assertTrue(solver.getStatistics().getRestarts() > 0);
+	}
+
+	/**
+	 * Creates the pigeonhole problem of placing <tt>n</tt> pigeons into <tt>n - 1</tt> holes, which has no solution.
+	 *
+	 * @param solver The solver.
+	 * @param n      The number of pigeons.
+	 */
+	private static void pigeons(Solver solver, int n) {
+		IntegerVariable[] pigeons = new IntegerVariable[n];
+
+		for (int i = 0; i < n; i++) {
+			pigeons[i] = new IntegerVariable(solver, 1, n - 1);
+		}
+
+		IntegerVariable.allDiff(pigeons);
+	}
+
+	/**
+	 * A solution handler which never stops the search.
+	 */
+	private static class Enumerator implements SolutionHandler
+	{
+		@Override
+		public boolean handle(Solution solution) {
+			return true;
+		}
+	}
+}
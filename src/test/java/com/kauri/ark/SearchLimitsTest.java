@@ -0,0 +1,190 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerDomain;
+import com.kauri.ark.integer.Interval;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks how searches stop: on cancellation, before or during a search, and on each of the search limits.
+ *
+ * @author Eric Fritz
+ */
+public class SearchLimitsTest
+{
+	@Test
+	public void testCancelBeforeSolve() {
+		Solver solver = queens(8);
+		Counter counter = new Counter();
+
+		solver.cancel();
+		assertEquals(SearchStatus.CANCELLED, solver.solve(counter));
+		assertEquals(0, counter.count);
+
+		// The request only applies to the search it stopped.
+		assertEquals(SearchStatus.COMPLETE, solver.solve(counter));
+		assertEquals(Queens.SOLUTIONS[8], counter.count);
+	}
+
+	@Test
+	public void testCancelFromHandler() {
+		final Solver solver = queens(8);
+		final Counter counter = new Counter();
+
+		SearchStatus status = solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				if (++counter.count == 3) {
+					solver.cancel();
+				}
+
+				return true;
+			}
+		});
+
+		assertEquals(SearchStatus.CANCELLED, status);
+		assertEquals(3, counter.count);
+	}
+
+	@Test
+	public void testCancelDuringPropagation() {
+		final Solver solver = queens(8);
+		final long[] propagations = new long[1];
+
+		@SuppressWarnings("unchecked")
+		Variable<IntegerDomain> variable = (Variable<IntegerDomain>) solver.getVariables().get(0);
+
+		solver.addConstraint(new Constraint<IntegerDomain>()
+		{
+			@Override
+			public Cost getCost() {
+				return Cost.UNARY;
+			}
+
+			@Override
+			public Event getEvent(Variable<IntegerDomain> variable) {
+				return Event.REMOVE;
+			}
+
+			@Override
+			public boolean isEntailed() {
+				return false;
+			}
+
+			@Override
+			public boolean narrow(Variable<IntegerDomain> variable) {
+				if (propagations[0] == 0 && variable.getDomain().isUnique()) {
+					propagations[0] = solver.getStatistics().getPropagations();
+					solver.cancel();
+				}
+
+				return true;
+			}
+		}, variable);
+
+		assertEquals(SearchStatus.CANCELLED, solver.solve(new Counter()));
+		// No arc is updated once the search has been cancelled.
+		assertEquals(propagations[0], solver.getStatistics().getPropagations());
+		assertEquals(new IntegerDomain(new Interval(1, 8)), variable.getDomain());
+	}
+
+	@Test
+	public void testSolutionLimit() {
+		Solver solver = queens(8);
+		Counter counter = new Counter();
+		SearchLimits limits = new SearchLimits();
+		limits.setSolutions(5);
+
+		solver.setSearchLimits(limits);
+		assertEquals(SearchStatus.LIMIT_REACHED, solver.solve(counter));
+		assertEquals(5, counter.count);
+	}
+
+	@Test
+	public void testNodeLimit() {
+		Solver solver = queens(8);
+		SearchLimits limits = new SearchLimits();
+		limits.setNodes(20);
+
+		solver.setSearchLimits(limits);
+		assertEquals(SearchStatus.LIMIT_REACHED, solver.solve(new Counter()));
+		assertEquals(20, solver.getStatistics().getNodes());
+	}
+
+	@Test
+	public void testFailureLimit() {
+		Solver solver = queens(8);
+		SearchLimits limits = new SearchLimits();
+		limits.setFailures(10);
+
+		solver.setSearchLimits(limits);
+		assertEquals(SearchStatus.LIMIT_REACHED, solver.solve(new Counter()));
+		assertEquals(10, solver.getStatistics().getFailures());
+	}
+
+	@Test
+	public void testUnreachedLimits() {
+		Solver solver = queens(8);
+		Counter counter = new Counter();
+		SearchLimits limits = new SearchLimits();
+		limits.setNodes(1000000);
+		limits.setTime(60000);
+
+		solver.setSearchLimits(limits);
+		assertEquals(SearchStatus.COMPLETE, solver.solve(counter));
+		assertEquals(Queens.SOLUTIONS[8], counter.count);
+	}
+
+	/**
+	 * Creates a new solver for the n-queens problem.
+	 *
+	 * @param n The board size.
+	 *
+	 * @return The solver.
+	 */
+	private static Solver queens(int n) {
+		Solver solver = new Solver();
+		new Queens(n).build(solver);
+		return solver;
+	}
+
+	/**
+	 * A solution handler which counts the solutions and never stops the search.
+	 */
+	private static class Counter implements SolutionHandler
+	{
+		/**
+		 * The number of solutions.
+		 */
+		private int count;
+
+		@Override
+		public boolean handle(Solution solution) {
+			count++;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerDomain;
+import com.kauri.ark.integer.IntegerVariable;
+import com.kauri.ark.integer.Interval;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the search engine, which keeps its choice points on an explicit stack, against the known numbers of
+ * solutions and on models too deep for a recursive search.
+ *
+ * @author Eric Fritz
+ */
+public class SearchTest
+{
+	@Test
+	public void testSolutionCount() {
+		for (int n = 1; n <= 10; n++) {
+			Solver solver = new Solver();
+			new Queens(n).build(solver);
+
+			assertEquals(SearchStatus.COMPLETE, solver.solve(new Counter()));
+			assertEquals(Queens.SOLUTIONS[n], solver.getStatistics().getSolutions());
+			assertTrue(solver.getStatistics().getNodes() >= solver.getStatistics().getSolutions());
+		}
+	}
+
+	@Test
+	public void testRepeatedSolve() {
+		Solver solver = new Solver();
+		new Queens(8).build(solver);
+
+		for (int i = 0; i < 3; i++) {
+			Counter counter = new Counter();
+			solver.solve(counter);
+			assertEquals(Queens.SOLUTIONS[8], counter.count);
+		}
+
+		// The search leaves the network as it found it.
+		for (Variable<?> variable : solver.getVariables().subList(0, 8)) {
+			assertEquals(new IntegerDomain(new Interval(1, 8)), variable.getDomain());
+		}
+	}
+
+	@Test
+	public void testDeepModel() {
+		final int n = 50000;
+		final Solver solver = new Solver();
+		final IntegerVariable[] variables = new IntegerVariable[n];
+
+		for (int i = 0; i < n; i++) {
+			variables[i] = new IntegerVariable(solver, 0, 1);
+		}
+
+		final int[] count = new int[1];
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				// Each solution differs from the previous one in the deepest decision only.
+				for (int i = 0; i < n - 2; i++) {
+					assertEquals(Integer.valueOf(0), solution.get(variables[i]));
+				}
+
+				assertEquals(Integer.valueOf(count[0] >> 1), solution.get(variables[n - 2]));
+				assertEquals(Integer.valueOf(count[0] & 1), solution.get(variables[n - 1]));
+				assertTrue(solver.getStatistics().getNodes() >= n);
+				return ++count[0] < 3;
+			}
+		});
+
+		assertEquals(3, count[0]);
+
+		for (IntegerVariable variable : variables) {
+			assertEquals(new IntegerDomain(new Interval(0, 1)), variable.getDomain());
+		}
+	}
+
+	/**
+	 * A solution handler which counts the solutions and never stops the search.
+	 */
+	private static class Counter implements SolutionHandler
+	{
+		/**
+		 * The number of solutions.
+		 */
+		private int count;
+
+		@Override
+		public boolean handle(Solution solution) {
+			count++;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,248 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerDomain;
+import com.kauri.ark.integer.IntegerVariable;
+import com.kauri.ark.integer.Interval;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that every variable and value order, built in or supplied by the caller, finds the same solutions.
+ *
+ * @author Eric Fritz
+ */
+public class SelectorTest
+{
+	/**
+	 * Selects the unselected variable with the smallest domain, breaking ties by the most recently registered variable.
+	 */
+	private static final VariableSelector LAST = new VariableSelector()
+	{
+		@Override
+		public Variable<?> select(Solver solver) {
+			List<Variable<?>> variables = solver.getUnselectedVariables();
+			Variable<?> best = null;
+
+			for (int i = 0; i < variables.size(); i++) {
+				Variable<?> variable = variables.get(i);
+
+				if (best == null || variable.getDomain().size() < best.getDomain().size()
+						|| variable.getDomain().size() == best.getDomain().size() && variable.getId() > best.getId()) {
+					best = variable;
+				}
+			}
+
+			return best;
+		}
+	};
+
+	/**
+	 * Tries the values of an integer variable from the largest to the smallest.
+	 */
+	private static final ValueSelector DESCENDING = new ValueSelector()
+	{
+		@Override
+		public DomainIterator<?> getValues(Solver solver, Variable<?> variable) {
+			final List<Interval> intervals = new ArrayList<>();
+
+			for (Interval interval : (IntegerDomain) variable.getDomain()) {
+				intervals.add(0, interval);
+			}
+
+			return new DomainIterator<Integer>()
+			{
+				private int index = 0;
+
+				private int value = intervals.isEmpty() ? 0 : intervals.get(0).getUpper();
+
+				@Override
+				public boolean hasNext() {
+					return index < intervals.size();
+				}
+
+				@Override
+				public Domain<Integer> next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+
+					Domain<Integer> domain = new IntegerDomain(new Interval(value, value));
+
+					if (value > intervals.get(index).getLower()) {
+						value--;
+					} else if (++index < intervals.size()) {
+						value = intervals.get(index).getUpper();
+					}
+
+					return domain;
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+
+				@Override
+				public void lastDomainValid() {
+				}
+			};
+		}
+	};
+
+	@Test
+	public void testVariableOrders() {
+		for (VariableOrder order : VariableOrder.values()) {
+			for (int n = 1; n <= 8; n++) {
+				assertEquals(order.name(), Queens.SOLUTIONS[n], solutions(n, order, ValueOrder.DOMAIN).size());
+			}
+		}
+	}
+
+	@Test
+	public void testCustomSelectors() {
+		for (int n = 4; n <= 8; n++) {
+			Set<String> expected = solutions(n, VariableOrder.INPUT_ORDER, ValueOrder.DOMAIN);
+
+			assertEquals(expected, solutions(n, LAST, ValueOrder.DOMAIN));
+			assertEquals(expected, solutions(n, VariableOrder.MIN_DOMAIN, DESCENDING));
+			assertEquals(expected, solutions(n, LAST, DESCENDING));
+		}
+	}
+
+	@Test
+	public void testDescendingValues() {
+		final List<Object> first = new ArrayList<>();
+
+		Solver solver = new Solver();
+		new Queens(8).build(solver);
+		final List<IntegerVariable> rows = rows(solver, 8);
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				for (IntegerVariable row : rows) {
+					first.add(solution.get(row));
+				}
+
+				return false;
+			}
+		}, VariableOrder.INPUT_ORDER, DESCENDING);
+
+		// The mirror image of the lexicographically first solution, 1 5 8 6 3 7 2 4.
+		assertEquals(Arrays.<Object>asList(8, 4, 1, 3, 6, 2, 7, 5), first);
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testSelectedVariable() {
+		final Solver solver = new Solver();
+		new Queens(4).build(solver);
+
+		solver.solve(new Counter(), new VariableSelector()
+		{
+			@Override
+			public Variable<?> select(Solver solver) {
+				return solver.getVariables().get(0);
+			}
+		}, ValueOrder.DOMAIN);
+	}
+
+	/**
+	 * Returns every solution of the n-queens problem, written as the rows of its queens.
+	 *
+	 * @param n                The board size.
+	 * @param variableSelector The variable selector.
+	 * @param valueSelector    The value selector.
+	 *
+	 * @return The set of solutions.
+	 */
+	private static Set<String> solutions(int n, VariableSelector variableSelector, ValueSelector valueSelector) {
+		final Set<String> solutions = new HashSet<>();
+
+		Solver solver = new Solver();
+		new Queens(n).build(solver);
+		final List<IntegerVariable> rows = rows(solver, n);
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				StringBuilder builder = new StringBuilder();
+
+				for (IntegerVariable row : rows) {
+					builder.append(solution.get(row)).append(' ');
+				}
+
+				assertTrue(solutions.add(builder.toString()));
+				return true;
+			}
+		}, variableSelector, valueSelector);
+
+		return solutions;
+	}
+
+	/**
+	 * Returns the row variables of an n-queens problem, which are registered before any other variable.
+	 *
+	 * @param solver The solver.
+	 * @param n      The board size.
+	 *
+	 * @return The row variables.
+	 */
+	private static List<IntegerVariable> rows(Solver solver, int n) {
+		List<IntegerVariable> rows = new ArrayList<>();
+
+		for (Variable<?> variable : solver.getVariables().subList(0, n)) {
+			rows.add((IntegerVariable) variable);
+		}
+
+		return rows;
+	}
+
+	/**
+	 * A solution handler which counts the solutions and never stops the search.
+	 */
+	private static class Counter implements SolutionHandler
+	{
+		/**
+		 * The number of solutions.
+		 */
+		private int count;
+
+		@Override
+		public boolean handle(Solution solution) {
+			count++;
+			return true;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the registry of variables and constraints of a solver.
+ *
+ * @author Eric Fritz
+ */
+public class SolverTest
+{
+	@Test
+	public void testDenseIds() {
+		Solver solver = new Solver();
+
+		for (int i = 0; i < 10; i++) {
+			IntegerVariable variable = new IntegerVariable(solver, 0, i);
+			assertEquals(i, variable.getId());
+		}
+
+		List<Variable<?>> variables = solver.getVariables();
+		assertEquals(10, variables.size());
+
+		for (int i = 0; i < variables.size(); i++) {
+			assertEquals(i, variables.get(i).getId());
+		}
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testRegisterTwice() {
+		Solver solver = new Solver();
+		solver.addVariable(new IntegerVariable(solver, 0, 1));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testConstraintOnOtherSolver() {
+		IntegerVariable x = new IntegerVariable(new Solver(), 0, 1);
+		IntegerVariable y = new IntegerVariable(new Solver(), 0, 1);
+		x.ne(y);
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void testSetValueOnOtherSolver() {
+		IntegerVariable x = new IntegerVariable(new Solver(), 0, 1);
+		new Solver().trySetValue(x, x.getDomain());
+	}
+
+	@Test
+	public void testNeighbors() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 3);
+		IntegerVariable y = new IntegerVariable(solver, 0, 3);
+		IntegerVariable z = new IntegerVariable(solver, 0, 3);
+
+		x.ne(y);
+		y.ne(z);
+
+		assertEquals(1, solver.getNeighbors(x).size());
+		assertSame(y, solver.getNeighbors(x).get(0));
+		assertEquals(2, solver.getNeighbors(y).size());
+		assertTrue(solver.getNeighbors(y).contains(x) && solver.getNeighbors(y).contains(z));
+	}
+}
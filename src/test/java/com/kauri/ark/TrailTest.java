@@ -0,0 +1,218 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerDomain;
+import com.kauri.ark.integer.IntegerInequalityConstraint;
+import com.kauri.ark.integer.IntegerVariable;
+import com.kauri.ark.integer.Interval;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that restoring the trail to a mark undoes exactly the changes made since, saving each variable once per
+ * level.
+ *
+ * @author Eric Fritz
+ */
+public class TrailTest
+{
+	@Test
+	public void testSaveOncePerLevel() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 9);
+		Trail trail = new Trail();
+
+		int mark = trail.mark();
+		trail.save(x);
+		x.setDomain(domain(2, 9));
+		trail.save(x);
+		x.setDomain(domain(4, 9));
+
+		assertEquals(1, trail.size());
+
+		trail.restore(mark);
+		assertEquals(domain(0, 9), x.getDomain());
+		assertEquals(0, trail.size());
+
+		// Restoring begins a new level, so the variable is saved again.
+		trail.save(x);
+		assertEquals(1, trail.size());
+	}
+
+	@Test
+	public void testNestedLevels() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 9);
+		IntegerVariable y = new IntegerVariable(solver, 0, 9);
+		Trail trail = new Trail();
+
+		int mark1 = trail.mark();
+		trail.save(x);
+		x.setDomain(domain(1, 9));
+
+		int mark2 = trail.mark();
+		trail.save(x);
+		x.setDomain(domain(2, 9));
+		trail.save(y);
+		y.setDomain(domain(0, 5));
+
+		int mark3 = trail.mark();
+		trail.save(x);
+		x.setDomain(domain(3, 9));
+
+		trail.restore(mark3);
+		assertEquals(domain(2, 9), x.getDomain());
+		assertEquals(domain(0, 5), y.getDomain());
+
+		trail.restore(mark2);
+		assertEquals(domain(1, 9), x.getDomain());
+		assertEquals(domain(0, 9), y.getDomain());
+
+		trail.restore(mark1);
+		assertEquals(domain(0, 9), x.getDomain());
+	}
+
+	@Test
+	public void testManyVariables() {
+		Solver solver = new Solver();
+		IntegerVariable[] variables = new IntegerVariable[200];
+		Trail trail = new Trail();
+
+		for (int i = 0; i < variables.length; i++) {
+			variables[i] = new IntegerVariable(solver, 0, 9);
+		}
+
+		int mark = trail.mark();
+
+		for (int round = 0; round < 3; round++) {
+			for (IntegerVariable variable : variables) {
+				trail.save(variable);
+				variable.setDomain(domain(round + 1, 9));
+			}
+		}
+
+		assertEquals(variables.length, trail.size());
+		trail.restore(mark);
+
+		for (IntegerVariable variable : variables) {
+			assertEquals(domain(0, 9), variable.getDomain());
+		}
+	}
+
+	@Test
+	public void testDeactivate() {
+		Solver solver = new Solver();
+		IntegerVariable x = new IntegerVariable(solver, 0, 9);
+		IntegerVariable y = new IntegerVariable(solver, 0, 9);
+		ArcList list1 = new ArcList();
+		ArcList list2 = new ArcList();
+		Trail trail = new Trail();
+
+		Arc<?>[] arcs = new Arc<?>[4];
+
+		for (int i = 0; i < arcs.length; i++) {
+			Arc<IntegerDomain> arc = new Arc<>(new IntegerInequalityConstraint(x, y), new IntegerVariable[] { x, y });
+			arc.register(list1);
+
+			if (i % 2 == 0) {
+				arc.register(list2);
+			}
+
+			arcs[i] = arc;
+		}
+
+		int mark1 = trail.mark();
+		trail.deactivate(arcs[1]);
+		trail.deactivate(arcs[2]);
+
+		assertEquals(set(arcs[0], arcs[3]), active(list1));
+		assertEquals(set(arcs[0]), active(list2));
+
+		int mark2 = trail.mark();
+		trail.deactivate(arcs[0]);
+
+		assertEquals(set(arcs[3]), active(list1));
+		assertEquals(set(), active(list2));
+		assertFalse(arcs[0].isActive());
+
+		trail.restore(mark2);
+		assertEquals(set(arcs[0], arcs[3]), active(list1));
+		assertEquals(set(arcs[0]), active(list2));
+
+		trail.restore(mark1);
+		assertEquals(set(arcs), active(list1));
+		assertEquals(set(arcs[0], arcs[2]), active(list2));
+
+		for (Arc<?> arc : arcs) {
+			assertTrue(arc.isActive());
+		}
+	}
+
+	/**
+	 * Returns the active arcs of a list.
+	 *
+	 * @param list The list.
+	 *
+	 * @return The active arcs.
+	 */
+	private static Set<Arc<?>> active(ArcList list) {
+		Set<Arc<?>> arcs = new HashSet<>();
+
+		for (int i = 0; i < list.size(); i++) {
+			arcs.add(list.get(i));
+		}
+
+		return arcs;
+	}
+
+	/**
+	 * Returns a set of arcs.
+	 *
+	 * @param arcs The arcs.
+	 *
+	 * @return The set.
+	 */
+	private static Set<Arc<?>> set(Arc<?>... arcs) {
+		Set<Arc<?>> set = new HashSet<>();
+		Collections.addAll(set, arcs);
+		return set;
+	}
+
+	/**
+	 * Returns the domain of the values between two bounds.
+	 *
+	 * @param lower The inclusive lower bound.
+	 * @param upper The inclusive upper bound.
+	 *
+	 * @return The domain.
+	 */
+	private static IntegerDomain domain(int lower, int upper) {
+		return new IntegerDomain(new Interval(lower, upper));
+	}
+}
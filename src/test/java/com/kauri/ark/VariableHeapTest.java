@@ -0,0 +1,214 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import com.kauri.ark.integer.Interval;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the heap of unselected variables against a sorted copy, and the first-fail search built on top of it against
+ * the known numbers of solutions.
+ *
+ * @author Eric Fritz
+ */
+public class VariableHeapTest
+{
+	/**
+	 * Orders variables by domain size, breaking ties by variable id.
+	 */
+	private static final Comparator<Variable<?>> ORDER = new Comparator<Variable<?>>()
+	{
+		@Override
+		public int compare(Variable<?> v1, Variable<?> v2) {
+			int size1 = v1.getDomain().size();
+			int size2 = v2.getDomain().size();
+
+			return size1 != size2 ? Integer.compare(size1, size2) : Integer.compare(v1.getId(), v2.getId());
+		}
+	};
+
+	@Test
+	public void testPollOrder() {
+		Random random = new Random(42);
+		Solver solver = new Solver();
+		VariableHeap heap = new VariableHeap();
+		List<Variable<?>> expected = new ArrayList<>();
+
+		for (int i = 0; i < 100; i++) {
+			IntegerVariable variable = new IntegerVariable(solver, 1, 1 + random.nextInt(20));
+			heap.add(variable);
+			expected.add(variable);
+		}
+
+		Collections.sort(expected, ORDER);
+		assertEquals(expected, drain(heap));
+		assertNull(heap.poll());
+	}
+
+	@Test
+	public void testUpdateAndRemove() {
+		Random random = new Random(42);
+		Solver solver = new Solver();
+		VariableHeap heap = new VariableHeap();
+		List<IntegerVariable> variables = new ArrayList<>();
+
+		for (int i = 0; i < 100; i++) {
+			IntegerVariable variable = new IntegerVariable(solver, 1, 1 + random.nextInt(20));
+			heap.add(variable);
+			variables.add(variable);
+		}
+
+		Set<Variable<?>> removed = new HashSet<>();
+
+		for (int i = 0; i < 500; i++) {
+			IntegerVariable variable = variables.get(random.nextInt(variables.size()));
+
+			switch (random.nextInt(3)) {
+				case 0:
+					variable.setDomain(variable.getDomain().retain(new Interval(1, 1 + random.nextInt(20))));
+					heap.update(variable);
+					break;
+
+				case 1:
+					heap.remove(variable);
+					removed.add(variable);
+					break;
+
+				default:
+					if (removed.remove(variable)) {
+						heap.add(variable);
+					}
+
+					break;
+			}
+
+			assertEquals(variables.size() - removed.size(), heap.size());
+			assertEquals(!removed.contains(variable), heap.contains(variable));
+		}
+
+		List<Variable<?>> expected = new ArrayList<>();
+
+		for (IntegerVariable variable : variables) {
+			if (!removed.contains(variable)) {
+				expected.add(variable);
+			}
+		}
+
+		Collections.sort(expected, ORDER);
+		assertEquals(expected, drain(heap));
+		assertTrue(heap.isEmpty());
+	}
+
+	@Test
+	public void testSample() {
+		Random random = new Random(42);
+		Solver solver = new Solver();
+		VariableHeap heap = new VariableHeap();
+		Set<Variable<?>> smallest = new HashSet<>();
+
+		for (int i = 0; i < 50; i++) {
+			IntegerVariable variable = new IntegerVariable(solver, 1, i % 5 == 0 ? 3 : 4 + random.nextInt(10));
+			heap.add(variable);
+
+			if (i % 5 == 0) {
+				smallest.add(variable);
+			}
+		}
+
+		Set<Variable<?>> sampled = new HashSet<>();
+
+		for (int i = 0; i < 1000; i++) {
+			sampled.add(heap.sample(random));
+		}
+
+		// Every tied variable is eventually chosen, and no larger variable ever is.
+		assertEquals(smallest, sampled);
+		assertFalse(heap.isEmpty());
+	}
+
+	@Test
+	public void testMinDomainSolutionCount() {
+		for (int n = 1; n <= 9; n++) {
+			assertEquals(Queens.SOLUTIONS[n], count(n, false));
+			assertEquals(Queens.SOLUTIONS[n], count(n, true));
+		}
+	}
+
+	/**
+	 * Polls every variable from the heap.
+	 *
+	 * @param heap The heap.
+	 *
+	 * @return The variables in the order they were polled.
+	 */
+	private static List<Variable<?>> drain(VariableHeap heap) {
+		List<Variable<?>> variables = new ArrayList<>();
+
+		while (!heap.isEmpty()) {
+			variables.add(heap.poll());
+		}
+
+		return variables;
+	}
+
+	/**
+	 * Counts the solutions of the n-queens problem with the first-fail variable order.
+	 *
+	 * @param n                 The board size.
+	 * @param randomTieBreaking Whether ties are broken randomly.
+	 *
+	 * @return The number of solutions.
+	 */
+	private static int count(int n, boolean randomTieBreaking) {
+		final int[] count = new int[1];
+
+		Solver solver = new Solver();
+		solver.setRandomTieBreaking(randomTieBreaking);
+		solver.setSeed(n);
+		new Queens(n).build(solver);
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				count[0]++;
+				return true;
+			}
+		}, VariableOrder.MIN_DOMAIN, ValueOrder.DOMAIN);
+
+		return count[0];
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerVariable;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the failure weights behind the dom/wdeg variable order.
+ *
+ * @author Eric Fritz
+ */
+public class WeightedDegreeTest
+{
+	@Test
+	public void testSolutionCount() {
+		for (int n = 1; n <= 9; n++) {
+			Solver solver = new Solver();
+			new Queens(n).build(solver);
+
+			solver.solve(new Enumerator(), VariableOrder.DOM_WDEG, ValueOrder.DOMAIN);
+			assertEquals(Queens.SOLUTIONS[n], solver.getStatistics().getSolutions());
+		}
+	}
+
+	@Test
+	public void testWeightsCountFailures() {
+		Solver solver = new Solver();
+		IntegerVariable[] variables = new IntegerVariable[3];
+
+		for (int i = 0; i < variables.length; i++) {
+			variables[i] = new IntegerVariable(solver, 0, 1);
+		}
+
+		// Three pairwise different variables with two values: every decision fails.
+		IntegerVariable.allDiff(variables);
+
+		for (IntegerVariable variable : variables) {
+			assertEquals(solver.getDegree(variable), solver.getWeightedDegree(variable));
+		}
+
+		assertEquals(SearchStatus.COMPLETE, solver.solve(new Enumerator(), VariableOrder.DOM_WDEG, ValueOrder.DOMAIN));
+		long failures = solver.getStatistics().getFailures();
+		assertTrue(failures > 0);
+
+		// Each failure raises the weight of the one constraint that failed, which has two variables.
+		assertEquals(2 * failures, excess(solver, variables));
+
+		// Weights carry over to the next search.
+		solver.solve(new Enumerator(), VariableOrder.DOM_WDEG, ValueOrder.DOMAIN);
+		assertEquals(4 * failures, excess(solver, variables));
+	}
+
+	@Test
+	public void testWeightsKeptAfterSearch() {
+		Solver solver = new Solver();
+		new Queens(8).build(solver);
+
+		solver.solve(new Enumerator(), VariableOrder.DOM_WDEG, ValueOrder.DOMAIN);
+		assertTrue(solver.getStatistics().getFailures() > 0);
+
+		long weighted = 0;
+		long degree = 0;
+
+		for (Variable<?> variable : solver.getVariables()) {
+			assertTrue(solver.getWeightedDegree(variable) >= solver.getDegree(variable));
+			weighted += solver.getWeightedDegree(variable);
+			degree += solver.getDegree(variable);
+		}
+
+		assertTrue(weighted > degree);
+	}
+
+	/**
+	 * Returns the sum of the weighted degrees of the supplied variables in excess of their degrees.
+	 *
+	 * @param solver    The solver.
+	 * @param variables The variables.
+	 *
+	 * @return The excess weight.
+	 */
+	private static long excess(Solver solver, IntegerVariable... variables) {
+		long excess = 0;
+
+		for (IntegerVariable variable : variables) {
+			excess += solver.getWeightedDegree(variable) - solver.getDegree(variable);
+		}
+
+		return excess;
+	}
+
+	/**
+	 * A solution handler which never stops the search.
+	 */
+	private static class Enumerator implements SolutionHandler
+	{
+		@Override
+		public boolean handle(Solution solution) {
+			return true;
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark;
+
+import com.kauri.ark.integer.IntegerDomain;
+import com.kauri.ark.integer.IntegerVariable;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the order in which the worklist hands out arcs, and that it holds each arc at most once.
+ *
+ * @author Eric Fritz
+ */
+public class WorklistTest
+{
+	/**
+	 * A variable for the arcs, which are never updated.
+	 */
+	private IntegerVariable variable = new IntegerVariable(new Solver(), 0, 1);
+
+	@Test
+	public void testFirstInFirstOut() {
+		Worklist worklist = new Worklist();
+		List<Arc<?>> arcs = new ArrayList<>();
+
+		// Wrap around the ring buffer and grow it several times.
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 40 * (round + 1); i++) {
+				Arc<?> arc = arc(Cost.BINARY);
+				arcs.add(arc);
+				worklist.add(arc);
+
+				if (i % 3 == 0) {
+					assertSame(arcs.remove(0), worklist.poll());
+				}
+			}
+
+			while (!arcs.isEmpty()) {
+				assertSame(arcs.remove(0), worklist.poll());
+			}
+
+			assertTrue(worklist.isEmpty());
+			assertNull(worklist.poll());
+		}
+	}
+
+	@Test
+	public void testDuplicates() {
+		Worklist worklist = new Worklist();
+		Arc<?> arc1 = arc(Cost.LINEAR);
+		Arc<?> arc2 = arc(Cost.LINEAR);
+
+		worklist.add(arc1);
+		worklist.add(arc2);
+		worklist.add(arc1);
+
+		assertSame(arc1, worklist.poll());
+		assertSame(arc2, worklist.poll());
+		assertTrue(worklist.isEmpty());
+
+		// An arc can be queued again once it has been polled.
+		worklist.add(arc1);
+		assertSame(arc1, worklist.poll());
+	}
+
+	@Test
+	public void testCheapestTierFirst() {
+		Worklist worklist = new Worklist();
+		Arc<?> global = arc(Cost.GLOBAL);
+		Arc<?> quadratic = arc(Cost.QUADRATIC);
+		Arc<?> binary1 = arc(Cost.BINARY);
+		Arc<?> binary2 = arc(Cost.BINARY);
+		Arc<?> unary = arc(Cost.UNARY);
+
+		worklist.add(global);
+		worklist.add(binary1);
+		worklist.add(quadratic);
+		worklist.add(binary2);
+
+		assertSame(binary1, worklist.poll());
+
+		// An arc of a cheaper tier queued later is still polled first.
+		worklist.add(unary);
+		assertSame(unary, worklist.poll());
+		assertSame(binary2, worklist.poll());
+		assertSame(quadratic, worklist.poll());
+		assertSame(global, worklist.poll());
+		assertTrue(worklist.isEmpty());
+	}
+
+	@Test
+	public void testClear() {
+		Worklist worklist = new Worklist();
+		Arc<?> arc = arc(Cost.UNARY);
+
+		worklist.add(arc);
+		worklist.add(arc(Cost.GLOBAL));
+		worklist.clear();
+
+		assertTrue(worklist.isEmpty());
+		assertFalse(arc.isQueued());
+
+		worklist.add(arc);
+		assertSame(arc, worklist.poll());
+	}
+
+	@Test
+	public void testPropagationsByCost() {
+		Solver solver = new Solver();
+		new Queens(6).build(solver);
+
+		final int[] solutions = new int[1];
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				solutions[0]++;
+				return true;
+			}
+		});
+
+		Statistics statistics = solver.getStatistics();
+		long total = 0;
+
+		for (Cost cost : Cost.values()) {
+			total += statistics.getPropagations(cost);
+		}
+
+		assertEquals(Queens.SOLUTIONS[6], solutions[0]);
+		assertEquals(statistics.getPropagations(), total);
+		assertTrue(statistics.getPropagations(Cost.BINARY) > 0);
+	}
+
+	/**
+	 * Creates an arc for a constraint of the given cost class.
+	 *
+	 * @param cost The cost class.
+	 *
+	 * @return The arc.
+	 */
+	private Arc<IntegerDomain> arc(final Cost cost) {
+		Constraint<IntegerDomain> constraint = new Constraint<IntegerDomain>()
+		{
+			@Override
+			public Cost getCost() {
+				return cost;
+			}
+
+			@Override
+			public Event getEvent(Variable<IntegerDomain> variable) {
+				return Event.REMOVE;
+			}
+
+			@Override
+			public boolean isEntailed() {
+				return false;
+			}
+
+			@Override
+			public boolean narrow(Variable<IntegerDomain> variable) {
+				return true;
+			}
+		};
+
+		return new Arc<>(constraint, new IntegerVariable[] { variable });
+	}
+}
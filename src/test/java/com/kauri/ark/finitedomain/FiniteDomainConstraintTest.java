@@ -0,0 +1,157 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark.finitedomain;
+
+import com.kauri.ark.Solution;
+import com.kauri.ark.SolutionHandler;
+import com.kauri.ark.Solver;
+import com.kauri.ark.integer.IntegerVariable;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the solutions of the finite domain constraints against a brute force enumeration of the same models.
+ *
+ * @author Eric Fritz
+ */
+public class FiniteDomainConstraintTest
+{
+	/**
+	 * The elements of the variables of the cardinality models.
+	 */
+	private static final String[] COLORS = { "red", "green", "blue" };
+
+	@Test
+	public void testMapping() {
+		Solver solver = new Solver();
+		final FiniteDomainVariable<Integer> a = new FiniteDomainVariable<>(solver, 1, 2, 3);
+		final FiniteDomainVariable<String> b = new FiniteDomainVariable<>(solver, "x", "y", "z");
+
+		Mapping<Integer, String> mapping = new Mapping<>();
+		mapping.map(1, "x");
+		mapping.map(2, "y");
+		mapping.map(3, "z");
+
+		a.map(b, mapping);
+		b.ne(new FiniteDomainVariable<>(solver, b.getDomain().retain("y")));
+
+		final Set<String> solutions = new TreeSet<>();
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				assertTrue(solutions.add(solution.get(a) + " " + solution.get(b)));
+				return true;
+			}
+		});
+
+		Set<String> expected = new TreeSet<>();
+		expected.add("1 x");
+		expected.add("3 z");
+
+		assertEquals(expected, solutions);
+	}
+
+	@Test
+	public void testCardinality() {
+		Solver solver = new Solver();
+		@SuppressWarnings("unchecked")
+		final FiniteDomainVariable<String>[] variables = new FiniteDomainVariable[5];
+
+		for (int i = 0; i < variables.length; i++) {
+			variables[i] = new FiniteDomainVariable<>(solver, COLORS);
+		}
+
+		final IntegerVariable count = FiniteDomainVariable.cardinality("red", variables);
+		FiniteDomainVariable.between("green", 1, 2, variables);
+
+		final int[] solutions = new int[1];
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				int red = 0;
+				int green = 0;
+
+				for (FiniteDomainVariable<String> variable : variables) {
+					red += solution.get(variable).equals("red") ? 1 : 0;
+					green += solution.get(variable).equals("green") ? 1 : 0;
+				}
+
+				assertEquals(red, (int) solution.get(count));
+				assertTrue(green >= 1 && green <= 2);
+
+				solutions[0]++;
+				return true;
+			}
+		});
+
+		// Count the assignments of five variables with one or two greens by brute force.
+
+		int expected = 0;
+
+		for (int assignment = 0; assignment < 243; assignment++) {
+			int green = 0;
+
+			for (int i = 0, rest = assignment; i < 5; i++, rest /= 3) {
+				green += rest % 3 == 1 ? 1 : 0;
+			}
+
+			expected += green >= 1 && green <= 2 ? 1 : 0;
+		}
+
+		assertEquals(expected, solutions[0]);
+	}
+
+	@Test
+	public void testAllDiff() {
+		Solver solver = new Solver();
+		@SuppressWarnings("unchecked")
+		FiniteDomainVariable<String>[] variables = new FiniteDomainVariable[3];
+
+		for (int i = 0; i < variables.length; i++) {
+			variables[i] = new FiniteDomainVariable<>(solver, COLORS);
+		}
+
+		FiniteDomainVariable.allDiff(variables);
+		variables[0].eq("green");
+
+		final int[] solutions = new int[1];
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				solutions[0]++;
+				return true;
+			}
+		});
+
+		assertEquals(2, solutions[0]);
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark.integer;
+
+import com.kauri.ark.Solution;
+import com.kauri.ark.SolutionHandler;
+import com.kauri.ark.Solver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the arithmetic builders, whose result variables start with bounds-only domains, against a brute force
+ * enumeration of the same models.
+ *
+ * @author Eric Fritz
+ */
+public class IntegerArithmeticTest
+{
+	/**
+	 * The values of the first operand. The holes make the operand domain exact.
+	 */
+	private static final int[] XS = { -3, -1, 0, 2, 5 };
+
+	/**
+	 * The values of the second operand.
+	 */
+	private static final int[] YS = { -2, 1, 3, 4 };
+
+	@Test
+	public void testSumSolutions() {
+		Solver solver = new Solver();
+		IntegerVariable x = variable(solver, XS);
+		IntegerVariable y = variable(solver, YS);
+		IntegerVariable z = x.add(y);
+		z.ne(2);
+
+		Set<String> expected = new TreeSet<>();
+
+		for (int a : XS) {
+			for (int b : YS) {
+				if (a + b != 2) {
+					expected.add(a + " " + b + " " + (a + b));
+				}
+			}
+		}
+
+		assertEquals(expected, solutions(solver, x, y, z));
+	}
+
+	@Test
+	public void testProductSolutions() {
+		Solver solver = new Solver();
+		IntegerVariable x = variable(solver, XS);
+		IntegerVariable y = variable(solver, YS);
+		IntegerVariable z = x.mul(y);
+		z.ne(0);
+
+		Set<String> expected = new TreeSet<>();
+
+		for (int a : XS) {
+			for (int b : YS) {
+				if (a * b != 0) {
+					expected.add(a + " " + b + " " + (a * b));
+				}
+			}
+		}
+
+		assertEquals(expected, solutions(solver, x, y, z));
+	}
+
+	@Test
+	public void testSumWakesOnInnerRemoval() {
+		Solver solver = new Solver();
+		IntegerVariable x = variable(solver, new int[] { 1, 3, 5 });
+		IntegerVariable y = variable(solver, new int[] { 10, 20 });
+		IntegerVariable z = x.add(y);
+		z.ne(0);
+
+		assertTrue(solver.propagate());
+		assertTrue(z.getDomain().contains(13));
+
+		// Removing an inner value keeps the bounds of x, so only a subscription to removals narrows z.
+		assertTrue(x.trySetValue(x.getDomain().remove(3)));
+		assertTrue(solver.propagate());
+
+		assertFalse(z.getDomain().contains(13));
+		assertFalse(z.getDomain().contains(23));
+	}
+
+	@Test
+	public void testIntermediateStaysBoundsOnly() {
+		Solver solver = new Solver();
+		IntegerVariable x = variable(solver, XS);
+		IntegerVariable y = variable(solver, YS);
+
+		assertTrue(x.add(y).getDomain().isBoundsOnly());
+		assertFalse(x.add(y).ne(0).getDomain().isBoundsOnly());
+	}
+
+	@Test
+	public void testAddConstraintWhileSolving() {
+		final Solver solver = new Solver();
+		final IntegerVariable x = variable(solver, XS);
+		final IntegerVariable y = variable(solver, YS);
+		final boolean[] rejected = new boolean[1];
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				try {
+					x.add(y).ne(0);
+				} catch (RuntimeException e) {
+					rejected[0] = true;
+				}
+
+				return false;
+			}
+		});
+
+		assertTrue(rejected[0]);
+	}
+
+	/**
+	 * Creates a new variable whose domain holds exactly the supplied values.
+	 *
+	 * @param solver The solver.
+	 * @param values The values.
+	 *
+	 * @return The variable.
+	 */
+	private static IntegerVariable variable(Solver solver, int[] values) {
+		List<Interval> intervals = new ArrayList<>();
+
+		for (int value : values) {
+			intervals.add(new Interval(value, value));
+		}
+
+		return new IntegerVariable(solver, new IntegerDomain().concat(intervals));
+	}
+
+	/**
+	 * Returns every solution of the network, written as the values of the supplied variables.
+	 *
+	 * @param solver    The solver.
+	 * @param variables The variables to report.
+	 *
+	 * @return The set of solutions.
+	 */
+	private static Set<String> solutions(Solver solver, final IntegerVariable... variables) {
+		final Set<String> solutions = new TreeSet<>();
+
+		solver.solve(new SolutionHandler()
+		{
+			@Override
+			public boolean handle(Solution solution) {
+				StringBuilder builder = new StringBuilder();
+
+				for (IntegerVariable variable : variables) {
+					builder.append(builder.length() == 0 ? "" : " ").append(solution.get(variable));
+				}
+
+				assertTrue(solutions.add(builder.toString()));
+				return true;
+			}
+		});
+
+		return solutions;
+	}
+}
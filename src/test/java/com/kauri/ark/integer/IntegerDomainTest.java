@@ -0,0 +1,589 @@
+/*
+ * This file is part of the ark package.
+ *
+ * Copyright (c) 2014 Eric Fritz
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without
+ * restriction, including without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING
+ * BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT.  IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.kauri.ark.integer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks each IntegerDomain kernel against a sorted set of the same values, on random domains in every form: interval
+ * form, bitmap form, bounds-only, and windows over the storage of a wider domain.
+ *
+ * @author Eric Fritz
+ */
+public class IntegerDomainTest
+{
+	/**
+	 * The number of random operand pairs checked by each test.
+	 */
+	private static final int ROUNDS = 1000;
+
+	/**
+	 * The source of random domains. The seed is fixed so failures can be reproduced.
+	 */
+	private Random random = new Random(42);
+
+	@Test
+	public void testContains() {
+		for (int round = 0; round < ROUNDS; round++) {
+			IntegerDomain domain = randomDomain();
+			TreeSet<Integer> values = valuesOf(domain);
+
+			for (int value = -300; value <= 300; value++) {
+				if (values.contains(value) != domain.contains(value)) {
+					fail(domain + " contains " + value);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRetainAll() {
+		for (int round = 0; round < ROUNDS; round++) {
+			IntegerDomain domain1 = randomDomain();
+			IntegerDomain domain2 = randomDomain();
+
+			TreeSet<Integer> expected = valuesOf(domain1);
+			expected.retainAll(valuesOf(domain2));
+
+			check(domain1 + " retainAll " + domain2, domain1, expected, domain1.retainAll(domain2));
+		}
+	}
+
+	@Test
+	public void testIntersects() {
+		for (int round = 0; round < ROUNDS; round++) {
+			IntegerDomain domain1 = randomDomain();
+			IntegerDomain domain2 = randomDomain();
+
+			TreeSet<Integer> shared = valuesOf(domain1);
+			shared.retainAll(valuesOf(domain2));
+
+			assertEquals(domain1 + " intersects " + domain2, !shared.isEmpty(), domain1.intersects(domain2));
+			assertEquals(domain2 + " intersects " + domain1, !shared.isEmpty(), domain2.intersects(domain1));
+		}
+	}
+
+	@Test
+	public void testRemoveAll() {
+		for (int round = 0; round < ROUNDS; round++) {
+			IntegerDomain domain1 = randomDomain();
+			IntegerDomain domain2 = randomDomain();
+
+			TreeSet<Integer> expected = valuesOf(domain1);
+			expected.removeAll(valuesOf(domain2));
+
+			check(domain1 + " removeAll " + domain2, domain1, expected, domain1.removeAll(domain2));
+		}
+	}
+
+	@Test
+	public void testConcatDomain() {
+		for (int round = 0; round < ROUNDS; round++) {
+			IntegerDomain domain1 = randomDomain();
+			IntegerDomain domain2 = randomDomain();
+
+			TreeSet<Integer> expected = valuesOf(domain1);
+			expected.addAll(valuesOf(domain2));
+
+			check(domain1 + " concat " + domain2, domain1, expected, domain1.concat(domain2));
+		}
+	}
+
+	@Test
+	public void testConcatList() {
+		for (int round = 0; round < ROUNDS; round++) {
+			IntegerDomain domain = randomDomain();
+			List<Interval> intervals = new ArrayList<>();
+
+			TreeSet<Integer> expected = valuesOf(domain);
+
+			// The list may be unsorted and its intervals may overlap.
+			for (int i = random.nextInt(4); i > 0; i--) {
+				int lower = random.nextInt(400) - 200;
+				Interval interval = new Interval(lower, lower + random.nextInt(20));
+
+				intervals.add(interval);
+				for (int value = interval.getLower(); value <= interval.getUpper(); value++) {
+					expected.add(value);
+				}
+			}
+
+			check(domain + " concat " + intervals, domain, expected, domain.concat(intervals));
+		}
+	}
+
+	@Test
+	public void testRetainInterval() {
+		for (int round = 0; round < ROUNDS; round++) {
+			IntegerDomain domain = randomDomain();
+			Interval interval = randomInterval();
+
+			TreeSet<Integer> expected = valuesOf(domain);
+			expected.retainAll(range(interval.getLower(), interval.getUpper()));
+
+			check(domain + " retain " + interval, domain, expected, domain.retain(interval));
+		}
+	}
+
+	@Test
+	public void testRemoveInterval() {
+		for (int round = 0; round < ROUNDS; round++) {
+			IntegerDomain domain = randomDomain();
+			Interval interval = randomInterval();
+
+			TreeSet<Integer> expected = valuesOf(domain);
+			expected.removeAll(range(interval.getLower(), interval.getUpper()));
+
+			check(domain + " remove " + interval, domain, expected, domain.remove(interval));
+		}
+	}
+
+	@Test
+	public void testNegate() {
+		for (int round = 0; round < ROUNDS; round++) {
+			IntegerDomain domain = randomDomain();
+			TreeSet<Integer> expected = new TreeSet<>();
+
+			for (int value : valuesOf(domain)) {
+				expected.add(-value);
+			}
+
+			check(domain + " negate", domain, expected, domain.negate());
+		}
+	}
+
+	@Test
+	public void testSavedVersions() {
+		for (int round = 0; round < ROUNDS / 10; round++) {
+			List<IntegerDomain> domains = new ArrayList<>();
+			List<TreeSet<Integer>> expected = new ArrayList<>();
+
+			IntegerDomain domain = randomFragmented(1 + random.nextInt(300));
+
+			// Narrow one domain step by step, as a search would, and read every saved step back in random order.
+			for (int step = 0; step < 30 && !domain.isEmpty(); step++) {
+				domains.add(domain);
+				expected.add(valuesOf(domain));
+
+				int value = domain.getMinimum() + random.nextInt(domain.getMaximum() - domain.getMinimum() + 1);
+				IntegerDomain operand = randomFragmented(1 + random.nextInt(300));
+
+				switch (random.nextInt(3)) {
+					case 0:
+						domain = domain.remove(value);
+						break;
+					case 1:
+						domain = domain.removeAll(operand);
+						break;
+					default:
+						domain = domain.retainAll(operand.concat(randomFragmented(1 + random.nextInt(300))));
+						break;
+				}
+
+				int index = random.nextInt(domains.size());
+				assertEquals(expected.get(index), valuesOf(domains.get(index)));
+			}
+
+			for (int i = domains.size() - 1; i >= 0; i--) {
+				assertEquals(expected.get(i), valuesOf(domains.get(i)));
+				assertEquals(expected.get(i).size(), domains.get(i).size());
+			}
+		}
+	}
+
+	@Test
+	public void testConcurrentReads() throws Exception {
+		final List<IntegerDomain> domains = new ArrayList<>();
+		final List<TreeSet<Integer>> expected = new ArrayList<>();
+
+		// Derive many versions of one wide bitmap domain, so that they share most of their blocks.
+		IntegerDomain domain = randomFragmented(3000);
+
+		for (int step = 0; step < 200 && !domain.isEmpty(); step++) {
+			TreeSet<Integer> values = new TreeSet<>();
+
+			for (Interval interval : domain) {
+				values.addAll(range(interval.getLower(), interval.getUpper()));
+			}
+
+			domains.add(domain);
+			expected.add(values);
+
+			int value = domain.getMinimum() + random.nextInt(domain.getMaximum() - domain.getMinimum() + 1);
+			domain = random.nextBoolean() ? domain.remove(value) : domain.removeAll(randomFragmented(300));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<?>> futures = new ArrayList<>();
+
+		try {
+			for (int thread = 0; thread < 4; thread++) {
+				final Random random = new Random(thread);
+
+				futures.add(executor.submit(new Runnable()
+				{
+					@Override
+					public void run() {
+						for (int read = 0; read < 20000; read++) {
+							int index = random.nextInt(domains.size());
+							IntegerDomain domain = domains.get(index);
+
+							int value = domain.getMinimum() + random.nextInt(domain.getMaximum() - domain.getMinimum() + 1);
+
+							assertEquals(expected.get(index).contains(value), domain.contains(value));
+							assertEquals(expected.get(index).size(), domain.size());
+						}
+					}
+				}));
+			}
+
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testEmptyBoundsOnlyConcat() {
+		IntegerDomain empty = IntegerDomain.boundsOnly(new Interval(1, 3)).remove(new Interval(1, 3));
+		IntegerDomain domain = new IntegerDomain(new Interval(5, 7));
+
+		assertTrue(empty.isEmpty());
+		assertTrue(empty.isBoundsOnly());
+		assertEquals(domain, empty.concat(domain));
+		assertEquals(domain, domain.concat(empty));
+		assertTrue(empty.negate().isEmpty());
+	}
+
+	@Test
+	public void testIntervalView() {
+		IntegerDomain domain = new IntegerDomain(new Interval(1, 3))
+				.concat(new IntegerDomain(new Interval(4, 6)))
+				.concat(new IntegerDomain(new Interval(10, 12)));
+
+		// Adjacent intervals are merged, and the view creates its intervals as they are reached.
+		Iterator<Interval> iterator = domain.iterator();
+		assertEquals(new Interval(1, 6), iterator.next());
+		assertEquals(new Interval(10, 12), iterator.next());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testIntervalViewExhausted() {
+		Iterator<Interval> iterator = new IntegerDomain(new Interval(1, 3)).iterator();
+		iterator.next();
+		iterator.next();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testIntervalViewReadOnly() {
+		Iterator<Interval> iterator = new IntegerDomain(new Interval(1, 3)).iterator();
+		iterator.next();
+		iterator.remove();
+	}
+
+	@Test
+	public void testEqualsAcrossStorage() {
+		for (int round = 0; round < ROUNDS; round++) {
+			IntegerDomain domain = randomDomain();
+
+			if (domain.isBoundsOnly()) {
+				continue;
+			}
+
+			// The same values rebuilt from the interval view, in a fresh array of their own.
+			IntegerDomain copy = new IntegerDomain().concat(intervalsOf(domain));
+
+			assertEquals(domain.toString(), domain, copy);
+			assertEquals(domain.toString(), copy, domain);
+			assertEquals(domain.toString(), domain.hashCode(), copy.hashCode());
+			assertEquals(domain.toString(), domain.toString(), copy.toString());
+		}
+	}
+
+	@Test
+	public void testWordBoundaries() {
+		for (int offset : new int[] { -100, 0, 37 }) {
+			IntegerDomain domain = new IntegerDomain(new Interval(offset, offset + 255));
+			TreeSet<Integer> expected = range(offset, offset + 255);
+
+			// Punch holes on both sides of every word boundary, then empty the domain a word at a time.
+			for (int boundary = 64; boundary < 256; boundary += 64) {
+				for (int value : new int[] { offset + boundary - 1, offset + boundary }) {
+					domain = domain.remove(value);
+					expected.remove(value);
+					check(domain + " remove " + value, domain, expected, domain);
+				}
+			}
+
+			for (int boundary = 0; boundary < 256; boundary += 64) {
+				Interval word = new Interval(offset + boundary, offset + boundary + 63);
+				domain = domain.remove(word);
+				expected.removeAll(range(word.getLower(), word.getUpper()));
+				check(domain + " remove " + word, domain, expected, domain);
+			}
+
+			assertTrue(domain.isEmpty());
+		}
+	}
+
+	@Test
+	public void testFormSwitching() {
+		IntegerDomain whole = new IntegerDomain(new Interval(0, 300));
+		IntegerDomain domain = whole;
+
+		// Removing every third value fragments the span until it is kept as a bitmap.
+		for (int value = 1; value < 300; value += 3) {
+			domain = domain.remove(value);
+		}
+
+		assertEquals(201, domain.size());
+		assertFalse(domain.contains(298));
+		assertTrue(domain.contains(299));
+
+		// Filling the holes again, or narrowing to a gapless range, gives back a single interval.
+		for (int value = 1; value < 300; value += 3) {
+			domain = domain.concat(new IntegerDomain(new Interval(value, value)));
+		}
+
+		assertEquals(whole, domain);
+		assertEquals(Collections.singletonList(new Interval(0, 300)), intervalsOf(domain));
+
+		domain = whole.remove(100).remove(200).retain(new Interval(101, 199));
+		assertEquals(Collections.singletonList(new Interval(101, 199)), intervalsOf(domain));
+
+		domain = whole.remove(new Interval(1, 299));
+		assertEquals(Arrays.asList(new Interval(0, 0), new Interval(300, 300)), intervalsOf(domain));
+		assertEquals(Integer.valueOf(300), domain.remove(0).getUniqueValue());
+	}
+
+	/**
+	 * Checks the result of a kernel against the expected values. The result of narrowing a bounds-only domain which is
+	 * not empty is expected to be the smallest interval holding the expected values.
+	 *
+	 * @param message  The description of the operation.
+	 * @param operand  The domain the kernel was applied to.
+	 * @param expected The exact values of the result.
+	 * @param actual   The result of the kernel.
+	 */
+	private void check(String message, IntegerDomain operand, TreeSet<Integer> expected, IntegerDomain actual) {
+		if (operand.isBoundsOnly() && !operand.isEmpty() && !expected.isEmpty()) {
+			expected = range(expected.first(), expected.last());
+		}
+
+		assertEquals(message, expected, valuesOf(actual));
+		assertEquals(message, expected.size(), actual.size());
+		assertEquals(message, expected.isEmpty(), actual.isEmpty());
+
+		if (!expected.isEmpty()) {
+			assertEquals(message, (int) expected.first(), actual.getMinimum());
+			assertEquals(message, (int) expected.last(), actual.getMaximum());
+		}
+
+		for (int value = -320; value <= 320; value++) {
+			if (expected.contains(value) != actual.contains(value)) {
+				fail(message + " contains " + value);
+			}
+		}
+	}
+
+	/**
+	 * Returns a random domain in a random form. One in ten domains is empty.
+	 *
+	 * @return A random IntegerDomain.
+	 */
+	private IntegerDomain randomDomain() {
+		switch (random.nextInt(10)) {
+			case 0:
+				return new IntegerDomain();
+			case 1:
+			case 2:
+				return randomSparse();
+			case 3:
+			case 4:
+				return randomFragmented(1 + random.nextInt(300));
+			case 5:
+			case 6:
+				return randomBoundsOnly();
+			default:
+				return randomWindow();
+		}
+	}
+
+	/**
+	 * Returns a domain of a few short intervals spread over a wide span, which is kept in interval form.
+	 *
+	 * @return A random IntegerDomain.
+	 */
+	private IntegerDomain randomSparse() {
+		IntegerDomain domain = new IntegerDomain();
+
+		for (int i = 1 + random.nextInt(4); i > 0; i--) {
+			int lower = random.nextInt(500) - 250;
+			domain = domain.concat(new IntegerDomain(new Interval(lower, lower + random.nextInt(10))));
+		}
+
+		return domain;
+	}
+
+	/**
+	 * Returns a domain with many holes over a span of at most <tt>span</tt> values, which is kept in bitmap form
+	 * unless it is a single interval.
+	 *
+	 * @param span The width of the span.
+	 *
+	 * @return A random IntegerDomain.
+	 */
+	private IntegerDomain randomFragmented(int span) {
+		List<Interval> intervals = new ArrayList<>();
+		int lower = random.nextInt(100) - 150;
+
+		for (int value = lower; value < lower + span; value++) {
+			if (random.nextInt(3) != 0) {
+				intervals.add(new Interval(value, value));
+			}
+		}
+
+		return new IntegerDomain().concat(intervals);
+	}
+
+	/**
+	 * Returns a random bounds-only domain, which may have been narrowed before.
+	 *
+	 * @return A random IntegerDomain.
+	 */
+	private IntegerDomain randomBoundsOnly() {
+		int lower = random.nextInt(400) - 200;
+		IntegerDomain domain = IntegerDomain.boundsOnly(new Interval(lower, lower + random.nextInt(100)));
+
+		if (random.nextBoolean()) {
+			domain = domain.retain(randomInterval());
+		}
+
+		return domain;
+	}
+
+	/**
+	 * Returns a domain narrowed at its bounds from a wider domain, so that it is a window over the storage of the wider
+	 * domain whose first and last intervals are cut.
+	 *
+	 * @return A random IntegerDomain.
+	 */
+	private IntegerDomain randomWindow() {
+		IntegerDomain domain = random.nextBoolean() ? randomSparse() : randomFragmented(1 + random.nextInt(300));
+
+		if (domain.isEmpty()) {
+			return domain;
+		}
+
+		int lower = domain.getMinimum() + random.nextInt(domain.size() / 2 + 1);
+		int upper = domain.getMaximum() - random.nextInt(domain.size() / 2 + 1);
+
+		if (random.nextBoolean()) {
+			domain = domain.remove(domain.getMinimum()).remove(domain.getMaximum());
+		}
+
+		return lower <= upper ? domain.retain(new Interval(lower, upper)) : domain;
+	}
+
+	/**
+	 * Returns a random interval overlapping the range of the random domains.
+	 *
+	 * @return A random Interval.
+	 */
+	private Interval randomInterval() {
+		int lower = random.nextInt(600) - 300;
+		return new Interval(lower, lower + random.nextInt(200));
+	}
+
+	/**
+	 * Returns the values of a domain, read through its intervals.
+	 *
+	 * @param domain The domain.
+	 *
+	 * @return The values of the domain.
+	 */
+	private static TreeSet<Integer> valuesOf(IntegerDomain domain) {
+		TreeSet<Integer> values = new TreeSet<>();
+
+		for (Interval interval : domain) {
+			for (int value = interval.getLower(); value <= interval.getUpper(); value++) {
+				assertTrue(domain + " has overlapping intervals", values.add(value));
+			}
+		}
+
+		return values;
+	}
+
+	/**
+	 * Returns the intervals of a domain.
+	 *
+	 * @param domain The domain.
+	 *
+	 * @return The intervals of the domain.
+	 */
+	private static List<Interval> intervalsOf(IntegerDomain domain) {
+		List<Interval> intervals = new ArrayList<>();
+
+		for (Interval interval : domain) {
+			intervals.add(interval);
+		}
+
+		return intervals;
+	}
+
+	/**
+	 * Returns the values between two bounds.
+	 *
+	 * @param lower The inclusive lower bound.
+	 * @param upper The inclusive upper bound.
+	 *
+	 * @return The values.
+	 */
+	private static TreeSet<Integer> range(int lower, int upper) {
+		TreeSet<Integer> values = new TreeSet<>();
+
+		for (int value = lower; value <= upper; value++) {
+			values.add(value);
+		}
+
+		return values;
+	}
+}